@@ -0,0 +1,95 @@
+package io.zksync.transport.codec;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import io.zksync.domain.Signature;
+import io.zksync.domain.TimeRange;
+import io.zksync.domain.transaction.TransactionDetails;
+import io.zksync.domain.transaction.Transfer;
+import io.zksync.transport.ZkSyncRequest;
+import io.zksync.transport.response.ZksTransactionDetails;
+
+/**
+ * Compares the streaming codecs with plain data binding on the two hottest calls:
+ * encoding a `tx_submit` request and decoding a `tx_info` response
+ *
+ * Run with `./gradlew jmh`
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonCodecBenchmark {
+
+    @Param({"binding", "streaming"})
+    public String codec;
+
+    private ObjectWriter requestWriter;
+
+    private ObjectReader detailsReader;
+
+    private ZkSyncRequest submit;
+
+    private byte[] txInfo;
+
+    @Setup
+    public void setUp() {
+        final ObjectMapper objectMapper = "streaming".equals(codec) ?
+                new ObjectMapper().registerModule(new ZkSyncJsonModule()) :
+                new ObjectMapper();
+        requestWriter = objectMapper.writerFor(ZkSyncRequest.class);
+        detailsReader = objectMapper.readerFor(ZksTransactionDetails.class);
+
+        final Transfer transfer = Transfer.builder()
+                .accountId(44)
+                .from("0xede35562d3555e61120a151b3c8e8e91d83a378a")
+                .to("0x19aa2ed8712072e918632259780e587698ef58df")
+                .token(0)
+                .amount(BigInteger.valueOf(1000000000000L))
+                .fee("1000000")
+                .nonce(12)
+                .signature(Signature.builder()
+                        .pubKey("40771354dc314593e071eaf4d0f42ccb1fad6c7006c57464feeb7ab5872b7490")
+                        .signature("b3211c7e15d31d64619e0c7f65fce8c6e45637b5cfc8711478c5a151e6568d875ec7f48e040225fe3cc7f1e7294625cad6d98b4595d007d36ef62122de16ae01")
+                        .build())
+                .timeRange(new TimeRange())
+                .build();
+        submit = ZkSyncRequest.builder().method("tx_submit").params(Arrays.asList(transfer, null, false)).build();
+
+        txInfo = ("{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":{\"executed\":true,\"success\":true,\"failReason\":null,"
+                + "\"block\":{\"blockNumber\":42,\"committed\":true,\"verified\":false}}}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] encodeSubmit() throws IOException {
+        return requestWriter.writeValueAsBytes(submit);
+    }
+
+    @Benchmark
+    public TransactionDetails decodeTxInfo() throws IOException {
+        final ZksTransactionDetails response = detailsReader.readValue(txInfo);
+        return response.getResult();
+    }
+}
@@ -27,6 +27,7 @@ import io.zksync.domain.transaction.Swap;
 import io.zksync.domain.transaction.Transfer;
 import io.zksync.domain.transaction.Withdraw;
 import io.zksync.domain.transaction.WithdrawNFT;
+import io.zksync.provider.FeeQuoteCache;
 import io.zksync.wallet.ZkASyncWallet;
 import io.zksync.wallet.ZkSyncWallet;
 import lombok.Getter;
@@ -34,7 +35,7 @@ import lombok.Getter;
 @Getter
 public class TransactionBuildHelper {
 
-    private Tokens tokens;
+    private Supplier<Tokens> tokens;
 
     private Supplier<CompletableFuture<Integer>> accountId;
     private Supplier<CompletableFuture<Integer>> nonce;
@@ -43,6 +44,14 @@ public class TransactionBuildHelper {
     private Supplier<String> address;
 
     public TransactionBuildHelper(ZkASyncWallet asyncWallet, Tokens tokens) {
+        this(asyncWallet, () -> tokens);
+    }
+
+    /**
+     * @param asyncWallet - Wallet whose account, nonce and fees are used
+     * @param tokens - Supplies current token set on every lookup, e.g. `TokenRegistry::getTokens`
+     */
+    public TransactionBuildHelper(ZkASyncWallet asyncWallet, Supplier<Tokens> tokens) {
         this.tokens = tokens;
 
         this.accountId = asyncWallet::getAccountId;
@@ -53,6 +62,14 @@ public class TransactionBuildHelper {
     }
 
     public TransactionBuildHelper(ZkSyncWallet wallet, Tokens tokens) {
+        this(wallet, () -> tokens);
+    }
+
+    /**
+     * @param wallet - Wallet whose account, nonce and fees are used
+     * @param tokens - Supplies current token set on every lookup, e.g. `TokenRegistry::getTokens`
+     */
+    public TransactionBuildHelper(ZkSyncWallet wallet, Supplier<Tokens> tokens) {
         this.tokens = tokens;
 
         this.accountId = () -> CompletableFuture.completedFuture(wallet.getAccountId());
@@ -62,7 +79,24 @@ public class TransactionBuildHelper {
         this.address = wallet::getAddress;
     }
 
+    /**
+     * Serve fees of single transactions from the cache of fee quotes
+     *
+     * @param feeQuotes - Cache of fee quotes, may be shared between helpers of several wallets
+     * @return This helper
+     */
+    public TransactionBuildHelper feeQuotes(FeeQuoteCache feeQuotes) {
+        final Function<TransactionFeeRequest, CompletableFuture<TransactionFeeDetails>> loader = this.transactionFee;
+        this.transactionFee = request -> feeQuotes.quote(request, loader);
+        return this;
+    }
+
+    public Tokens getTokens() {
+        return tokens.get();
+    }
+
     public Token getToken(String tokenIdentifier) {
+        final Tokens tokens = this.tokens.get();
         final Token token = tokens.getTokenBySymbol(tokenIdentifier) != null ?
                 tokens.getTokenBySymbol(tokenIdentifier) : tokens.getTokenByAddress(tokenIdentifier);
 
@@ -1,6 +1,6 @@
 package io.zksync.domain.fee;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 public enum TransactionType {
@@ -55,17 +55,15 @@ public enum TransactionType {
     }
 
     private Object buildChangePubKeyLegacy(boolean onchainPubkeyAuth) {
-        ObjectMapper mapper = new ObjectMapper();
-        ObjectNode root = mapper.createObjectNode();
-        ObjectNode child = mapper.createObjectNode();
+        ObjectNode root = JsonNodeFactory.instance.objectNode();
+        ObjectNode child = JsonNodeFactory.instance.objectNode();
         child.put("onchainPubkeyAuth", onchainPubkeyAuth);
         root.set(this.getFeeIdentifier(), child);
         return root;
     }
 
     private Object buildChangePubKey(String authType) {
-        ObjectMapper mapper = new ObjectMapper();
-        ObjectNode root = mapper.createObjectNode();
+        ObjectNode root = JsonNodeFactory.instance.objectNode();
         root.put("ChangePubKey", authType);
         return root;
     }
@@ -0,0 +1,9 @@
+package io.zksync.exception;
+
+public class ZkSyncDeadlineExceededException extends ZkSyncException {
+    private static final long serialVersionUID = 3150274529381462118L;
+
+    public ZkSyncDeadlineExceededException(String message) {
+        super(message);
+    }
+}
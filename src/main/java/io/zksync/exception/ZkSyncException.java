@@ -5,19 +5,34 @@ import io.zksync.transport.ZkSyncError;
 public class ZkSyncException extends RuntimeException {
     private static final long serialVersionUID = 4907339762891790110L;
 
+    private final transient ZkSyncError error;
+
     public ZkSyncException(String message) {
         super(message);
+        this.error = null;
     }
 
     public ZkSyncException(Throwable cause) {
         super(cause);
+        this.error = null;
     }
 
     public ZkSyncException(String message, Throwable cause) {
         super(message, cause);
+        this.error = null;
     }
 
     public ZkSyncException(ZkSyncError error) {
         super(error.getMessage() + " (" + error.getCode() + ")");
+        this.error = error;
+    }
+
+    /**
+     * Get error returned by ZkSync server
+     *
+     * @return JSON-RPC error or null if the request failed before reaching the server
+     */
+    public ZkSyncError getError() {
+        return error;
     }
 }
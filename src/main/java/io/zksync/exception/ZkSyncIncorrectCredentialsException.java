@@ -18,7 +18,7 @@ public class ZkSyncIncorrectCredentialsException extends ZkSyncException {
     }
 
     public ZkSyncIncorrectCredentialsException(ZkSyncError error) {
-        super(error.getMessage() + " (" + error.getCode() + ")");
+        super(error);
     }
 
 }
@@ -0,0 +1,9 @@
+package io.zksync.exception;
+
+public class ZkSyncRateLimitException extends ZkSyncException {
+    private static final long serialVersionUID = -6012823153245738914L;
+
+    public ZkSyncRateLimitException(String message) {
+        super(message);
+    }
+}
@@ -2,8 +2,15 @@ package io.zksync.provider;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
 
 import org.apache.commons.lang3.tuple.Pair;
 
@@ -20,7 +27,9 @@ import io.zksync.domain.token.Tokens;
 import io.zksync.domain.transaction.TransactionDetails;
 import io.zksync.domain.transaction.ZkSyncTransaction;
 import io.zksync.signer.EthSignature;
+import io.zksync.transport.Deadline;
 import io.zksync.transport.HttpTransport;
+import io.zksync.transport.WarmUpReport;
 
 public interface AsyncProvider {
     /**
@@ -31,6 +40,40 @@ public interface AsyncProvider {
      */
     CompletableFuture<AccountState> getState(String accountAddress);
 
+    /**
+     * Get current states of many accounts, looked up by batches of `account_info` requests
+     *
+     * At most a few batches are in flight at once, so memory use does not grow with the amount of accounts.
+     * Providers which do not override it look up every account with a request of its own.
+     *
+     * @param accountAddresses - Addresses of the accounts in hex format
+     * @param consumer - Receives every state as it arrives, called by one thread at a time
+     * @return Future which completes once every state was received, or fails with the first error
+     */
+    default CompletableFuture<Void> getStates(Collection<String> accountAddresses, BiConsumer<String, AccountState> consumer) {
+        final CompletableFuture<?>[] states = new CompletableFuture<?>[accountAddresses.size()];
+        int i = 0;
+        for (String accountAddress : accountAddresses) {
+            states[i++] = getState(accountAddress).thenAccept(state -> {
+                synchronized (consumer) {
+                    consumer.accept(accountAddress, state);
+                }
+            });
+        }
+        return CompletableFuture.allOf(states);
+    }
+
+    /**
+     * Get current states of many accounts, looked up by batches of `account_info` requests
+     *
+     * @param accountAddresses - Addresses of the accounts in hex format
+     * @return States of the accounts by address
+     */
+    default CompletableFuture<Map<String, AccountState>> getStates(Collection<String> accountAddresses) {
+        final Map<String, AccountState> states = new HashMap<>();
+        return getStates(accountAddresses, states::put).thenApply(done -> states);
+    }
+
     /**
      * Get fee of transaction that means cost of transaction execution in ZkSync network
      * 
@@ -115,6 +158,29 @@ public interface AsyncProvider {
      */
     CompletableFuture<TransactionDetails> getTransactionDetails(String txHash);
 
+    /**
+     * Get details of many transactions, looked up by batches of `tx_info` requests
+     *
+     * Providers which do not override it look up every transaction with a request of its own.
+     *
+     * @param txHashes - Hashes of the transactions in format: `sync-tx:[hex]`
+     * @return Details by hash of the transactions, and errors by hash of the lookups which failed
+     */
+    default CompletableFuture<BatchResult<TransactionDetails>> getTransactionDetails(Collection<String> txHashes) {
+        final BatchResult<TransactionDetails> result = new BatchResult<>();
+        final CompletableFuture<?>[] details = new CompletableFuture<?>[txHashes.size()];
+        int i = 0;
+        for (String txHash : txHashes) {
+            details[i++] = getTransactionDetails(txHash).handle((value, error) -> {
+                synchronized (result) {
+                    result.add(txHash, value, error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                }
+                return null;
+            });
+        }
+        return CompletableFuture.allOf(details).thenApply(done -> result);
+    }
+
     /**
      * Get address of ZkSync contract deployed in Ethereum network
      * 
@@ -160,6 +226,42 @@ public interface AsyncProvider {
      */
     CompletableFuture<Tokens> updateTokenSet();
 
+    /**
+     * Prepare the provider for traffic: open connections of the transport, then fetch
+     * the token set and the address of ZkSync contract in parallel and keep them cached
+     *
+     * Providers which do not override it only fetch the token set and the contract address.
+     *
+     * @return Timings of every stage of the warm-up
+     */
+    default CompletableFuture<WarmUpReport> warmUp() {
+        final long start = System.nanoTime();
+        final CompletableFuture<Duration> tokens = getTokens().thenApply(response -> Duration.ofNanos(System.nanoTime() - start));
+        final CompletableFuture<Duration> contract = contractAddress().thenApply(response -> Duration.ofNanos(System.nanoTime() - start));
+        return tokens.thenCombine(contract, (tokensTime, contractTime) -> {
+            final Map<String, Duration> stages = new LinkedHashMap<>();
+            stages.put(WarmUpReport.TOKENS, tokensTime);
+            stages.put(WarmUpReport.CONTRACT_ADDRESS, contractTime);
+            return new WarmUpReport(stages, 0, Duration.ofNanos(System.nanoTime() - start));
+        });
+    }
+
+    /**
+     * Get view of this provider whose calls must complete before the deadline
+     *
+     * Every call made through the view gets only the time left until the deadline
+     * and fails with `ZkSyncDeadlineExceededException` once it passes.
+     *
+     * Providers which do not override it abandon the result of a call once the deadline passes,
+     * the call itself still runs with the full timeout of the transport.
+     *
+     * @param deadline - Deadline of the operation the calls are part of
+     * @return Provider which applies the deadline to every call
+     */
+    default AsyncProvider withDeadline(Deadline deadline) {
+        return new DeadlineAsyncProvider(this, deadline);
+    }
+
     /**
      * Create default ZkSync provider by given chain id
      * 
@@ -0,0 +1,199 @@
+package io.zksync.provider;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+
+import io.zksync.transport.ZkSyncRequest;
+import io.zksync.transport.ZkSyncResponse;
+import io.zksync.transport.ZkSyncTransport;
+
+/**
+ * Lookup of many keys by one JSON-RPC method, sent as batches with bounded concurrency
+ *
+ * Keys are taken from the input only when a batch is sent, so at most `batchSize * maxConcurrency`
+ * lookups are pending at once however large the input is. Results are handed over as they arrive,
+ * one at a time, so the handler does not have to be thread-safe.
+ */
+class BatchLookup<V, T extends ZkSyncResponse<V>> {
+
+    static final int DEFAULT_BATCH_SIZE = 100;
+
+    static final int DEFAULT_CONCURRENCY = 4;
+
+    /**
+     * Receives the result of a single lookup, either value or error is set
+     */
+    @FunctionalInterface
+    interface Handler<V> {
+
+        /**
+         * @throws RuntimeException to abort the whole lookup
+         */
+        void accept(String key, V value, Throwable error);
+    }
+
+    /**
+     * @param consumer - Receives every value
+     * @return Handler which aborts the lookup on the first error
+     */
+    static <V> Handler<V> failFast(BiConsumer<String, V> consumer) {
+        return (key, value, error) -> {
+            if (error != null) {
+                throw new CompletionException(error);
+            }
+            consumer.accept(key, value);
+        };
+    }
+
+    private final ZkSyncTransport transport;
+
+    private final String method;
+
+    private final Class<T> returntype;
+
+    private final Iterator<String> keys;
+
+    private final Handler<V> handler;
+
+    private final int batchSize;
+
+    private final int maxConcurrency;
+
+    private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+    private int inFlight;
+
+    private boolean pumping;
+
+    private boolean repump;
+
+    private BatchLookup(ZkSyncTransport transport, String method, Class<T> returntype, Iterator<String> keys,
+            Handler<V> handler, int batchSize, int maxConcurrency) {
+        this.transport = transport;
+        this.method = method;
+        this.returntype = returntype;
+        this.keys = keys;
+        this.handler = handler;
+        this.batchSize = batchSize;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Look up every key with the default batch size and concurrency
+     *
+     * @param method - Method which takes the key as its only parameter
+     * @return Future which completes once every result was handled, cancelling it stops sending further batches
+     */
+    static <V, T extends ZkSyncResponse<V>> CompletableFuture<Void> run(ZkSyncTransport transport, String method,
+            Class<T> returntype, Collection<String> keys, Handler<V> handler) {
+        return run(transport, method, returntype, keys, handler, DEFAULT_BATCH_SIZE, DEFAULT_CONCURRENCY);
+    }
+
+    static <V, T extends ZkSyncResponse<V>> CompletableFuture<Void> run(ZkSyncTransport transport, String method,
+            Class<T> returntype, Collection<String> keys, Handler<V> handler, int batchSize, int maxConcurrency) {
+        final BatchLookup<V, T> lookup = new BatchLookup<>(transport, method, returntype, keys.iterator(), handler,
+                batchSize, maxConcurrency);
+        lookup.pump();
+        return lookup.result;
+    }
+
+    /**
+     * Send batches until the concurrency limit is reached
+     *
+     * Responses which complete synchronously call back into this method; they only mark it to run
+     * once more, so that the stack does not grow with the size of the input.
+     */
+    private void pump() {
+        synchronized (this) {
+            if (pumping) {
+                repump = true;
+                return;
+            }
+            pumping = true;
+        }
+
+        boolean finished;
+        for (;;) {
+            final List<String> batch;
+            synchronized (this) {
+                batch = inFlight < maxConcurrency && !result.isDone() ? take() : Collections.<String>emptyList();
+                if (batch.isEmpty()) {
+                    if (repump) {
+                        repump = false;
+                        continue;
+                    }
+                    pumping = false;
+                    finished = inFlight == 0 && !keys.hasNext();
+                    break;
+                }
+                inFlight++;
+            }
+            send(batch);
+        }
+
+        if (finished) {
+            result.complete(null);
+        }
+    }
+
+    private List<String> take() {
+        final List<String> batch = new ArrayList<>(batchSize);
+        while (batch.size() < batchSize && keys.hasNext()) {
+            batch.add(keys.next());
+        }
+        return batch;
+    }
+
+    private void send(List<String> batch) {
+        final List<ZkSyncRequest> requests = new ArrayList<>(batch.size());
+        for (String key : batch) {
+            requests.add(ZkSyncRequest.builder().method(method).params(Collections.singletonList(key)).build());
+        }
+
+        List<CompletableFuture<V>> responses;
+        try {
+            responses = transport.sendBatch(requests, returntype);
+        } catch (RuntimeException e) {
+            responses = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                final CompletableFuture<V> failed = new CompletableFuture<>();
+                failed.completeExceptionally(e);
+                responses.add(failed);
+            }
+        }
+
+        // Batch is released only after its results were handled, so the lookup never completes before them
+        final CompletableFuture<?>[] handled = new CompletableFuture<?>[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            final String key = batch.get(i);
+            handled[i] = responses.get(i).whenComplete((value, error) -> handle(key, value, error));
+        }
+        CompletableFuture.allOf(handled).whenComplete((done, error) -> {
+            synchronized (this) {
+                inFlight--;
+            }
+            pump();
+        });
+    }
+
+    private void handle(String key, V value, Throwable error) {
+        synchronized (handler) {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                handler.accept(key, value, error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+            } catch (CompletionException e) {
+                result.completeExceptionally(e.getCause());
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
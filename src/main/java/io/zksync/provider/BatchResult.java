@@ -0,0 +1,50 @@
+package io.zksync.provider;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.zksync.exception.ZkSyncException;
+import lombok.ToString;
+
+/**
+ * Results of a bulk lookup, in the order they arrived
+ *
+ * Every key either has a value or an error, so that failed keys can be retried on their own.
+ */
+@ToString
+public class BatchResult<V> {
+
+    private final Map<String, V> values = new LinkedHashMap<>();
+
+    private final Map<String, ZkSyncException> errors = new LinkedHashMap<>();
+
+    BatchResult() {
+    }
+
+    /**
+     * @return Values by key of the lookups which succeeded
+     */
+    public Map<String, V> getValues() {
+        return Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * @return Errors by key of the lookups which failed
+     */
+    public Map<String, ZkSyncException> getErrors() {
+        return Collections.unmodifiableMap(errors);
+    }
+
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+
+    void add(String key, V value, Throwable error) {
+        if (error == null) {
+            values.put(key, value);
+        } else {
+            errors.put(key, error instanceof ZkSyncException ? (ZkSyncException) error : new ZkSyncException(error));
+        }
+    }
+}
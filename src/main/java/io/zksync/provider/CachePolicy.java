@@ -0,0 +1,103 @@
+package io.zksync.provider;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import lombok.Getter;
+
+/**
+ * Settings of the cache of `CachingProvider` and `CachingAsyncProvider`
+ *
+ * Methods without a time to live are not cached. By default the contract address is kept for a day,
+ * tokens and confirmation amount for 10 minutes, token prices for 30 seconds, fees for 10 seconds
+ * and account states are not cached. Fees of single transactions may be served by a `FeeQuoteCache`
+ * instead, which refreshes stale quotes in the background.
+ */
+@Getter
+public class CachePolicy {
+
+    private final Map<CachedMethod, Duration> ttls;
+
+    private final int maximumSize;
+
+    private final FeeQuoteCache feeQuotes;
+
+    private CachePolicy(Builder builder) {
+        this.ttls = Collections.unmodifiableMap(new EnumMap<>(builder.ttls));
+        this.maximumSize = builder.maximumSize;
+        this.feeQuotes = builder.feeQuotes;
+    }
+
+    public static CachePolicy defaultPolicy() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @param method - Cached method
+     * @return Time to live of results of the method or null if they are not cached
+     */
+    public Duration getTtl(CachedMethod method) {
+        return ttls.get(method);
+    }
+
+    public static class Builder {
+
+        private final Map<CachedMethod, Duration> ttls = new EnumMap<>(CachedMethod.class);
+
+        private int maximumSize = 1000;
+
+        private FeeQuoteCache feeQuotes;
+
+        Builder() {
+            ttls.put(CachedMethod.CONTRACT_ADDRESS, Duration.ofDays(1));
+            ttls.put(CachedMethod.TOKENS, Duration.ofMinutes(10));
+            ttls.put(CachedMethod.TOKEN_PRICE, Duration.ofSeconds(30));
+            ttls.put(CachedMethod.CONFIRMATIONS_FOR_ETH_OP_AMOUNT, Duration.ofMinutes(10));
+            ttls.put(CachedMethod.TRANSACTION_FEE, Duration.ofSeconds(10));
+        }
+
+        /**
+         * @param method - Cached method
+         * @param ttl - Time to live of results of the method, null or zero disables caching of the method
+         */
+        public Builder ttl(CachedMethod method, Duration ttl) {
+            if (ttl == null || ttl.isZero()) {
+                this.ttls.remove(method);
+            } else if (ttl.isNegative()) {
+                throw new IllegalArgumentException("Time to live must not be negative");
+            } else {
+                this.ttls.put(method, ttl);
+            }
+            return this;
+        }
+
+        /**
+         * @param maximumSize - Entries kept in the cache, the least recently used entry is evicted first
+         */
+        public Builder maximumSize(int maximumSize) {
+            if (maximumSize < 1) {
+                throw new IllegalArgumentException("Cache must hold at least one entry");
+            }
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * @param feeQuotes - Cache which serves fees of single transactions instead of the time to live, may be shared between providers
+         */
+        public Builder feeQuotes(FeeQuoteCache feeQuotes) {
+            this.feeQuotes = feeQuotes;
+            return this;
+        }
+
+        public CachePolicy build() {
+            return new CachePolicy(this);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package io.zksync.provider;
+
+/**
+ * Provider methods whose results may be cached by `CachingProvider` and `CachingAsyncProvider`
+ */
+public enum CachedMethod {
+
+    /**
+     * `contractAddress`, never changes for a network
+     */
+    CONTRACT_ADDRESS,
+
+    /**
+     * `getTokens`, changes when a token is added to the network
+     */
+    TOKENS,
+
+    /**
+     * `getTokenPrice`
+     */
+    TOKEN_PRICE,
+
+    /**
+     * `getConfirmationsForEthOpAmount`
+     */
+    CONFIRMATIONS_FOR_ETH_OP_AMOUNT,
+
+    /**
+     * Both variants of `getTransactionFee`
+     */
+    TRANSACTION_FEE,
+
+    /**
+     * `getState`, changes with every transaction of the account and is invalidated by submits
+     */
+    ACCOUNT_STATE
+}
@@ -0,0 +1,226 @@
+package io.zksync.provider;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import io.zksync.domain.auth.Toggle2FA;
+import io.zksync.domain.contract.ContractAddress;
+import io.zksync.domain.fee.TransactionFeeBatchRequest;
+import io.zksync.domain.fee.TransactionFeeDetails;
+import io.zksync.domain.fee.TransactionFeeRequest;
+import io.zksync.domain.operation.EthOpInfo;
+import io.zksync.domain.state.AccountState;
+import io.zksync.domain.token.Token;
+import io.zksync.domain.token.Tokens;
+import io.zksync.domain.transaction.TransactionDetails;
+import io.zksync.domain.transaction.ZkSyncTransaction;
+import io.zksync.signer.EthSignature;
+import io.zksync.transport.Deadline;
+import io.zksync.transport.WarmUpReport;
+
+/**
+ * Provider decorator which caches results of slowly changing methods
+ *
+ * Every method has its own time to live, set by `CachePolicy`; the least recently used entries
+ * are evicted once the cache is full. Submitted transactions invalidate cached account states.
+ * Concurrent calls which miss the cache share one request.
+ */
+public class CachingAsyncProvider implements AsyncProvider {
+
+    private final AsyncProvider provider;
+
+    private final ProviderCache cache;
+
+    public CachingAsyncProvider(AsyncProvider provider) {
+        this(provider, CachePolicy.defaultPolicy());
+    }
+
+    /**
+     * @param provider - Provider whose results are cached
+     * @param policy - Time to live of every cached method and size of the cache
+     */
+    public CachingAsyncProvider(AsyncProvider provider, CachePolicy policy) {
+        this(provider, new ProviderCache(policy));
+    }
+
+    private CachingAsyncProvider(AsyncProvider provider, ProviderCache cache) {
+        this.provider = provider;
+        this.cache = cache;
+    }
+
+    /**
+     * Drop every cached result of the method
+     *
+     * @param method - Cached method
+     */
+    public void invalidate(CachedMethod method) {
+        cache.invalidate(method);
+    }
+
+    /**
+     * Drop cached state of the account
+     *
+     * @param accountAddress - Address of the account in hex
+     */
+    public void invalidateState(String accountAddress) {
+        cache.invalidate(CachedMethod.ACCOUNT_STATE, ProviderCache.stateKey(accountAddress));
+    }
+
+    /**
+     * Drop every cached result
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * @return Statistics of all cached methods together
+     */
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    /**
+     * @param method - Cached method
+     * @return Statistics of the method
+     */
+    public CacheStats getStats(CachedMethod method) {
+        return cache.stats(method);
+    }
+
+    @Override
+    public CompletableFuture<AccountState> getState(String accountAddress) {
+        return cache.getAsync(CachedMethod.ACCOUNT_STATE, () -> provider.getState(accountAddress), ProviderCache.stateKey(accountAddress));
+    }
+
+    @Override
+    public CompletableFuture<Void> getStates(Collection<String> accountAddresses, BiConsumer<String, AccountState> consumer) {
+        return provider.getStates(accountAddresses, (address, state) -> {
+            cache.put(CachedMethod.ACCOUNT_STATE, CompletableFuture.completedFuture(state), ProviderCache.stateKey(address));
+            consumer.accept(address, state);
+        });
+    }
+
+    @Override
+    public CompletableFuture<TransactionFeeDetails> getTransactionFee(TransactionFeeRequest feeRequest) {
+        final FeeQuoteCache feeQuotes = cache.feeQuotes();
+        if (feeQuotes != null) {
+            return feeQuotes.quote(feeRequest, provider::getTransactionFee);
+        }
+        return cache.getAsync(CachedMethod.TRANSACTION_FEE, () -> provider.getTransactionFee(feeRequest), feeRequest);
+    }
+
+    @Override
+    public CompletableFuture<TransactionFeeDetails> getTransactionFee(TransactionFeeBatchRequest feeRequest) {
+        return cache.getAsync(CachedMethod.TRANSACTION_FEE, () -> provider.getTransactionFee(feeRequest),
+                feeRequest.getTransactionTypes(), feeRequest.getAddresses(), feeRequest.getTokenIdentifier());
+    }
+
+    @Override
+    public CompletableFuture<Tokens> getTokens() {
+        // Token set is refreshed by the registry of the provider, a miss must not force a reload
+        return cache.getAsync(CachedMethod.TOKENS, provider::getTokens);
+    }
+
+    @Override
+    public CompletableFuture<BigDecimal> getTokenPrice(Token token) {
+        return cache.getAsync(CachedMethod.TOKEN_PRICE, () -> provider.getTokenPrice(token), token.getSymbol());
+    }
+
+    @Override
+    public CompletableFuture<String> submitTx(ZkSyncTransaction tx, EthSignature ethereumSignature, boolean fastProcessing) {
+        return invalidateStates(provider.submitTx(tx, ethereumSignature, fastProcessing));
+    }
+
+    @Override
+    public CompletableFuture<String> submitTx(ZkSyncTransaction tx, boolean fastProcessing) {
+        return invalidateStates(provider.submitTx(tx, fastProcessing));
+    }
+
+    @Override
+    public CompletableFuture<String> submitTx(ZkSyncTransaction tx, EthSignature... ethereumSignature) {
+        return invalidateStates(provider.submitTx(tx, ethereumSignature));
+    }
+
+    @Override
+    public CompletableFuture<List<String>> submitTxBatch(List<Pair<ZkSyncTransaction, EthSignature>> txs, EthSignature ethereumSignature) {
+        return invalidateStates(provider.submitTxBatch(txs, ethereumSignature));
+    }
+
+    @Override
+    public CompletableFuture<List<String>> submitTxBatch(List<Pair<ZkSyncTransaction, EthSignature>> txs) {
+        return invalidateStates(provider.submitTxBatch(txs));
+    }
+
+    @Override
+    public CompletableFuture<TransactionDetails> getTransactionDetails(String txHash) {
+        return provider.getTransactionDetails(txHash);
+    }
+
+    @Override
+    public CompletableFuture<BatchResult<TransactionDetails>> getTransactionDetails(Collection<String> txHashes) {
+        return provider.getTransactionDetails(txHashes);
+    }
+
+    @Override
+    public CompletableFuture<ContractAddress> contractAddress() {
+        return cache.getAsync(CachedMethod.CONTRACT_ADDRESS, provider::contractAddress);
+    }
+
+    @Override
+    public CompletableFuture<EthOpInfo> getEthOpInfo(Integer priorityOperationId) {
+        return provider.getEthOpInfo(priorityOperationId);
+    }
+
+    @Override
+    public CompletableFuture<BigInteger> getConfirmationsForEthOpAmount() {
+        return cache.getAsync(CachedMethod.CONFIRMATIONS_FOR_ETH_OP_AMOUNT, provider::getConfirmationsForEthOpAmount);
+    }
+
+    @Override
+    public CompletableFuture<String> getEthTransactionForWithdrawal(String zkSyncWithdrawalHash) {
+        return provider.getEthTransactionForWithdrawal(zkSyncWithdrawalHash);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> toggle2FA(Toggle2FA toggle2FA) {
+        return provider.toggle2FA(toggle2FA);
+    }
+
+    @Override
+    public CompletableFuture<Tokens> updateTokenSet() {
+        return provider.updateTokenSet().thenApply(tokens -> {
+            cache.put(CachedMethod.TOKENS, CompletableFuture.completedFuture(tokens));
+            return tokens;
+        });
+    }
+
+    @Override
+    public CompletableFuture<WarmUpReport> warmUp() {
+        // Default providers keep the values primed by the warm-up, so taking them over costs no requests
+        return provider.warmUp().thenCompose(report -> provider.getTokens()
+                .thenCombine(provider.contractAddress(), (tokens, address) -> {
+                    cache.put(CachedMethod.TOKENS, CompletableFuture.completedFuture(tokens));
+                    cache.put(CachedMethod.CONTRACT_ADDRESS, CompletableFuture.completedFuture(address));
+                    return report;
+                }));
+    }
+
+    /**
+     * The view shares the cache of this provider
+     */
+    @Override
+    public AsyncProvider withDeadline(Deadline deadline) {
+        return new CachingAsyncProvider(provider.withDeadline(deadline), cache);
+    }
+
+    private <T> CompletableFuture<T> invalidateStates(CompletableFuture<T> submitted) {
+        return submitted.whenComplete((result, error) -> cache.invalidate(CachedMethod.ACCOUNT_STATE));
+    }
+}
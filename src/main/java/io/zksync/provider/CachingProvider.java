@@ -0,0 +1,236 @@
+package io.zksync.provider;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import io.zksync.domain.auth.Toggle2FA;
+import io.zksync.domain.contract.ContractAddress;
+import io.zksync.domain.fee.TransactionFeeBatchRequest;
+import io.zksync.domain.fee.TransactionFeeDetails;
+import io.zksync.domain.fee.TransactionFeeRequest;
+import io.zksync.domain.operation.EthOpInfo;
+import io.zksync.domain.state.AccountState;
+import io.zksync.domain.token.Token;
+import io.zksync.domain.token.Tokens;
+import io.zksync.domain.transaction.TransactionDetails;
+import io.zksync.domain.transaction.ZkSyncTransaction;
+import io.zksync.exception.ZkSyncException;
+import io.zksync.signer.EthSignature;
+import io.zksync.transport.WarmUpReport;
+
+/**
+ * Provider decorator which caches results of slowly changing methods
+ *
+ * Every method has its own time to live, set by `CachePolicy`; the least recently used entries
+ * are evicted once the cache is full. Submitted transactions invalidate cached account states.
+ */
+public class CachingProvider implements Provider {
+
+    private final Provider provider;
+
+    private final ProviderCache cache;
+
+    public CachingProvider(Provider provider) {
+        this(provider, CachePolicy.defaultPolicy());
+    }
+
+    /**
+     * @param provider - Provider whose results are cached
+     * @param policy - Time to live of every cached method and size of the cache
+     */
+    public CachingProvider(Provider provider, CachePolicy policy) {
+        this.provider = provider;
+        this.cache = new ProviderCache(policy);
+    }
+
+    /**
+     * Drop every cached result of the method
+     *
+     * @param method - Cached method
+     */
+    public void invalidate(CachedMethod method) {
+        cache.invalidate(method);
+    }
+
+    /**
+     * Drop cached state of the account
+     *
+     * @param accountAddress - Address of the account in hex
+     */
+    public void invalidateState(String accountAddress) {
+        cache.invalidate(CachedMethod.ACCOUNT_STATE, ProviderCache.stateKey(accountAddress));
+    }
+
+    /**
+     * Drop every cached result
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * @return Statistics of all cached methods together
+     */
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    /**
+     * @param method - Cached method
+     * @return Statistics of the method
+     */
+    public CacheStats getStats(CachedMethod method) {
+        return cache.stats(method);
+    }
+
+    @Override
+    public AccountState getState(String accountAddress) {
+        return cache.get(CachedMethod.ACCOUNT_STATE, () -> provider.getState(accountAddress), ProviderCache.stateKey(accountAddress));
+    }
+
+    @Override
+    public void getStates(Collection<String> accountAddresses, BiConsumer<String, AccountState> consumer) {
+        provider.getStates(accountAddresses, (address, state) -> {
+            cache.put(CachedMethod.ACCOUNT_STATE, state, ProviderCache.stateKey(address));
+            consumer.accept(address, state);
+        });
+    }
+
+    @Override
+    public TransactionFeeDetails getTransactionFee(TransactionFeeRequest feeRequest) {
+        final FeeQuoteCache feeQuotes = cache.feeQuotes();
+        if (feeQuotes != null) {
+            // Loader blocks, so the caller which finds a quote stale refreshes it and the shared scheduler stays free
+            final CompletableFuture<TransactionFeeDetails> quote = feeQuotes.quote(feeRequest,
+                    request -> CompletableFuture.completedFuture(provider.getTransactionFee(request)), Runnable::run);
+            try {
+                return quote.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof ZkSyncException) {
+                    throw (ZkSyncException) e.getCause();
+                }
+                throw new ZkSyncException(e.getCause());
+            }
+        }
+        return cache.get(CachedMethod.TRANSACTION_FEE, () -> provider.getTransactionFee(feeRequest), feeRequest);
+    }
+
+    @Override
+    public TransactionFeeDetails getTransactionFee(TransactionFeeBatchRequest feeRequest) {
+        return cache.get(CachedMethod.TRANSACTION_FEE, () -> provider.getTransactionFee(feeRequest),
+                feeRequest.getTransactionTypes(), feeRequest.getAddresses(), feeRequest.getTokenIdentifier());
+    }
+
+    @Override
+    public Tokens getTokens() {
+        // Token set is refreshed by the registry of the provider, a miss must not force a reload
+        return cache.get(CachedMethod.TOKENS, provider::getTokens);
+    }
+
+    @Override
+    public BigDecimal getTokenPrice(Token token) {
+        return cache.get(CachedMethod.TOKEN_PRICE, () -> provider.getTokenPrice(token), token.getSymbol());
+    }
+
+    @Override
+    public String submitTx(ZkSyncTransaction tx, EthSignature ethereumSignature, boolean fastProcessing) {
+        try {
+            return provider.submitTx(tx, ethereumSignature, fastProcessing);
+        } finally {
+            cache.invalidate(CachedMethod.ACCOUNT_STATE);
+        }
+    }
+
+    @Override
+    public String submitTx(ZkSyncTransaction tx, boolean fastProcessing) {
+        try {
+            return provider.submitTx(tx, fastProcessing);
+        } finally {
+            cache.invalidate(CachedMethod.ACCOUNT_STATE);
+        }
+    }
+
+    @Override
+    public String submitTx(ZkSyncTransaction tx, EthSignature... ethereumSignature) {
+        try {
+            return provider.submitTx(tx, ethereumSignature);
+        } finally {
+            cache.invalidate(CachedMethod.ACCOUNT_STATE);
+        }
+    }
+
+    @Override
+    public List<String> submitTxBatch(List<Pair<ZkSyncTransaction, EthSignature>> txs, EthSignature ethereumSignature) {
+        try {
+            return provider.submitTxBatch(txs, ethereumSignature);
+        } finally {
+            cache.invalidate(CachedMethod.ACCOUNT_STATE);
+        }
+    }
+
+    @Override
+    public List<String> submitTxBatch(List<Pair<ZkSyncTransaction, EthSignature>> txs) {
+        try {
+            return provider.submitTxBatch(txs);
+        } finally {
+            cache.invalidate(CachedMethod.ACCOUNT_STATE);
+        }
+    }
+
+    @Override
+    public TransactionDetails getTransactionDetails(String txHash) {
+        return provider.getTransactionDetails(txHash);
+    }
+
+    @Override
+    public BatchResult<TransactionDetails> getTransactionDetails(Collection<String> txHashes) {
+        return provider.getTransactionDetails(txHashes);
+    }
+
+    @Override
+    public ContractAddress contractAddress() {
+        return cache.get(CachedMethod.CONTRACT_ADDRESS, provider::contractAddress);
+    }
+
+    @Override
+    public EthOpInfo getEthOpInfo(Integer priorityOperationId) {
+        return provider.getEthOpInfo(priorityOperationId);
+    }
+
+    @Override
+    public BigInteger getConfirmationsForEthOpAmount() {
+        return cache.get(CachedMethod.CONFIRMATIONS_FOR_ETH_OP_AMOUNT, provider::getConfirmationsForEthOpAmount);
+    }
+
+    @Override
+    public String getEthTransactionForWithdrawal(String zkSyncWithdrawalHash) {
+        return provider.getEthTransactionForWithdrawal(zkSyncWithdrawalHash);
+    }
+
+    @Override
+    public boolean toggle2FA(Toggle2FA toggle2FA) {
+        return provider.toggle2FA(toggle2FA);
+    }
+
+    @Override
+    public void updateTokenSet() {
+        provider.updateTokenSet();
+        cache.put(CachedMethod.TOKENS, provider.getTokens());
+    }
+
+    @Override
+    public WarmUpReport warmUp() {
+        final WarmUpReport report = provider.warmUp();
+        // Default providers keep the values primed by the warm-up, so taking them over costs no requests
+        cache.put(CachedMethod.TOKENS, provider.getTokens());
+        cache.put(CachedMethod.CONTRACT_ADDRESS, provider.contractAddress());
+        return report;
+    }
+}
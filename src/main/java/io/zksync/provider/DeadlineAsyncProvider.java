@@ -0,0 +1,158 @@
+package io.zksync.provider;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import io.zksync.domain.auth.Toggle2FA;
+import io.zksync.domain.contract.ContractAddress;
+import io.zksync.domain.fee.TransactionFeeBatchRequest;
+import io.zksync.domain.fee.TransactionFeeDetails;
+import io.zksync.domain.fee.TransactionFeeRequest;
+import io.zksync.domain.operation.EthOpInfo;
+import io.zksync.domain.state.AccountState;
+import io.zksync.domain.token.Token;
+import io.zksync.domain.token.Tokens;
+import io.zksync.domain.transaction.TransactionDetails;
+import io.zksync.domain.transaction.ZkSyncTransaction;
+import io.zksync.signer.EthSignature;
+import io.zksync.transport.Deadline;
+import io.zksync.transport.WarmUpReport;
+
+/**
+ * View of a provider which limits every call to the deadline
+ *
+ * Used by providers which can not pass the deadline down to their transport. Calls are still made
+ * with the full timeout of the transport, only their results are abandoned once the deadline passes.
+ */
+class DeadlineAsyncProvider implements AsyncProvider {
+
+    private final AsyncProvider provider;
+
+    private final Deadline deadline;
+
+    DeadlineAsyncProvider(AsyncProvider provider, Deadline deadline) {
+        this.provider = provider;
+        this.deadline = deadline;
+    }
+
+    @Override
+    public CompletableFuture<AccountState> getState(String accountAddress) {
+        return bound(() -> provider.getState(accountAddress));
+    }
+
+    @Override
+    public CompletableFuture<Void> getStates(Collection<String> accountAddresses, BiConsumer<String, AccountState> consumer) {
+        return bound(() -> provider.getStates(accountAddresses, consumer));
+    }
+
+    @Override
+    public CompletableFuture<TransactionFeeDetails> getTransactionFee(TransactionFeeRequest feeRequest) {
+        return bound(() -> provider.getTransactionFee(feeRequest));
+    }
+
+    @Override
+    public CompletableFuture<TransactionFeeDetails> getTransactionFee(TransactionFeeBatchRequest feeRequest) {
+        return bound(() -> provider.getTransactionFee(feeRequest));
+    }
+
+    @Override
+    public CompletableFuture<Tokens> getTokens() {
+        return bound(provider::getTokens);
+    }
+
+    @Override
+    public CompletableFuture<BigDecimal> getTokenPrice(Token token) {
+        return bound(() -> provider.getTokenPrice(token));
+    }
+
+    @Override
+    public CompletableFuture<String> submitTx(ZkSyncTransaction tx, EthSignature ethereumSignature, boolean fastProcessing) {
+        return bound(() -> provider.submitTx(tx, ethereumSignature, fastProcessing));
+    }
+
+    @Override
+    public CompletableFuture<String> submitTx(ZkSyncTransaction tx, boolean fastProcessing) {
+        return bound(() -> provider.submitTx(tx, fastProcessing));
+    }
+
+    @Override
+    public CompletableFuture<String> submitTx(ZkSyncTransaction tx, EthSignature... ethereumSignature) {
+        return bound(() -> provider.submitTx(tx, ethereumSignature));
+    }
+
+    @Override
+    public CompletableFuture<List<String>> submitTxBatch(List<Pair<ZkSyncTransaction, EthSignature>> txs, EthSignature ethereumSignature) {
+        return bound(() -> provider.submitTxBatch(txs, ethereumSignature));
+    }
+
+    @Override
+    public CompletableFuture<List<String>> submitTxBatch(List<Pair<ZkSyncTransaction, EthSignature>> txs) {
+        return bound(() -> provider.submitTxBatch(txs));
+    }
+
+    @Override
+    public CompletableFuture<TransactionDetails> getTransactionDetails(String txHash) {
+        return bound(() -> provider.getTransactionDetails(txHash));
+    }
+
+    @Override
+    public CompletableFuture<BatchResult<TransactionDetails>> getTransactionDetails(Collection<String> txHashes) {
+        return bound(() -> provider.getTransactionDetails(txHashes));
+    }
+
+    @Override
+    public CompletableFuture<ContractAddress> contractAddress() {
+        return bound(provider::contractAddress);
+    }
+
+    @Override
+    public CompletableFuture<EthOpInfo> getEthOpInfo(Integer priorityOperationId) {
+        return bound(() -> provider.getEthOpInfo(priorityOperationId));
+    }
+
+    @Override
+    public CompletableFuture<BigInteger> getConfirmationsForEthOpAmount() {
+        return bound(provider::getConfirmationsForEthOpAmount);
+    }
+
+    @Override
+    public CompletableFuture<String> getEthTransactionForWithdrawal(String zkSyncWithdrawalHash) {
+        return bound(() -> provider.getEthTransactionForWithdrawal(zkSyncWithdrawalHash));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> toggle2FA(Toggle2FA toggle2FA) {
+        return bound(() -> provider.toggle2FA(toggle2FA));
+    }
+
+    @Override
+    public CompletableFuture<Tokens> updateTokenSet() {
+        return bound(provider::updateTokenSet);
+    }
+
+    @Override
+    public CompletableFuture<WarmUpReport> warmUp() {
+        return bound(provider::warmUp);
+    }
+
+    @Override
+    public AsyncProvider withDeadline(Deadline deadline) {
+        return new DeadlineAsyncProvider(provider, deadline);
+    }
+
+    private <T> CompletableFuture<T> bound(Supplier<CompletableFuture<T>> call) {
+        if (deadline.isExpired()) {
+            final CompletableFuture<T> expired = new CompletableFuture<>();
+            expired.completeExceptionally(deadline.exceeded());
+            return expired;
+        }
+        return deadline.bound(call.get());
+    }
+}
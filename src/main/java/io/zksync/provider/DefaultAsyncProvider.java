@@ -14,6 +14,9 @@ import io.zksync.domain.token.Tokens;
 import io.zksync.domain.transaction.TransactionDetails;
 import io.zksync.domain.transaction.ZkSyncTransaction;
 import io.zksync.signer.EthSignature;
+import io.zksync.transport.Deadline;
+import io.zksync.transport.WarmUpReport;
+import io.zksync.transport.ZkSyncResponse;
 import io.zksync.transport.ZkSyncSuccess;
 import io.zksync.transport.ZkSyncTransport;
 import io.zksync.transport.response.ZksAccountState;
@@ -24,40 +27,95 @@ import io.zksync.transport.response.ZksSentTransaction;
 import io.zksync.transport.response.ZksSentTransactionBatch;
 import io.zksync.transport.response.ZksToggle2FA;
 import io.zksync.transport.response.ZksTokenPrice;
-import io.zksync.transport.response.ZksTokens;
 import io.zksync.transport.response.ZksTransactionDetails;
 import io.zksync.transport.response.ZksTransactionFeeDetails;
 import io.zksync.wallet.SignedTransaction;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public class DefaultAsyncProvider implements AsyncProvider {
     private ZkSyncTransport transport;
 
-    private Tokens tokens;
+    private final TokenRegistry tokenRegistry;
+
+    private volatile ContractAddress contractAddress;
+
+    private final Deadline deadline;
+
+    private final Executor completionExecutor;
 
     public DefaultAsyncProvider(ZkSyncTransport transport) {
+        this(transport, new TokenRegistry(transport), null, null, null);
+    }
+
+    /**
+     * @param transport - Transport to ZkSync endpoint
+     * @param completionExecutor - Executor on which returned futures complete, so that callbacks attached
+     *                             to them do not run on the network threads of the transport
+     */
+    public DefaultAsyncProvider(ZkSyncTransport transport, Executor completionExecutor) {
+        this(transport, new TokenRegistry(transport), null, null, completionExecutor);
+    }
+
+    /**
+     * @param transport - Transport to ZkSync endpoint
+     * @param tokenRegistry - Registry of the token set, may be shared by several providers
+     * @param completionExecutor - Executor on which returned futures complete, null to complete them on the transport threads
+     */
+    public DefaultAsyncProvider(ZkSyncTransport transport, TokenRegistry tokenRegistry, Executor completionExecutor) {
+        this(transport, tokenRegistry, null, null, completionExecutor);
+    }
+
+    private DefaultAsyncProvider(ZkSyncTransport transport, TokenRegistry tokenRegistry, ContractAddress contractAddress,
+            Deadline deadline, Executor completionExecutor) {
         this.transport = transport;
-        this.tokens = null;
+        this.tokenRegistry = tokenRegistry;
+        this.contractAddress = contractAddress;
+        this.deadline = deadline;
+        this.completionExecutor = completionExecutor;
+    }
+
+    @Override
+    public AsyncProvider withDeadline(Deadline deadline) {
+        return new DefaultAsyncProvider(transport, tokenRegistry, contractAddress, deadline, completionExecutor);
+    }
+
+    public TokenRegistry getTokenRegistry() {
+        return tokenRegistry;
     }
 
     @Override
     public CompletableFuture<AccountState> getState(String accountAddress) {
-        final CompletableFuture<AccountState> response = transport.sendAsync("account_info", Collections.singletonList(accountAddress),
+        final CompletableFuture<AccountState> response = sendAsync("account_info", Collections.singletonList(accountAddress),
                 ZksAccountState.class);
 
         return response;
     }
 
+    @Override
+    public CompletableFuture<Void> getStates(Collection<String> accountAddresses, BiConsumer<String, AccountState> consumer) {
+        final CompletableFuture<Void> lookup = BatchLookup.run(transport, "account_info", ZksAccountState.class, accountAddresses,
+                BatchLookup.failFast(consumer));
+
+        return complete(deadline == null ? lookup : deadline.bound(lookup));
+    }
+
     @Override
     public CompletableFuture<TransactionFeeDetails> getTransactionFee(TransactionFeeRequest feeRequest) {
-        final CompletableFuture<TransactionFeeDetails> response = transport.sendAsync("get_tx_fee",
+        final CompletableFuture<TransactionFeeDetails> response = sendAsync("get_tx_fee",
                 Arrays.asList(feeRequest.getTransactionType().getRaw(), feeRequest.getAddress(),
                         feeRequest.getTokenIdentifier()),
                 ZksTransactionFeeDetails.class);
@@ -67,7 +125,7 @@ public class DefaultAsyncProvider implements AsyncProvider {
 
     @Override
     public CompletableFuture<TransactionFeeDetails> getTransactionFee(TransactionFeeBatchRequest feeRequest) {
-        final CompletableFuture<TransactionFeeDetails> response = transport.sendAsync("get_txs_batch_fee_in_wei",
+        final CompletableFuture<TransactionFeeDetails> response = sendAsync("get_txs_batch_fee_in_wei",
                 Arrays.asList(feeRequest.getTransactionTypesRaw(), feeRequest.getAddresses(),
                         feeRequest.getTokenIdentifier()),
                 ZksTransactionFeeDetails.class);
@@ -77,16 +135,17 @@ public class DefaultAsyncProvider implements AsyncProvider {
 
     @Override
     public CompletableFuture<Tokens> getTokens() {
-        if (this.tokens == null) {
+        final Tokens tokens = tokenRegistry.getSnapshot();
+        if (tokens == null) {
             return this.updateTokenSet();
         } else {
-            return CompletableFuture.completedFuture(this.tokens);
+            return CompletableFuture.completedFuture(tokens);
         }
     }
 
     @Override
     public CompletableFuture<BigDecimal> getTokenPrice(Token token) {
-        final CompletableFuture<BigDecimal> response = transport.sendAsync("get_token_price", Collections.singletonList(token.getSymbol()),
+        final CompletableFuture<BigDecimal> response = sendAsync("get_token_price", Collections.singletonList(token.getSymbol()),
                 ZksTokenPrice.class);
 
         return response;
@@ -94,7 +153,7 @@ public class DefaultAsyncProvider implements AsyncProvider {
 
     @Override
     public CompletableFuture<String> submitTx(ZkSyncTransaction tx, EthSignature ethereumSignature, boolean fastProcessing) {
-        final CompletableFuture<String> responseBody = transport.sendAsync("tx_submit", Arrays.asList(tx, ethereumSignature, fastProcessing),
+        final CompletableFuture<String> responseBody = sendAsync("tx_submit", Arrays.asList(tx, ethereumSignature, fastProcessing),
                 ZksSentTransaction.class);
 
         return responseBody;
@@ -107,7 +166,7 @@ public class DefaultAsyncProvider implements AsyncProvider {
 
     @Override
     public CompletableFuture<String> submitTx(ZkSyncTransaction tx, EthSignature... ethereumSignature) {
-        final CompletableFuture<String> responseBody = transport.sendAsync("tx_submit", Arrays.asList(tx, ethereumSignature),
+        final CompletableFuture<String> responseBody = sendAsync("tx_submit", Arrays.asList(tx, ethereumSignature),
                 ZksSentTransaction.class);
 
         return responseBody;
@@ -115,7 +174,7 @@ public class DefaultAsyncProvider implements AsyncProvider {
 
     @Override
     public CompletableFuture<List<String>> submitTxBatch(List<Pair<ZkSyncTransaction, EthSignature>> txs, EthSignature ethereumSignature) {
-        final CompletableFuture<List<String>> responseBody = transport.sendAsync("submit_txs_batch", Arrays.asList(txs.stream().map(SignedTransaction::fromPair).collect(Collectors.toList()), ethereumSignature),
+        final CompletableFuture<List<String>> responseBody = sendAsync("submit_txs_batch", Arrays.asList(txs.stream().map(SignedTransaction::fromPair).collect(Collectors.toList()), ethereumSignature),
                 ZksSentTransactionBatch.class);
 
         return responseBody;
@@ -128,23 +187,41 @@ public class DefaultAsyncProvider implements AsyncProvider {
 
     @Override
     public CompletableFuture<ContractAddress> contractAddress() {
-        final CompletableFuture<ContractAddress> contractAddress = transport.sendAsync("contract_address", Collections.emptyList(),
+        // Address of the contract never changes for a network, so it is fetched once
+        final ContractAddress cached = this.contractAddress;
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        final CompletableFuture<ContractAddress> contractAddress = sendAsync("contract_address", Collections.emptyList(),
                 ZksContractAddress.class);
 
-        return contractAddress;
+        return contractAddress.thenApply(address -> {
+            this.contractAddress = address;
+            return address;
+        });
     }
 
     @Override
     public CompletableFuture<TransactionDetails> getTransactionDetails(String txHash) {
-        final CompletableFuture<TransactionDetails> response = transport.sendAsync("tx_info", Collections.singletonList(txHash),
+        final CompletableFuture<TransactionDetails> response = sendAsync("tx_info", Collections.singletonList(txHash),
                 ZksTransactionDetails.class);
 
         return response;
     }
 
+    @Override
+    public CompletableFuture<BatchResult<TransactionDetails>> getTransactionDetails(Collection<String> txHashes) {
+        final BatchResult<TransactionDetails> result = new BatchResult<>();
+        final CompletableFuture<Void> lookup = BatchLookup.run(transport, "tx_info", ZksTransactionDetails.class, txHashes,
+                result::add);
+
+        return complete((deadline == null ? lookup : deadline.bound(lookup)).thenApply(done -> result));
+    }
+
     @Override
     public CompletableFuture<EthOpInfo> getEthOpInfo(Integer priority) {
-        final CompletableFuture<EthOpInfo> response = transport.sendAsync("ethop_info", Collections.singletonList(priority),
+        final CompletableFuture<EthOpInfo> response = sendAsync("ethop_info", Collections.singletonList(priority),
                 ZksEthOpInfo.class);
 
         return response;
@@ -152,7 +229,7 @@ public class DefaultAsyncProvider implements AsyncProvider {
 
     @Override
     public CompletableFuture<BigInteger> getConfirmationsForEthOpAmount() {
-        final CompletableFuture<BigInteger> response = transport.sendAsync("get_confirmations_for_eth_op_amount", Collections.emptyList(),
+        final CompletableFuture<BigInteger> response = sendAsync("get_confirmations_for_eth_op_amount", Collections.emptyList(),
                 ZksGetConfirmationsForEthOpAmount.class);
 
         return response;
@@ -160,7 +237,7 @@ public class DefaultAsyncProvider implements AsyncProvider {
 
     @Override
     public CompletableFuture<String> getEthTransactionForWithdrawal(String zkSyncWithdrawalHash) {
-        final CompletableFuture<String> response = transport.sendAsync("get_eth_tx_for_withdrawal", Collections.singletonList(zkSyncWithdrawalHash),
+        final CompletableFuture<String> response = sendAsync("get_eth_tx_for_withdrawal", Collections.singletonList(zkSyncWithdrawalHash),
                 ZksSentTransaction.class);
 
         return response;
@@ -168,18 +245,60 @@ public class DefaultAsyncProvider implements AsyncProvider {
 
     @Override
     public CompletableFuture<Boolean> toggle2FA(Toggle2FA toggle2fa) {
-        final CompletableFuture<ZkSyncSuccess> result = transport.sendAsync("toggle_2fa", Collections.singletonList(toggle2fa), ZksToggle2FA.class);
+        final CompletableFuture<ZkSyncSuccess> result = sendAsync("toggle_2fa", Collections.singletonList(toggle2fa), ZksToggle2FA.class);
 
         return result.thenApply(ZkSyncSuccess::getSuccess);
     }
 
     @Override
     public CompletableFuture<Tokens> updateTokenSet() {
-        final CompletableFuture<Tokens> response = transport.sendAsync("tokens", Collections.emptyList(), ZksTokens.class);
+        final CompletableFuture<Tokens> response = tokenRegistry.refresh();
+
+        return complete(deadline == null ? response : deadline.bound(response));
+    }
 
-        return response.thenApply(tokens -> {
-            this.tokens = tokens;
-            return tokens;
+    @Override
+    public CompletableFuture<WarmUpReport> warmUp() {
+        final long start = System.nanoTime();
+        return transport.warmUp().thenCompose(connected -> {
+            final CompletableFuture<Duration> tokens = timed(this::updateTokenSet);
+            final CompletableFuture<Duration> contract = timed(this::contractAddress);
+
+            return tokens.thenCombine(contract, (tokensTime, contractTime) -> {
+                final Map<String, Duration> stages = new LinkedHashMap<>(connected.getStages());
+                stages.put(WarmUpReport.TOKENS, tokensTime);
+                stages.put(WarmUpReport.CONTRACT_ADDRESS, contractTime);
+                return new WarmUpReport(stages, connected.getConnections(), Duration.ofNanos(System.nanoTime() - start));
+            });
         });
     }
+
+    private static CompletableFuture<Duration> timed(Supplier<CompletableFuture<?>> stage) {
+        final long start = System.nanoTime();
+        return stage.get().thenApply(result -> Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private <R, T extends ZkSyncResponse<R>> CompletableFuture<R> sendAsync(String method, List<Object> params, Class<T> returntype) {
+        final CompletableFuture<R> response = deadline == null ?
+                transport.sendAsync(method, params, returntype) :
+                transport.sendAsync(method, params, returntype, deadline);
+
+        return complete(response);
+    }
+
+    private <R> CompletableFuture<R> complete(CompletableFuture<R> response) {
+        if (completionExecutor == null) {
+            return response;
+        }
+
+        final CompletableFuture<R> completion = new CompletableFuture<>();
+        response.whenCompleteAsync((result, error) -> {
+            if (error != null) {
+                completion.completeExceptionally(error);
+            } else {
+                completion.complete(result);
+            }
+        }, completionExecutor);
+        return completion;
+    }
 }
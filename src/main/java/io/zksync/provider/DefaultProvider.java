@@ -13,8 +13,10 @@ import io.zksync.domain.token.Token;
 import io.zksync.domain.token.Tokens;
 import io.zksync.domain.transaction.TransactionDetails;
 import io.zksync.domain.transaction.ZkSyncTransaction;
+import io.zksync.exception.ZkSyncException;
 import io.zksync.signer.EthSignature;
 import io.zksync.transport.ZkSyncSuccess;
+import io.zksync.transport.WarmUpReport;
 import io.zksync.transport.ZkSyncTransport;
 import io.zksync.transport.response.ZksAccountState;
 import io.zksync.transport.response.ZksContractAddress;
@@ -24,27 +26,47 @@ import io.zksync.transport.response.ZksSentTransaction;
 import io.zksync.transport.response.ZksSentTransactionBatch;
 import io.zksync.transport.response.ZksToggle2FA;
 import io.zksync.transport.response.ZksTokenPrice;
-import io.zksync.transport.response.ZksTokens;
 import io.zksync.transport.response.ZksTransactionDetails;
 import io.zksync.transport.response.ZksTransactionFeeDetails;
 import io.zksync.wallet.SignedTransaction;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
 public class DefaultProvider implements Provider {
 
     private ZkSyncTransport transport;
 
-    private Tokens tokens;
+    private final TokenRegistry tokenRegistry;
+
+    private volatile ContractAddress contractAddress;
 
     public DefaultProvider(ZkSyncTransport transport) {
+        this(transport, new TokenRegistry(transport));
+    }
+
+    /**
+     * @param transport - Transport to ZkSync endpoint
+     * @param tokenRegistry - Registry of the token set, may be shared by several providers
+     */
+    public DefaultProvider(ZkSyncTransport transport, TokenRegistry tokenRegistry) {
         this.transport = transport;
-        this.tokens = null;
+        this.tokenRegistry = tokenRegistry;
+    }
+
+    public TokenRegistry getTokenRegistry() {
+        return tokenRegistry;
     }
 
     @Override
@@ -55,6 +77,12 @@ public class DefaultProvider implements Provider {
         return response;
     }
 
+    @Override
+    public void getStates(Collection<String> accountAddresses, BiConsumer<String, AccountState> consumer) {
+        join(BatchLookup.run(transport, "account_info", ZksAccountState.class, accountAddresses,
+                BatchLookup.failFast(consumer)));
+    }
+
     @Override
     public TransactionFeeDetails getTransactionFee(TransactionFeeRequest feeRequest) {
         TransactionFeeDetails response = transport.send("get_tx_fee",
@@ -77,11 +105,7 @@ public class DefaultProvider implements Provider {
 
     @Override
     public Tokens getTokens() {
-        if (this.tokens == null) {
-            this.updateTokenSet();
-        }
-
-        return this.tokens;
+        return tokenRegistry.getTokens();
     }
 
     @Override
@@ -128,10 +152,13 @@ public class DefaultProvider implements Provider {
 
     @Override
     public ContractAddress contractAddress() {
-        final ContractAddress contractAddress = transport.send("contract_address", Collections.emptyList(),
-                ZksContractAddress.class);
+        // Address of the contract never changes for a network, so it is fetched once
+        if (this.contractAddress == null) {
+            this.contractAddress = transport.send("contract_address", Collections.emptyList(),
+                    ZksContractAddress.class);
+        }
 
-        return contractAddress;
+        return this.contractAddress;
     }
 
     @Override
@@ -142,6 +169,14 @@ public class DefaultProvider implements Provider {
         return response;
     }
 
+    @Override
+    public BatchResult<TransactionDetails> getTransactionDetails(Collection<String> txHashes) {
+        final BatchResult<TransactionDetails> result = new BatchResult<>();
+        join(BatchLookup.run(transport, "tx_info", ZksTransactionDetails.class, txHashes, result::add));
+
+        return result;
+    }
+
     @Override
     public EthOpInfo getEthOpInfo(Integer priority) {
         final EthOpInfo response = transport.send("ethop_info", Collections.singletonList(priority),
@@ -174,7 +209,38 @@ public class DefaultProvider implements Provider {
     }
 
     public void updateTokenSet() {
-        final Tokens response = transport.send("tokens", Collections.emptyList(), ZksTokens.class);
-        this.tokens = response;
+        join(tokenRegistry.refresh());
+    }
+
+    @Override
+    public WarmUpReport warmUp() {
+        final long start = System.nanoTime();
+        final WarmUpReport connected = join(transport.warmUp());
+
+        // Token set and contract address are fetched in parallel over the warmed up connections
+        final long fetchStart = System.nanoTime();
+        final CompletableFuture<Duration> tokens = tokenRegistry.refresh()
+                .thenApply(response -> Duration.ofNanos(System.nanoTime() - fetchStart));
+        final CompletableFuture<Duration> contract = transport.<ContractAddress, ZksContractAddress>sendAsync("contract_address", Collections.emptyList(), ZksContractAddress.class)
+                .thenApply(response -> {
+                    this.contractAddress = response;
+                    return Duration.ofNanos(System.nanoTime() - fetchStart);
+                });
+
+        final Map<String, Duration> stages = new LinkedHashMap<>(connected.getStages());
+        stages.put(WarmUpReport.TOKENS, join(tokens));
+        stages.put(WarmUpReport.CONTRACT_ADDRESS, join(contract));
+        return new WarmUpReport(stages, connected.getConnections(), Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ZkSyncException) {
+                throw (ZkSyncException) e.getCause();
+            }
+            throw new ZkSyncException(e.getCause());
+        }
     }
 }
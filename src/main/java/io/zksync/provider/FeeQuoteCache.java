@@ -0,0 +1,306 @@
+package io.zksync.provider;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import io.zksync.domain.fee.TransactionFeeDetails;
+import io.zksync.domain.fee.TransactionFeeRequest;
+import io.zksync.domain.fee.TransactionType;
+import io.zksync.signer.SigningUtils;
+import io.zksync.transport.TransportScheduler;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Cache of fee quotes keyed by transaction type, class of the address and fee token
+ *
+ * Quotes younger than the maximum age are reused as is. Older quotes are still served until they
+ * exceed the maximum staleness, while a refresh runs in the background; only then callers wait for
+ * a new quote. The safety margin raises every served fee, so that a quote which is slightly out
+ * of date is still accepted by the server.
+ *
+ * Fees depend on the recipient, e.g. transfers to new accounts cost more, so by default every
+ * address is a class of its own. Callers which know more about their recipients may map them
+ * to fewer classes and share quotes between them.
+ */
+public class FeeQuoteCache {
+
+    private final long maxAgeNanos;
+
+    private final long maxStaleNanos;
+
+    private final BigDecimal marginFactor;
+
+    private final Function<String, String> addressClass;
+
+    private final Executor refreshExecutor;
+
+    private final LinkedHashMap<Key, Quote> quotes;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder staleHits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private FeeQuoteCache(Builder builder) {
+        this.maxAgeNanos = builder.maxAge.toNanos();
+        this.maxStaleNanos = builder.maxStale.toNanos();
+        this.marginFactor = BigDecimal.ONE.add(BigDecimal.valueOf(builder.safetyMargin));
+        this.addressClass = builder.addressClass;
+        this.refreshExecutor = builder.refreshExecutor;
+        final int maximumSize = builder.maximumSize;
+        this.quotes = new LinkedHashMap<Key, Quote>(16, 0.75f, true) {
+            private static final long serialVersionUID = -3811546215640924474L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Quote> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Get fee quote for the request, from the cache if it is recent enough
+     *
+     * @param request - Fee request
+     * @param loader - Fetches a new quote, e.g. `provider::getTransactionFee`
+     * @return Future of the quote with the safety margin applied
+     */
+    public CompletableFuture<TransactionFeeDetails> quote(TransactionFeeRequest request,
+            Function<TransactionFeeRequest, CompletableFuture<TransactionFeeDetails>> loader) {
+        return quote(request, loader, refreshExecutor);
+    }
+
+    /**
+     * @param refreshExecutor - Executor which refreshes a stale quote instead of the one of the cache,
+     *     e.g. the calling thread for loaders which block
+     */
+    CompletableFuture<TransactionFeeDetails> quote(TransactionFeeRequest request,
+            Function<TransactionFeeRequest, CompletableFuture<TransactionFeeDetails>> loader, Executor refreshExecutor) {
+        final Key key = new Key(request.getTransactionType(), addressClass.apply(request.getAddress()), request.getTokenIdentifier());
+        final long now = System.nanoTime();
+        final CompletableFuture<TransactionFeeDetails> loading;
+        TransactionFeeDetails stale = null;
+        synchronized (this) {
+            final Quote quote = quotes.computeIfAbsent(key, k -> new Quote());
+            if (quote.fee != null) {
+                final long age = now - quote.fetchedAt;
+                if (age <= maxAgeNanos) {
+                    hits.increment();
+                    return CompletableFuture.completedFuture(withMargin(quote.fee));
+                }
+                if (age <= maxAgeNanos + maxStaleNanos) {
+                    staleHits.increment();
+                    if (quote.loading != null) {
+                        return CompletableFuture.completedFuture(withMargin(quote.fee));
+                    }
+                    stale = quote.fee;
+                }
+            }
+            if (stale == null) {
+                misses.increment();
+                if (quote.loading != null) {
+                    return quote.loading.thenApply(this::withMargin);
+                }
+            }
+            loading = new CompletableFuture<>();
+            quote.loading = loading;
+        }
+
+        // Loads start outside the lock, the executor may run a refresh right away
+        if (stale != null) {
+            revalidate(key, loading, request, loader, refreshExecutor);
+            return CompletableFuture.completedFuture(withMargin(stale));
+        }
+        load(key, loading, request, loader);
+        return loading.thenApply(this::withMargin);
+    }
+
+    /**
+     * Drop every cached quote, e.g. after gas prices jumped
+     */
+    public synchronized void invalidateAll() {
+        quotes.clear();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Quotes served past their maximum age while they were refreshed
+     */
+    public long getStaleHits() {
+        return staleHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private void revalidate(Key key, CompletableFuture<TransactionFeeDetails> loading, TransactionFeeRequest request,
+            Function<TransactionFeeRequest, CompletableFuture<TransactionFeeDetails>> loader, Executor refreshExecutor) {
+        try {
+            refreshExecutor.execute(() -> load(key, loading, request, loader));
+        } catch (RejectedExecutionException e) {
+            // Stale quote is served again, the next caller retries the refresh
+            synchronized (this) {
+                final Quote quote = quotes.get(key);
+                if (quote != null && quote.loading == loading) {
+                    quote.loading = null;
+                }
+            }
+            loading.completeExceptionally(e);
+        }
+    }
+
+    private void load(Key key, CompletableFuture<TransactionFeeDetails> loading, TransactionFeeRequest request,
+            Function<TransactionFeeRequest, CompletableFuture<TransactionFeeDetails>> loader) {
+        CompletableFuture<TransactionFeeDetails> response;
+        try {
+            response = loader.apply(request);
+        } catch (RuntimeException e) {
+            response = new CompletableFuture<>();
+            response.completeExceptionally(e);
+        }
+        response.whenComplete((fee, error) -> {
+            synchronized (this) {
+                final Quote quote = quotes.get(key);
+                if (quote != null && quote.loading == loading) {
+                    quote.loading = null;
+                    if (error == null) {
+                        quote.fee = fee;
+                        quote.fetchedAt = System.nanoTime();
+                    }
+                }
+            }
+            if (error != null) {
+                loading.completeExceptionally(error);
+            } else {
+                loading.complete(fee);
+            }
+        });
+    }
+
+    private TransactionFeeDetails withMargin(TransactionFeeDetails fee) {
+        if (marginFactor.compareTo(BigDecimal.ONE) == 0) {
+            return fee;
+        }
+        final BigInteger total = new BigDecimal(fee.getTotalFeeInteger())
+                .multiply(marginFactor)
+                .setScale(0, RoundingMode.CEILING)
+                .toBigInteger();
+        // Fee is signed in packed form, rounding it down would undo the margin
+        final BigInteger packable = SigningUtils.closestGreaterOrEqPackableTransactionFee(total);
+        return new TransactionFeeDetails(fee.getGasTxAmount(), fee.getGasPriceWei(), fee.getGasFee(), fee.getZkpFee(),
+                packable.toString());
+    }
+
+    @EqualsAndHashCode
+    private static class Key {
+
+        private final TransactionType transactionType;
+
+        private final String addressClass;
+
+        private final String tokenIdentifier;
+
+        Key(TransactionType transactionType, String addressClass, String tokenIdentifier) {
+            this.transactionType = transactionType;
+            this.addressClass = addressClass;
+            this.tokenIdentifier = tokenIdentifier;
+        }
+    }
+
+    private static class Quote {
+
+        private TransactionFeeDetails fee;
+
+        private long fetchedAt;
+
+        private CompletableFuture<TransactionFeeDetails> loading;
+    }
+
+    public static class Builder {
+
+        private Duration maxAge = Duration.ofSeconds(5);
+
+        private Duration maxStale = Duration.ofSeconds(30);
+
+        private double safetyMargin;
+
+        private Function<String, String> addressClass = address -> address == null ? null : address.toLowerCase();
+
+        private Executor refreshExecutor = TransportScheduler.shared();
+
+        private int maximumSize = 1000;
+
+        Builder() {
+        }
+
+        /**
+         * @param maxAge - Quotes younger than this are served without a refresh
+         * @param maxStale - How long past the maximum age a quote is still served while it is refreshed
+         */
+        public Builder maxAge(Duration maxAge, Duration maxStale) {
+            this.maxAge = maxAge;
+            this.maxStale = maxStale;
+            return this;
+        }
+
+        /**
+         * @param safetyMargin - Share added to every served fee, e.g. 0.05 for 5%
+         */
+        public Builder safetyMargin(double safetyMargin) {
+            if (safetyMargin < 0) {
+                throw new IllegalArgumentException("Safety margin must not be negative");
+            }
+            this.safetyMargin = safetyMargin;
+            return this;
+        }
+
+        /**
+         * @param addressClass - Maps an address to the class of addresses which share fee quotes
+         */
+        public Builder addressClass(Function<String, String> addressClass) {
+            this.addressClass = addressClass;
+            return this;
+        }
+
+        /**
+         * By default refreshes are started by the scheduler shared by the SDK, which suits loaders
+         * that only start an asynchronous call. Blocking loaders need an executor of their own.
+         *
+         * @param refreshExecutor - Executor which runs refreshes of stale quotes
+         */
+        public Builder refreshExecutor(Executor refreshExecutor) {
+            this.refreshExecutor = refreshExecutor;
+            return this;
+        }
+
+        /**
+         * @param maximumSize - Quotes kept in the cache, the least recently used one is evicted first
+         */
+        public Builder maximumSize(int maximumSize) {
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        public FeeQuoteCache build() {
+            return new FeeQuoteCache(this);
+        }
+    }
+}
@@ -2,7 +2,13 @@ package io.zksync.provider;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
 
 import org.apache.commons.lang3.tuple.Pair;
 
@@ -20,6 +26,7 @@ import io.zksync.domain.transaction.TransactionDetails;
 import io.zksync.domain.transaction.ZkSyncTransaction;
 import io.zksync.signer.EthSignature;
 import io.zksync.transport.HttpTransport;
+import io.zksync.transport.WarmUpReport;
 
 public interface Provider {
 
@@ -31,6 +38,33 @@ public interface Provider {
      */
     AccountState getState(String accountAddress);
 
+    /**
+     * Get current states of many accounts, looked up by batches of `account_info` requests
+     *
+     * At most a few batches are in flight at once, so memory use does not grow with the amount of accounts.
+     * Providers which do not override it look up the accounts one by one.
+     *
+     * @param accountAddresses - Addresses of the accounts in hex format
+     * @param consumer - Receives every state as it arrives, called by one thread at a time
+     */
+    default void getStates(Collection<String> accountAddresses, BiConsumer<String, AccountState> consumer) {
+        for (String accountAddress : accountAddresses) {
+            consumer.accept(accountAddress, getState(accountAddress));
+        }
+    }
+
+    /**
+     * Get current states of many accounts, looked up by batches of `account_info` requests
+     *
+     * @param accountAddresses - Addresses of the accounts in hex format
+     * @return States of the accounts by address
+     */
+    default Map<String, AccountState> getStates(Collection<String> accountAddresses) {
+        final Map<String, AccountState> states = new HashMap<>();
+        getStates(accountAddresses, states::put);
+        return states;
+    }
+
     /**
      * Get fee of transaction that means cost of transaction execution in ZkSync network
      * 
@@ -115,6 +149,26 @@ public interface Provider {
      */
     TransactionDetails getTransactionDetails(String txHash);
 
+    /**
+     * Get details of many transactions, looked up by batches of `tx_info` requests
+     *
+     * Providers which do not override it look up the transactions one by one.
+     *
+     * @param txHashes - Hashes of the transactions in format: `sync-tx:[hex]`
+     * @return Details by hash of the transactions, and errors by hash of the lookups which failed
+     */
+    default BatchResult<TransactionDetails> getTransactionDetails(Collection<String> txHashes) {
+        final BatchResult<TransactionDetails> result = new BatchResult<>();
+        for (String txHash : txHashes) {
+            try {
+                result.add(txHash, getTransactionDetails(txHash), null);
+            } catch (RuntimeException e) {
+                result.add(txHash, null, e);
+            }
+        }
+        return result;
+    }
+
     /**
      * Get address of ZkSync contract deployed in Ethereum network
      * 
@@ -159,6 +213,25 @@ public interface Provider {
      */
     void updateTokenSet();
 
+    /**
+     * Prepare the provider for traffic: open connections of the transport, then fetch
+     * the token set and the address of ZkSync contract in parallel and keep them cached
+     *
+     * Providers which do not override it only fetch the token set and the contract address, one after another.
+     *
+     * @return Timings of every stage of the warm-up
+     */
+    default WarmUpReport warmUp() {
+        final long start = System.nanoTime();
+        final Map<String, Duration> stages = new LinkedHashMap<>();
+        getTokens();
+        stages.put(WarmUpReport.TOKENS, Duration.ofNanos(System.nanoTime() - start));
+        final long contractStart = System.nanoTime();
+        contractAddress();
+        stages.put(WarmUpReport.CONTRACT_ADDRESS, Duration.ofNanos(System.nanoTime() - contractStart));
+        return new WarmUpReport(stages, 0, Duration.ofNanos(System.nanoTime() - start));
+    }
+
     /**
      * Create default ZkSync provider by given chain id
      * 
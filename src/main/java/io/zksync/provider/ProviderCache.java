@@ -0,0 +1,287 @@
+package io.zksync.provider;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import lombok.EqualsAndHashCode;
+
+/**
+ * Bounded cache of provider results with time to live per method and LRU eviction
+ */
+class ProviderCache {
+
+    private final Map<CachedMethod, Long> ttlNanos = new EnumMap<>(CachedMethod.class);
+
+    private final Map<CachedMethod, Counters> counters = new EnumMap<>(CachedMethod.class);
+
+    private final LinkedHashMap<Key, CachedValue> entries;
+
+    private final Map<Key, CompletableFuture<Object>> loads = new HashMap<>();
+
+    private final FeeQuoteCache feeQuotes;
+
+    ProviderCache(CachePolicy policy) {
+        this.feeQuotes = policy.getFeeQuotes();
+        policy.getTtls().forEach((method, ttl) -> ttlNanos.put(method, ttl.toNanos()));
+        for (CachedMethod method : CachedMethod.values()) {
+            counters.put(method, new Counters());
+        }
+        this.entries = new LinkedHashMap<Key, CachedValue>(16, 0.75f, true) {
+            private static final long serialVersionUID = 5143211869447215046L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedValue> eldest) {
+                if (size() > policy.getMaximumSize()) {
+                    counters.get(eldest.getKey().method).evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get cached result or load and cache it
+     *
+     * Concurrent misses wait for the load of the first one instead of loading again. Result of a load
+     * which was invalidated while it ran is returned but not cached.
+     *
+     * @param loader - Loads the result on a miss, null results are not cached
+     */
+    @SuppressWarnings("unchecked")
+    <V> V get(CachedMethod method, Supplier<V> loader, Object... args) {
+        final Long ttl = ttlNanos.get(method);
+        if (ttl == null) {
+            return loader.get();
+        }
+        final Key key = new Key(method, Arrays.asList(args));
+        final CompletableFuture<Object> load = new CompletableFuture<>();
+        final CompletableFuture<Object> running;
+        synchronized (this) {
+            final CachedValue cached = lookup(key);
+            if (cached != null) {
+                return (V) cached.value;
+            }
+            running = loads.putIfAbsent(key, load);
+        }
+        if (running != null) {
+            return (V) await(running);
+        }
+
+        final V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                loads.remove(key, load);
+            }
+            load.completeExceptionally(e);
+            throw e;
+        }
+        synchronized (this) {
+            if (loads.remove(key, load) && value != null) {
+                store(key, new CachedValue(value, System.nanoTime() + ttl));
+            }
+        }
+        load.complete(value);
+        return value;
+    }
+
+    /**
+     * Get cached future or load and cache it
+     *
+     * Concurrent misses share the future of the first one, failed futures are dropped from the cache.
+     *
+     * @param loader - Loads the result on a miss
+     * @return Future of its own for every caller, so that cancelling it does not affect the others
+     */
+    <V> CompletableFuture<V> getAsync(CachedMethod method, Supplier<CompletableFuture<V>> loader, Object... args) {
+        final Long ttl = ttlNanos.get(method);
+        if (ttl == null) {
+            return loader.get();
+        }
+        final Key key = new Key(method, Arrays.asList(args));
+        final CompletableFuture<V> future = new CompletableFuture<>();
+        final CachedValue loading = new CachedValue(future, System.nanoTime() + ttl);
+        synchronized (this) {
+            final CachedValue cached = lookup(key);
+            if (cached != null) {
+                @SuppressWarnings("unchecked")
+                final CompletableFuture<V> shared = (CompletableFuture<V>) cached.value;
+                return shared.thenApply(Function.identity());
+            }
+            store(key, loading);
+        }
+
+        CompletableFuture<V> response;
+        try {
+            response = loader.get();
+        } catch (RuntimeException e) {
+            response = new CompletableFuture<>();
+            response.completeExceptionally(e);
+        }
+        response.whenComplete((value, error) -> {
+            if (error != null || value == null) {
+                synchronized (this) {
+                    entries.remove(key, loading);
+                }
+            }
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(value);
+            }
+        });
+        return future.thenApply(Function.identity());
+    }
+
+    /**
+     * Wait for a load made by another caller and fail the same way it did
+     */
+    private static Object await(CompletableFuture<Object> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Replace cached result, e.g. after it was refreshed explicitly
+     */
+    void put(CachedMethod method, Object value, Object... args) {
+        final Long ttl = ttlNanos.get(method);
+        if (ttl != null && value != null) {
+            final Key key = new Key(method, Arrays.asList(args));
+            synchronized (this) {
+                // Load which is still running would overwrite the newer result
+                loads.remove(key);
+                store(key, new CachedValue(value, System.nanoTime() + ttl));
+            }
+        }
+    }
+
+    /**
+     * @param accountAddress - Address of the account in hex
+     * @return Key of the cached account state, addresses differ in case only by their checksum
+     */
+    static String stateKey(String accountAddress) {
+        return accountAddress.toLowerCase();
+    }
+
+    /**
+     * @return Cache of fees of single transactions or null if they are cached by time to live
+     */
+    FeeQuoteCache feeQuotes() {
+        return feeQuotes;
+    }
+
+    synchronized void invalidate(CachedMethod method) {
+        if (method == CachedMethod.TRANSACTION_FEE && feeQuotes != null) {
+            feeQuotes.invalidateAll();
+        }
+        entries.keySet().removeIf(key -> key.method == method);
+        loads.keySet().removeIf(key -> key.method == method);
+    }
+
+    synchronized void invalidate(CachedMethod method, Object... args) {
+        final Key key = new Key(method, Arrays.asList(args));
+        entries.remove(key);
+        loads.remove(key);
+    }
+
+    synchronized void invalidateAll() {
+        if (feeQuotes != null) {
+            feeQuotes.invalidateAll();
+        }
+        entries.clear();
+        loads.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    CacheStats stats(CachedMethod method) {
+        final Counters methodCounters = counters.get(method);
+        return new CacheStats(methodCounters.hits.sum(), methodCounters.misses.sum(), methodCounters.evictions.sum());
+    }
+
+    CacheStats stats() {
+        long hits = 0;
+        long misses = 0;
+        long evictions = 0;
+        for (Counters methodCounters : counters.values()) {
+            hits += methodCounters.hits.sum();
+            misses += methodCounters.misses.sum();
+            evictions += methodCounters.evictions.sum();
+        }
+        return new CacheStats(hits, misses, evictions);
+    }
+
+    private synchronized CachedValue lookup(Key key) {
+        final CachedValue entry = entries.get(key);
+        if (entry != null && entry.expiresAt - System.nanoTime() > 0) {
+            counters.get(key.method).hits.increment();
+            return entry;
+        }
+        if (entry != null) {
+            entries.remove(key);
+        }
+        counters.get(key.method).misses.increment();
+        return null;
+    }
+
+    private synchronized void store(Key key, CachedValue entry) {
+        entries.put(key, entry);
+    }
+
+    @EqualsAndHashCode
+    private static class Key {
+
+        private final CachedMethod method;
+
+        private final List<Object> args;
+
+        Key(CachedMethod method, List<Object> args) {
+            this.method = method;
+            this.args = args;
+        }
+    }
+
+    private static class CachedValue {
+
+        private final Object value;
+
+        private final long expiresAt;
+
+        CachedValue(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static class Counters {
+
+        private final LongAdder hits = new LongAdder();
+
+        private final LongAdder misses = new LongAdder();
+
+        private final LongAdder evictions = new LongAdder();
+    }
+}
@@ -0,0 +1,142 @@
+package io.zksync.provider;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import io.zksync.domain.token.Token;
+import io.zksync.domain.token.Tokens;
+import io.zksync.exception.ZkSyncException;
+import io.zksync.transport.TransportScheduler;
+import io.zksync.transport.ZkSyncTransport;
+import io.zksync.transport.response.ZksTokens;
+
+/**
+ * Token set of the network, published as immutable snapshots
+ *
+ * Readers get the current snapshot without locks or network calls once the first one is loaded.
+ * Refreshes replace the snapshot atomically, concurrent refreshes share one `tokens` request
+ * and a failed refresh keeps the previous snapshot.
+ */
+public class TokenRegistry implements Closeable {
+
+    private final ZkSyncTransport transport;
+
+    private final AtomicReference<Tokens> snapshot = new AtomicReference<>();
+
+    private final AtomicReference<CompletableFuture<Tokens>> refreshing = new AtomicReference<>();
+
+    private volatile ScheduledFuture<?> schedule;
+
+    /**
+     * @param transport - Transport to ZkSync endpoint
+     */
+    public TokenRegistry(ZkSyncTransport transport) {
+        this.transport = transport;
+    }
+
+    /**
+     * Refresh the token set in the background until the registry is closed
+     *
+     * Refreshes are started by the scheduler shared by the SDK, they only send an asynchronous request.
+     *
+     * @param interval - Interval between refreshes
+     */
+    public synchronized TokenRegistry refreshEvery(Duration interval) {
+        if (schedule != null) {
+            schedule.cancel(false);
+        }
+        schedule = TransportScheduler.shared().scheduleWithFixedDelay(this::refresh,
+                interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    /**
+     * Get current snapshot, loading the first one if there is none yet
+     *
+     * @return Immutable token set
+     */
+    public Tokens getTokens() {
+        final Tokens current = snapshot.get();
+        if (current != null) {
+            return current;
+        }
+        try {
+            return refresh().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ZkSyncException) {
+                throw (ZkSyncException) e.getCause();
+            }
+            throw new ZkSyncException(e.getCause());
+        }
+    }
+
+    /**
+     * Get current snapshot without loading it
+     *
+     * @return Immutable token set or null if none was loaded yet
+     */
+    public Tokens getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * @param tokenIdentifier - Symbol or address of the token
+     * @return Token from the current snapshot
+     */
+    public Token getToken(String tokenIdentifier) {
+        return getTokens().getToken(tokenIdentifier);
+    }
+
+    /**
+     * Fetch the token set and publish it as the new snapshot
+     *
+     * @return Future of the new snapshot, all refreshes in flight wait for the same request
+     */
+    public CompletableFuture<Tokens> refresh() {
+        final CompletableFuture<Tokens> next = new CompletableFuture<>();
+        while (!refreshing.compareAndSet(null, next)) {
+            final CompletableFuture<Tokens> current = refreshing.get();
+            if (current != null) {
+                return current.thenApply(Function.identity());
+            }
+        }
+
+        CompletableFuture<Tokens> response;
+        try {
+            response = transport.sendAsync("tokens", Collections.emptyList(), ZksTokens.class);
+        } catch (RuntimeException e) {
+            response = new CompletableFuture<>();
+            response.completeExceptionally(e);
+        }
+        response.whenComplete((tokens, error) -> {
+            refreshing.compareAndSet(next, null);
+            if (error != null) {
+                next.completeExceptionally(error);
+            } else {
+                final Tokens published = new Tokens(Collections.unmodifiableMap(new HashMap<>(tokens.getTokens())));
+                snapshot.set(published);
+                next.complete(published);
+            }
+        });
+        return next.thenApply(Function.identity());
+    }
+
+    /**
+     * Stop background refreshes, the last snapshot stays available
+     */
+    @Override
+    public synchronized void close() {
+        if (schedule != null) {
+            schedule.cancel(false);
+            schedule = null;
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package io.zksync.transport;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import io.zksync.exception.ZkSyncException;
+import io.zksync.exception.ZkSyncRateLimitException;
+
+/**
+ * Transport decorator which limits requests in flight at once and adapts the limit to the server
+ *
+ * The limit grows by one per round of requests while latency stays close to the lowest latency
+ * observed, and shrinks by a constant ratio when latency rises beyond the tolerance, the request fails
+ * to reach the server or the server reports throttling. Requests over the limit wait in a bounded queue
+ * in arrival order; requests which can not be queued or wait too long fail with `ZkSyncRateLimitException`.
+ */
+public class ConcurrencyLimitingTransport implements ZkSyncTransport {
+
+    /**
+     * Weight of a sample by which the latency baseline drifts up, so that it follows a lasting change
+     */
+    private static final double BASELINE_DRIFT = 0.001;
+
+    private final ZkSyncTransport transport;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double tolerance;
+
+    private final double backoffRatio;
+
+    private final int maxQueueSize;
+
+    private final long maxQueueNanos;
+
+    private final Set<Integer> throttlingCodes;
+
+    private final ArrayDeque<CompletableFuture<Void>> queue = new ArrayDeque<>();
+
+    private double limit;
+
+    private int inFlight;
+
+    private double baselineNanos;
+
+    private ConcurrencyLimitingTransport(Builder builder) {
+        this.transport = builder.transport;
+        this.minLimit = builder.minLimit;
+        this.maxLimit = builder.maxLimit;
+        this.limit = builder.initialLimit;
+        this.tolerance = builder.tolerance;
+        this.backoffRatio = builder.backoffRatio;
+        this.maxQueueSize = builder.maxQueueSize;
+        this.maxQueueNanos = builder.maxQueueTime.toNanos();
+        this.throttlingCodes = new HashSet<>(builder.throttlingCodes);
+    }
+
+    public static Builder builder(ZkSyncTransport transport) {
+        return new Builder(transport);
+    }
+
+    /**
+     * Get current amount of requests allowed in flight at once
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Get amount of requests currently in flight
+     */
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Get amount of requests waiting for the limit
+     */
+    public synchronized int getQueued() {
+        return queue.size();
+    }
+
+    @Override
+    public <R, T extends ZkSyncResponse<R>> R send(String method, List<Object> params, Class<T> returntype) {
+        try {
+            acquire().join();
+        } catch (CompletionException e) {
+            throw (ZkSyncException) TransportErrors.unwrap(e);
+        }
+        final long start = System.nanoTime();
+        try {
+            final R result = transport.send(method, params, returntype);
+            release(System.nanoTime() - start, null);
+            return result;
+        } catch (RuntimeException e) {
+            release(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public <R, T extends ZkSyncResponse<R>> CompletableFuture<R> sendAsync(String method, List<Object> params, Class<T> returntype) {
+        return acquire().thenCompose(permit -> {
+            final long start = System.nanoTime();
+            final CompletableFuture<R> response;
+            try {
+                response = transport.sendAsync(method, params, returntype);
+            } catch (RuntimeException e) {
+                release(System.nanoTime() - start, e);
+                throw e;
+            }
+            return response.whenComplete((result, error) -> release(System.nanoTime() - start, error));
+        });
+    }
+
+    @Override
+    public <R, T extends ZkSyncResponse<R>> List<CompletableFuture<R>> sendBatch(List<ZkSyncRequest> requests, Class<T> returntype) {
+        // Batch is one request to the server, its latency is not comparable to single requests though
+        final CompletableFuture<List<CompletableFuture<R>>> batch = acquire().thenApply(permit -> {
+            final List<CompletableFuture<R>> responses;
+            try {
+                responses = transport.sendBatch(requests, returntype);
+            } catch (RuntimeException e) {
+                release(-1, e);
+                throw e;
+            }
+            CompletableFuture.allOf(responses.toArray(new CompletableFuture<?>[0]))
+                    .whenComplete((result, error) -> release(-1, error));
+            return responses;
+        });
+
+        final List<CompletableFuture<R>> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            final int index = i;
+            results.add(batch.thenCompose(responses -> responses.get(index)));
+        }
+        return results;
+    }
+
+    @Override
+    public CompletableFuture<WarmUpReport> warmUp() {
+        return transport.warmUp();
+    }
+
+    private CompletableFuture<Void> acquire() {
+        final CompletableFuture<Void> permit = new CompletableFuture<>();
+        synchronized (this) {
+            if (queue.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                permit.complete(null);
+                return permit;
+            }
+            if (queue.size() >= maxQueueSize) {
+                permit.completeExceptionally(new ZkSyncRateLimitException(
+                        "Concurrency limit of " + (int) limit + " requests is reached and the queue is full"));
+                return permit;
+            }
+            queue.add(permit);
+        }
+        TransportScheduler.INSTANCE.schedule(() -> {
+            final boolean removed;
+            synchronized (this) {
+                removed = queue.remove(permit);
+            }
+            if (removed) {
+                permit.completeExceptionally(new ZkSyncRateLimitException("Request waited too long for concurrency limit"));
+            }
+        }, maxQueueNanos, TimeUnit.NANOSECONDS);
+        return permit;
+    }
+
+    /**
+     * @param latencyNanos - Round-trip time of the request or a negative value if it is not a fair sample
+     */
+    private void release(long latencyNanos, Throwable error) {
+        final List<CompletableFuture<Void>> granted = new ArrayList<>();
+        synchronized (this) {
+            final boolean saturated = inFlight * 2 >= limit;
+            inFlight--;
+            adjust(latencyNanos, error, saturated);
+            while (!queue.isEmpty() && inFlight < (int) limit) {
+                final CompletableFuture<Void> permit = queue.poll();
+                if (!permit.isDone()) {
+                    inFlight++;
+                    granted.add(permit);
+                }
+            }
+        }
+        for (CompletableFuture<Void> permit : granted) {
+            permit.complete(null);
+        }
+    }
+
+    private void adjust(long latencyNanos, Throwable error, boolean saturated) {
+        if (error != null) {
+            if (isOverload(error)) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            }
+            return;
+        }
+        if (latencyNanos < 0) {
+            return;
+        }
+
+        baselineNanos = baselineNanos == 0 || latencyNanos < baselineNanos ?
+                latencyNanos : baselineNanos + BASELINE_DRIFT * (latencyNanos - baselineNanos);
+        if (latencyNanos > baselineNanos * tolerance) {
+            // Requests queue up on the server, fewer of them in flight would not lower throughput
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (saturated) {
+            // Grow only while the limit is actually used, otherwise it says nothing about the server
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    private boolean isOverload(Throwable error) {
+        if (TransportErrors.isEndpointFailure(error)) {
+            return true;
+        }
+        final ZkSyncError serverError = TransportErrors.serverError(error);
+        return serverError != null && serverError.getCode() != null && throttlingCodes.contains(serverError.getCode());
+    }
+
+    public static class Builder {
+
+        private final ZkSyncTransport transport;
+
+        private int initialLimit = 20;
+
+        private int minLimit = 1;
+
+        private int maxLimit = 200;
+
+        private double tolerance = 2.0;
+
+        private double backoffRatio = 0.9;
+
+        private int maxQueueSize = 1000;
+
+        private Duration maxQueueTime = Duration.ofSeconds(5);
+
+        private Set<Integer> throttlingCodes = RateLimitingTransport.DEFAULT_THROTTLING_CODES;
+
+        Builder(ZkSyncTransport transport) {
+            this.transport = transport;
+        }
+
+        /**
+         * @param initialLimit - Requests allowed in flight at once before any latency was measured
+         * @param minLimit - Limit never shrinks below this value
+         * @param maxLimit - Limit never grows above this value
+         */
+        public Builder limits(int initialLimit, int minLimit, int maxLimit) {
+            if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+                throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+            }
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        /**
+         * @param tolerance - Ratio of latency to the lowest observed latency above which the limit shrinks
+         * @param backoffRatio - Factor applied to the limit when it shrinks, between 0 and 1
+         */
+        public Builder gradient(double tolerance, double backoffRatio) {
+            if (tolerance <= 1) {
+                throw new IllegalArgumentException("Tolerance must be greater than 1");
+            }
+            if (backoffRatio <= 0 || backoffRatio >= 1) {
+                throw new IllegalArgumentException("Backoff ratio must be in (0, 1)");
+            }
+            this.tolerance = tolerance;
+            this.backoffRatio = backoffRatio;
+            return this;
+        }
+
+        /**
+         * @param maxQueueSize - Requests waiting for the limit, further requests are rejected; 0 disables queueing
+         * @param maxQueueTime - Longest time a request may wait for the limit
+         */
+        public Builder queue(int maxQueueSize, Duration maxQueueTime) {
+            this.maxQueueSize = maxQueueSize;
+            this.maxQueueTime = maxQueueTime;
+            return this;
+        }
+
+        /**
+         * @param throttlingCodes - Error codes by which the server reports that the client is throttled
+         */
+        public Builder throttlingCodes(Set<Integer> throttlingCodes) {
+            this.throttlingCodes = throttlingCodes;
+            return this;
+        }
+
+        public ConcurrencyLimitingTransport build() {
+            return new ConcurrencyLimitingTransport(this);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package io.zksync.transport;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.zksync.exception.ZkSyncDeadlineExceededException;
+
+/**
+ * Point in time by which a chain of calls must complete
+ *
+ * A deadline is created once per operation and passed to every call the operation makes,
+ * so that each call only gets the time which is still left. Calls made after the deadline
+ * fail immediately with `ZkSyncDeadlineExceededException`.
+ */
+public final class Deadline {
+
+    private final long deadlineNanos;
+
+    private final Duration timeout;
+
+    private Deadline(long deadlineNanos, Duration timeout) {
+        this.deadlineNanos = deadlineNanos;
+        this.timeout = timeout;
+    }
+
+    /**
+     * @param timeout - Time budget starting now
+     * @return Deadline which passes once the budget is spent
+     */
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos(), timeout);
+    }
+
+    /**
+     * @return Time left until the deadline, zero once it passed
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, remainingNanos()));
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    /**
+     * Limit the future to the deadline
+     *
+     * When the deadline passes first, the returned future fails with `ZkSyncDeadlineExceededException`
+     * and the given future is cancelled so that the work behind it can be abandoned.
+     *
+     * @param future - Result of a call made under this deadline
+     * @return Future which completes no later than the deadline
+     */
+    public <T> CompletableFuture<T> bound(CompletableFuture<T> future) {
+        if (future.isDone()) {
+            return future;
+        }
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final ScheduledFuture<?> timer = TransportScheduler.INSTANCE.schedule(() -> {
+            if (result.completeExceptionally(exceeded())) {
+                future.cancel(false);
+            }
+        }, Math.max(0, remainingNanos()), TimeUnit.NANOSECONDS);
+
+        future.whenComplete((value, error) -> {
+            timer.cancel(false);
+            if (error == null) {
+                result.complete(value);
+            } else if (isExpired()) {
+                // Timeouts of the underlying call are reported as the deadline they enforce
+                result.completeExceptionally(exceeded());
+            } else {
+                result.completeExceptionally(TransportErrors.unwrap(error));
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                future.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * @return Exception which reports that this deadline passed
+     */
+    public ZkSyncDeadlineExceededException exceeded() {
+        return new ZkSyncDeadlineExceededException("Deadline of " + timeout.toMillis() + " ms exceeded");
+    }
+
+    long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+}
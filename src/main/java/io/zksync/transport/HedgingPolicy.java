@@ -0,0 +1,34 @@
+package io.zksync.transport;
+
+import java.time.Duration;
+import java.util.Set;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Settings of hedged requests
+ *
+ * The duplicate request is sent once the first one is slower than the given percentile
+ * of recently observed latencies of the same method.
+ */
+@Getter
+@Builder
+public class HedgingPolicy {
+
+    @Builder.Default
+    private final Set<String> methods = RpcMethods.READ;
+
+    @Builder.Default
+    private final double percentile = 0.95;
+
+    @Builder.Default
+    private final Duration initialDelay = Duration.ofMillis(200);
+
+    @Builder.Default
+    private final Duration minDelay = Duration.ofMillis(10);
+
+    public static HedgingPolicy defaultPolicy() {
+        return HedgingPolicy.builder().build();
+    }
+}
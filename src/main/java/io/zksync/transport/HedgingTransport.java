@@ -0,0 +1,187 @@
+package io.zksync.transport;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.zksync.exception.ZkSyncException;
+
+/**
+ * Transport decorator which sends a duplicate of a slow read request and takes the first response
+ *
+ * Only methods allowed by the policy are hedged, state changing methods are rejected.
+ * The request which loses the race is cancelled.
+ */
+public class HedgingTransport implements ZkSyncTransport {
+
+    private final ZkSyncTransport transport;
+
+    private final HedgingPolicy policy;
+
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+
+    public HedgingTransport(ZkSyncTransport transport) {
+        this(transport, HedgingPolicy.defaultPolicy());
+    }
+
+    public HedgingTransport(ZkSyncTransport transport, HedgingPolicy policy) {
+        for (String method : policy.getMethods()) {
+            if (RpcMethods.WRITE.contains(method)) {
+                throw new IllegalArgumentException("Method " + method + " changes state and can not be hedged");
+            }
+        }
+        if (policy.getPercentile() <= 0 || policy.getPercentile() > 1) {
+            throw new IllegalArgumentException("Percentile must be in (0, 1]");
+        }
+        this.transport = transport;
+        this.policy = policy;
+    }
+
+    @Override
+    public <R, T extends ZkSyncResponse<R>> R send(String method, List<Object> params, Class<T> returntype) {
+        if (!policy.getMethods().contains(method)) {
+            return transport.send(method, params, returntype);
+        }
+        try {
+            return this.<R, T>sendAsync(method, params, returntype).join();
+        } catch (CompletionException e) {
+            final Throwable cause = TransportErrors.unwrap(e);
+            if (cause instanceof ZkSyncException) {
+                throw (ZkSyncException) cause;
+            }
+            throw new ZkSyncException("There was an error when sending the request", cause);
+        }
+    }
+
+    @Override
+    public <R, T extends ZkSyncResponse<R>> CompletableFuture<R> sendAsync(String method, List<Object> params, Class<T> returntype) {
+        if (!policy.getMethods().contains(method)) {
+            return transport.sendAsync(method, params, returntype);
+        }
+
+        final LatencyWindow window = latencies.computeIfAbsent(method, key -> new LatencyWindow(policy.getPercentile()));
+        final CompletableFuture<R> result = new CompletableFuture<>();
+        final AtomicInteger outstanding = new AtomicInteger(1);
+
+        // Latency of the whole call, so that a slow primary beaten by its hedge still counts as at least
+        // this slow; recording only the winners would pull the percentile down and hedge ever sooner
+        final long start = System.nanoTime();
+        result.whenComplete((response, error) -> {
+            if (error == null) {
+                window.record(System.nanoTime() - start);
+            }
+        });
+
+        final CompletableFuture<R> primary = attempt(method, params, returntype, result, outstanding);
+        final ScheduledFuture<?> hedge = TransportScheduler.INSTANCE.schedule(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            outstanding.incrementAndGet();
+            final CompletableFuture<R> secondary = attempt(method, params, returntype, result, outstanding);
+            cancelOnCompletion(result, secondary);
+        }, delay(window), TimeUnit.NANOSECONDS);
+
+        result.whenComplete((response, error) -> hedge.cancel(false));
+        cancelOnCompletion(result, primary);
+
+        return result;
+    }
+
+    @Override
+    public <R, T extends ZkSyncResponse<R>> List<CompletableFuture<R>> sendBatch(List<ZkSyncRequest> requests, Class<T> returntype) {
+        return transport.sendBatch(requests, returntype);
+    }
+
+    @Override
+    public CompletableFuture<WarmUpReport> warmUp() {
+        return transport.warmUp();
+    }
+
+    private <R, T extends ZkSyncResponse<R>> CompletableFuture<R> attempt(String method, List<Object> params, Class<T> returntype,
+            CompletableFuture<R> result, AtomicInteger outstanding) {
+        final CompletableFuture<R> attempt = transport.sendAsync(method, params, returntype);
+        attempt.whenComplete((response, error) -> {
+            if (error == null) {
+                result.complete(response);
+            } else if (outstanding.decrementAndGet() == 0) {
+                // Fail only when no other attempt can still succeed
+                result.completeExceptionally(error);
+            }
+        });
+        return attempt;
+    }
+
+    /**
+     * @return Delay after which the next request of the method is hedged
+     */
+    long hedgeDelayNanos(String method) {
+        return delay(latencies.computeIfAbsent(method, key -> new LatencyWindow(policy.getPercentile())));
+    }
+
+    private long delay(LatencyWindow window) {
+        final long observed = window.current();
+        final long delay = observed > 0 ? observed : policy.getInitialDelay().toNanos();
+        return Math.max(delay, policy.getMinDelay().toNanos());
+    }
+
+    private static void cancelOnCompletion(CompletableFuture<?> result, CompletableFuture<?> attempt) {
+        result.whenComplete((response, error) -> {
+            if (!attempt.isDone()) {
+                attempt.cancel(false);
+            }
+        });
+    }
+
+    /**
+     * Ring buffer of recent latencies of one method
+     */
+    private static class LatencyWindow {
+
+        private static final int SIZE = 256;
+
+        private static final int UPDATE_INTERVAL = 16;
+
+        private final double percentile;
+
+        private final long[] samples = new long[SIZE];
+
+        private int count;
+
+        private int next;
+
+        private volatile long current;
+
+        LatencyWindow(double percentile) {
+            this.percentile = percentile;
+        }
+
+        synchronized void record(long latencyNanos) {
+            samples[next] = latencyNanos;
+            next = (next + 1) % SIZE;
+            if (count < SIZE) {
+                count++;
+            }
+            // Percentile is refreshed periodically so that reading it stays cheap
+            if (next % UPDATE_INTERVAL == 0) {
+                final long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                final int index = (int) Math.ceil(percentile * sorted.length) - 1;
+                current = sorted[Math.max(0, index)];
+            }
+        }
+
+        /**
+         * @return Latency at the percentile or 0 if there are not enough samples yet
+         */
+        long current() {
+            return current;
+        }
+    }
+}
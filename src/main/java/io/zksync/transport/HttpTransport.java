@@ -1,111 +1,743 @@
 package io.zksync.transport;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.zksync.domain.contract.ContractAddress;
 import io.zksync.exception.ZkSyncException;
+import io.zksync.transport.response.ZksContractAddress;
 import okhttp3.*;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
-public class HttpTransport implements ZkSyncTransport {
+public class HttpTransport implements ZkSyncTransport, Closeable {
 
     public static final MediaType APPLICATION_JSON = MediaType.get("application/json; charset=utf-8");
 
+    /**
+     * Code of the error reported when the server throttles the client
+     */
+    public static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
+
+    private static final Duration DEFAULT_KEEP_ALIVE = Duration.ofMinutes(5);
+
+    private final OkHttpClient baseClient;
+
     private final OkHttpClient httpClient;
 
+    private final Map<String, OkHttpClient> laneClients;
+
     private final String url;
 
-    private final ObjectMapper objectMapper;
+    private final JsonCodec codec;
+
+    private final RequestCoalescer coalescer;
+
+    private final TransportListener listener;
 
+    private final Executor completionExecutor;
+
+    private final int warmUpConnections;
+
+    /**
+     * Create transport backed by the client shared by all default transports of the process
+     *
+     * @param url - Address of ZkSync JSON-RPC endpoint
+     */
     public HttpTransport(String url) {
-        this.url = url;
+        this(builder().url(url));
+    }
 
-        httpClient = new OkHttpClient
-                .Builder()
-                .callTimeout(Duration.ofSeconds(5))
-                .connectTimeout(Duration.ofSeconds(5))
-                .build();
+    /**
+     * Create transport which coalesces concurrent `sendAsync` calls into JSON-RPC batches
+     *
+     * @param url - Address of ZkSync JSON-RPC endpoint
+     * @param coalesceWindow - How long the first request of a batch waits for others
+     * @param maxBatchSize - Batch is sent immediately once it reaches this size
+     */
+    public HttpTransport(String url, Duration coalesceWindow, int maxBatchSize) {
+        this(builder().url(url).coalesce(coalesceWindow, maxBatchSize));
+    }
 
-        objectMapper = new ObjectMapper();
+    private HttpTransport(Builder builder) {
+        if (builder.url == null) {
+            throw new IllegalArgumentException("Url of ZkSync endpoint is required");
+        }
+        this.url = builder.url;
+
+        baseClient = builder.baseHttpClient();
+
+        httpClient = builder.buildHttpClient();
+
+        laneClients = builder.buildLaneClients(httpClient);
+
+        codec = builder.afterburner ? JsonCodec.afterburner() : JsonCodec.standard();
+
+        coalescer = builder.coalesceWindow != null ?
+                new RequestCoalescer(builder.coalesceWindow, builder.maxBatchSize, this::dispatch) : null;
+
+        listener = builder.listener;
+
+        completionExecutor = builder.completionExecutor;
+
+        warmUpConnections = builder.warmUpConnections;
+    }
+
+    public static Builder builder() {
+        return new Builder();
     }
 
     @Override
     public <R, T extends ZkSyncResponse<R>> R send(String method, List<Object> params, Class<T> returntype) {
+        final RequestRecorder recorder = new RequestRecorder(listener, method, 1);
         try {
             final ZkSyncRequest zkRequest = ZkSyncRequest
                     .builder()
                     .method(method)
                     .params(params)
                     .build();
-            final String bodyJson = objectMapper.writeValueAsString(zkRequest);
-            final RequestBody body = RequestBody.create(bodyJson, APPLICATION_JSON);
+            final JsonRequestBody body = JsonRequestBody.of(codec, zkRequest);
+            recorder.body(body);
 
             final Request request = new Request.Builder()
                     .url(url)
                     .post(body)
                     .build();
 
-            final Response response = httpClient.newCall(request).execute();
-
-            final String responseString = response.body().string();
+            try (Response response = client(method).newCall(request).execute();
+                 JsonParser parser = parser(response, recorder)) {
+                final ZkSyncResponse<R> resultJson = codec.read(parser, returntype);
 
-            final ZkSyncResponse<R> resultJson = objectMapper.readValue(responseString, returntype);
+                if (resultJson.getError() != null) {
+                    throw new ZkSyncException(resultJson.getError());
+                }
 
-            if (resultJson.getError() != null) {
-                throw new ZkSyncException(resultJson.getError());
+                recorder.finish(null);
+                return resultJson.getResult();
             }
-
-            return resultJson.getResult();
-
         } catch (IOException e) {
+            recorder.finish(e);
             throw new ZkSyncException("There was an error when sending the request", e);
+        } catch (RuntimeException e) {
+            recorder.finish(e);
+            throw e;
         }
     }
 
     @Override
     public <R, T extends ZkSyncResponse<R>> CompletableFuture<R> sendAsync(String method, List<Object> params, Class<T> returntype) {
-        final CompletableFuture<R> future = new CompletableFuture<>();
         final ZkSyncRequest zkRequest = ZkSyncRequest
-                    .builder()
-                    .method(method)
-                    .params(params)
-                    .build();
-            String bodyJson;
-            try {
-                bodyJson = objectMapper.writeValueAsString(zkRequest);
-            } catch (JsonProcessingException e) {
-                future.completeExceptionally(e);
-                return future;
+                .builder()
+                .method(method)
+                .params(params)
+                .build();
+        final PendingRequest<R> pending = new PendingRequest<>(zkRequest, returntype, new CompletableFuture<>());
+
+        // Methods with their own lane are not mixed into batches of the default lane
+        if (coalescer != null && !laneClients.containsKey(method)) {
+            coalescer.submit(pending);
+        } else {
+            dispatchSingle(pending);
+        }
+
+        return pending.getFuture();
+    }
+
+    @Override
+    public <R, T extends ZkSyncResponse<R>> CompletableFuture<R> sendAsync(String method, List<Object> params, Class<T> returntype, Deadline deadline) {
+        final ZkSyncRequest zkRequest = ZkSyncRequest
+                .builder()
+                .method(method)
+                .params(params)
+                .build();
+        final PendingRequest<R> pending = new PendingRequest<>(zkRequest, returntype, new CompletableFuture<>());
+
+        if (deadline.isExpired()) {
+            pending.fail(deadline.exceeded());
+            return pending.getFuture();
+        }
+
+        // Requests with a deadline skip coalescing, waiting for the window would spend their budget
+        dispatchSingle(pending, deadline);
+
+        return deadline.bound(pending.getFuture());
+    }
+
+    @Override
+    public <R, T extends ZkSyncResponse<R>> List<CompletableFuture<R>> sendBatch(List<ZkSyncRequest> requests, Class<T> returntype) {
+        final List<PendingRequest<?>> batch = new ArrayList<>(requests.size());
+        final List<CompletableFuture<R>> futures = new ArrayList<>(requests.size());
+        for (ZkSyncRequest request : requests) {
+            final PendingRequest<R> pending = new PendingRequest<>(request, returntype, new CompletableFuture<>());
+            batch.add(pending);
+            futures.add(pending.getFuture());
+        }
+
+        dispatch(batch);
+
+        return futures;
+    }
+
+    /**
+     * Shut down the dispatchers and connection pools which the transport created for itself, e.g. for its lanes
+     *
+     * Client passed to the builder and the client shared by default transports stay open, as other
+     * transports may use them. Requests sent after closing fail.
+     */
+    @Override
+    public void close() {
+        final Set<OkHttpClient> clients = Collections.newSetFromMap(new IdentityHashMap<>());
+        clients.add(httpClient);
+        clients.addAll(laneClients.values());
+        for (OkHttpClient client : clients) {
+            if (client.dispatcher() != baseClient.dispatcher()) {
+                client.dispatcher().executorService().shutdown();
             }
-            final RequestBody body = RequestBody.create(bodyJson, APPLICATION_JSON);
+            if (client.connectionPool() != baseClient.connectionPool()) {
+                client.connectionPool().evictAll();
+            }
+        }
+    }
 
-            final Request request = new Request.Builder()
-                    .url(url)
-                    .post(body)
-                    .build();
-            httpClient.newCall(request).enqueue(new Callback() {
-                @Override
-                public void onResponse(Call _arg0, Response response) throws IOException {
-                    final String responseString = response.body().string();
+    /**
+     * Open the configured number of connections in parallel before the first real request
+     *
+     * Every connection is opened by a `contract_address` request sent on its own, so DNS lookup,
+     * TCP and TLS handshakes are paid for here. Connections stay in the pool for its keep-alive duration.
+     * With HTTP/2 the requests share one connection, with HTTP/1.1 parallelism is capped by the dispatcher.
+     * Every priority lane has its own pool and is warmed up the same way.
+     *
+     * @return Report with `connect` stage, fails if no connection could be opened
+     */
+    @Override
+    public CompletableFuture<WarmUpReport> warmUp() {
+        final long start = System.nanoTime();
+        final Set<OkHttpClient> clients = Collections.newSetFromMap(new IdentityHashMap<>());
+        clients.add(httpClient);
+        clients.addAll(laneClients.values());
+
+        final List<CompletableFuture<Boolean>> connections = new ArrayList<>(warmUpConnections * clients.size());
+        for (OkHttpClient client : clients) {
+            for (int i = 0; i < warmUpConnections; i++) {
+                final ZkSyncRequest zkRequest = ZkSyncRequest
+                        .builder()
+                        .method("contract_address")
+                        .params(Collections.emptyList())
+                        .build();
+                final PendingRequest<ContractAddress> pending = new PendingRequest<>(zkRequest, ZksContractAddress.class, new CompletableFuture<>());
+                dispatchSingle(pending, client, null);
+                // Error returned by the server still proves that the connection is open
+                connections.add(pending.getFuture().handle((result, error) -> !TransportErrors.isEndpointFailure(error)));
+            }
+        }
+
+        return CompletableFuture
+                .allOf(connections.toArray(new CompletableFuture<?>[0]))
+                .thenApply(done -> {
+                    final int opened = (int) connections.stream().filter(CompletableFuture::join).count();
+                    if (opened == 0) {
+                        throw new ZkSyncException("Could not connect to " + url);
+                    }
+                    final Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+                    return new WarmUpReport(Collections.singletonMap(WarmUpReport.CONNECT, elapsed), opened, elapsed);
+                });
+    }
+
+    /**
+     * Send a batch split by lane, so that every request goes through the lane of its method
+     */
+    private void dispatch(List<PendingRequest<?>> batch) {
+        final Map<OkHttpClient, List<PendingRequest<?>>> lanes = new LinkedHashMap<>();
+        for (PendingRequest<?> pending : batch) {
+            lanes.computeIfAbsent(client(pending.getRequest().getMethod()), client -> new ArrayList<>()).add(pending);
+        }
+        lanes.forEach((client, requests) -> {
+            if (requests.size() == 1) {
+                dispatchSingle(requests.get(0), client, null);
+            } else {
+                dispatchBatch(requests, client);
+            }
+        });
+    }
+
+    private <R> void dispatchSingle(PendingRequest<R> pending) {
+        dispatchSingle(pending, null);
+    }
+
+    private <R> void dispatchSingle(PendingRequest<R> pending, Deadline deadline) {
+        dispatchSingle(pending, client(pending.getRequest().getMethod()), deadline);
+    }
+
+    private <R> void dispatchSingle(PendingRequest<R> pending, OkHttpClient client, Deadline deadline) {
+        final RequestRecorder recorder = new RequestRecorder(listener, pending.getRequest().getMethod(), 1);
+        final JsonRequestBody body = JsonRequestBody.of(codec, pending.getRequest());
+        recorder.body(body);
 
-                    final ZkSyncResponse<R> resultJson = objectMapper.readValue(responseString, returntype);
+        final Call call = enqueue(client, body, deadline, new Callback() {
+            @Override
+            public void onResponse(Call _arg0, Response response) {
+                complete(() -> {
+                    try (JsonParser parser = parser(response, recorder)) {
+                        final ZkSyncResponse<R> resultJson = codec.read(parser, pending.getReturntype());
 
-                    if (resultJson.getError() != null) {
-                        future.completeExceptionally(new ZkSyncException(resultJson.getError()));
+                        recorder.finish(resultJson.getError() != null ? new ZkSyncException(resultJson.getError()) : null);
+                        pending.complete(resultJson);
+                    } catch (IOException | RuntimeException e) {
+                        recorder.finish(e);
+                        pending.fail(e);
+                    } finally {
+                        response.close();
                     }
+                });
+            }
+
+            @Override
+            public void onFailure(Call _arg0, IOException error) {
+                complete(() -> {
+                    recorder.finish(error);
+                    pending.fail(error);
+                });
+            }
+        });
+
+        // Release the connection when the caller is no longer interested in the result
+        pending.getFuture().whenComplete((result, error) -> {
+            if (pending.getFuture().isCancelled()) {
+                call.cancel();
+            }
+        });
+    }
+
+    private void dispatchBatch(List<PendingRequest<?>> batch, OkHttpClient client) {
+        final String method = batchMethod(batch);
+        final RequestRecorder recorder = new RequestRecorder(listener, method, batch.size());
+        final JsonRequestBody body = JsonRequestBody.of(codec,
+                batch.stream().map(PendingRequest::getRequest).collect(Collectors.toList()));
+        recorder.body(body);
+
+        enqueue(client, body, null, new Callback() {
+            @Override
+            public void onResponse(Call _arg0, Response response) {
+                complete(() -> {
+                    try (JsonParser parser = parser(response, recorder)) {
+                        completeBatch(batch, parser);
+                        recorder.finish(null);
+                    } catch (IOException | RuntimeException e) {
+                        recorder.finish(e);
+                        batch.forEach(pending -> pending.fail(e));
+                    } finally {
+                        response.close();
+                    }
+                });
+            }
+
+            @Override
+            public void onFailure(Call _arg0, IOException error) {
+                complete(() -> {
+                    recorder.finish(error);
+                    batch.forEach(pending -> pending.fail(error));
+                });
+            }
+        });
+    }
+
+    /**
+     * Run parsing and completion of a response on the completion executor, if there is one
+     */
+    private void complete(Runnable completion) {
+        if (completionExecutor == null) {
+            completion.run();
+            return;
+        }
+        try {
+            completionExecutor.execute(completion);
+        } catch (RejectedExecutionException e) {
+            // Executor is shut down or saturated, completing here is better than never
+            completion.run();
+        }
+    }
+
+    /**
+     * Get client of the lane of the method, methods without a lane use the default one
+     */
+    private OkHttpClient client(String method) {
+        final OkHttpClient lane = laneClients.get(method);
+        return lane != null ? lane : httpClient;
+    }
+
+    private Call enqueue(OkHttpClient client, RequestBody body, Deadline deadline, Callback callback) {
+        final Request request = new Request.Builder()
+                .url(url)
+                .post(body)
+                .build();
+
+        final Call call = client.newCall(request);
+        if (deadline != null) {
+            final long clientTimeout = TimeUnit.MILLISECONDS.toNanos(client.callTimeoutMillis());
+            final long remaining = Math.max(1, deadline.remainingNanos());
+            call.timeout().timeout(clientTimeout > 0 ? Math.min(clientTimeout, remaining) : remaining, TimeUnit.NANOSECONDS);
+        }
+        call.enqueue(callback);
+        return call;
+    }
+
+    private JsonParser parser(Response response, RequestRecorder recorder) throws IOException {
+        recorder.received();
+        if (response.code() == HTTP_TOO_MANY_REQUESTS) {
+            throw new ZkSyncException(new ZkSyncError(HTTP_TOO_MANY_REQUESTS, "Too many requests"));
+        }
+        final ResponseBody body = response.body();
+        if (body == null) {
+            throw new IOException("Empty response body, HTTP status " + response.code());
+        }
+        return codec.createParser(recorder.count(body.byteStream()));
+    }
+
+    private static String batchMethod(List<PendingRequest<?>> batch) {
+        final String method = batch.get(0).getRequest().getMethod();
+        for (PendingRequest<?> pending : batch) {
+            if (!method.equals(pending.getRequest().getMethod())) {
+                return "batch";
+            }
+        }
+        return method;
+    }
+
+    private void completeBatch(List<PendingRequest<?>> batch, JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            // Server rejected the whole batch, e.g. with a parse error
+            final JsonNode resultJson = codec.readTree(parser);
+            final ZkSyncException exception = resultJson != null && resultJson.hasNonNull("error") ?
+                    new ZkSyncException(codec.read(resultJson.get("error"), ZkSyncError.class)) :
+                    new ZkSyncException("Unexpected response to the batch request");
+            batch.forEach(pending -> pending.fail(exception));
+            return;
+        }
+
+        final Map<Long, PendingRequest<?>> awaiting = new HashMap<>(batch.size());
+        for (PendingRequest<?> pending : batch) {
+            awaiting.put(pending.getId(), pending);
+        }
+
+        // Complete every future as soon as its item is decoded
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            final JsonNode item = codec.readTree(parser);
+            final PendingRequest<?> pending = awaiting.remove(item.path("id").asLong());
+            if (pending != null) {
+                completeItem(pending, item);
+            }
+        }
+
+        awaiting.values().forEach(pending -> pending.fail(
+                new ZkSyncException("No response in the batch for request " + pending.getId())));
+    }
+
+    private <R> void completeItem(PendingRequest<R> pending, JsonNode item) {
+        try {
+            pending.complete(codec.read(item, pending.getReturntype()));
+        } catch (IOException | RuntimeException e) {
+            pending.fail(e);
+        }
+    }
+
+    /**
+     * Builder of HttpTransport
+     *
+     * Transports built without explicit client settings share one connection pool and dispatcher.
+     * Transports built from the same external client share its pool and dispatcher too,
+     * while timeouts may still be overridden per transport.
+     */
+    public static class Builder {
+
+        private String url;
+
+        private OkHttpClient httpClient;
+
+        private Duration callTimeout;
+
+        private Duration connectTimeout;
+
+        private Integer maxIdleConnections;
+
+        private Duration keepAliveDuration;
+
+        private Integer maxRequests;
+
+        private Integer maxRequestsPerHost;
+
+        private Boolean preferHttp2;
+
+        private Duration coalesceWindow;
+
+        private int maxBatchSize;
+
+        private TransportListener listener = TransportListener.NONE;
+
+        private boolean afterburner;
+
+        private Executor completionExecutor;
+
+        private int warmUpConnections = 1;
+
+        private final List<Lane> lanes = new ArrayList<>();
+
+        Builder() {
+        }
+
+        /**
+         * @param url - Address of ZkSync JSON-RPC endpoint
+         */
+        public Builder url(String url) {
+            this.url = url;
+            return this;
+        }
+
+        /**
+         * @param httpClient - External client whose connection pool and dispatcher are reused
+         */
+        public Builder httpClient(OkHttpClient httpClient) {
+            this.httpClient = httpClient;
+            return this;
+        }
+
+        /**
+         * @param callTimeout - Timeout of the whole call including response reading
+         */
+        public Builder callTimeout(Duration callTimeout) {
+            this.callTimeout = callTimeout;
+            return this;
+        }
+
+        /**
+         * @param connectTimeout - Timeout of establishing a new connection
+         */
+        public Builder connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
 
-                    future.complete(resultJson.getResult());
+        /**
+         * Use a dedicated connection pool instead of the shared one
+         *
+         * @param maxIdleConnections - Max amount of idle connections kept in the pool
+         * @param keepAliveDuration - How long an idle connection stays in the pool, null for 5 minutes
+         */
+        public Builder connectionPool(int maxIdleConnections, Duration keepAliveDuration) {
+            this.maxIdleConnections = maxIdleConnections;
+            this.keepAliveDuration = keepAliveDuration;
+            return this;
+        }
+
+        /**
+         * Use a dedicated dispatcher instead of the shared one
+         *
+         * @param maxRequests - Max amount of concurrent async calls
+         * @param maxRequestsPerHost - Max amount of concurrent async calls to one host
+         */
+        public Builder dispatcher(int maxRequests, int maxRequestsPerHost) {
+            this.maxRequests = maxRequests;
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        /**
+         * @param preferHttp2 - Negotiate HTTP/2 when possible, otherwise use HTTP/1.1 only
+         */
+        public Builder preferHttp2(boolean preferHttp2) {
+            this.preferHttp2 = preferHttp2;
+            return this;
+        }
+
+        /**
+         * Coalesce concurrent `sendAsync` calls into JSON-RPC batches
+         *
+         * @param coalesceWindow - How long the first request of a batch waits for others
+         * @param maxBatchSize - Batch is sent immediately once it reaches this size
+         */
+        public Builder coalesce(Duration coalesceWindow, int maxBatchSize) {
+            this.coalesceWindow = coalesceWindow;
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * @param listener - Receives measurements of every HTTP exchange
+         */
+        public Builder listener(TransportListener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * Generate bytecode for JSON (de)serialization instead of using reflection
+         *
+         * Requires `com.fasterxml.jackson.module:jackson-module-afterburner` on the classpath
+         *
+         * @param afterburner - Enable Jackson Afterburner
+         */
+        public Builder afterburner(boolean afterburner) {
+            this.afterburner = afterburner;
+            return this;
+        }
+
+        /**
+         * Parse responses and complete futures of `sendAsync` and `sendBatch` on the given executor
+         *
+         * By default this happens on the OkHttp dispatcher thread, so callbacks attached to the futures
+         * run there too and a callback which blocks holds up network I/O of other requests.
+         *
+         * @param completionExecutor - Executor for response handling
+         */
+        public Builder completionExecutor(Executor completionExecutor) {
+            this.completionExecutor = completionExecutor;
+            return this;
+        }
+
+        /**
+         * @param warmUpConnections - Connections opened in parallel by `warmUp`
+         */
+        public Builder warmUpConnections(int warmUpConnections) {
+            if (warmUpConnections < 1) {
+                throw new IllegalArgumentException("At least one connection must be warmed up");
+            }
+            this.warmUpConnections = warmUpConnections;
+            return this;
+        }
+
+        /**
+         * Send the methods through a lane of their own, with a dedicated dispatcher and connection pool
+         *
+         * Dispatcher and pool of the lane are released by `HttpTransport.close()`.
+         *
+         * Requests of other lanes never queue behind requests of this one, so a lane reserves capacity
+         * for its methods and caps them at the same time. Methods with a lane are not coalesced.
+         *
+         * @param methods - JSON-RPC methods of the lane
+         * @param maxConcurrency - Requests of the lane in flight at once, further requests wait in its queue
+         */
+        public Builder lane(Set<String> methods, int maxConcurrency) {
+            if (maxConcurrency < 1) {
+                throw new IllegalArgumentException("Lane must allow at least one request in flight");
+            }
+            for (Lane lane : lanes) {
+                for (String method : methods) {
+                    if (lane.methods.contains(method)) {
+                        throw new IllegalArgumentException("Method " + method + " is already assigned to a lane");
+                    }
                 }
+            }
+            this.lanes.add(new Lane(new HashSet<>(methods), maxConcurrency));
+            return this;
+        }
+
+        /**
+         * Reserve capacity for submits and cap polling, so that busy receipt pollers can not delay submits
+         *
+         * Submits get a lane of 16 concurrent requests, polling methods share a lane of 8,
+         * all other methods stay in the default lane.
+         */
+        public Builder priorityLanes() {
+            return lane(RpcMethods.SUBMIT, 16).lane(RpcMethods.POLL, 8);
+        }
+
+        public HttpTransport build() {
+            return new HttpTransport(this);
+        }
 
-                @Override
-                public void onFailure(Call _arg0, IOException error) {
-                    future.completeExceptionally(error);
+        private OkHttpClient baseHttpClient() {
+            return httpClient != null ? httpClient : SharedHttpClient.INSTANCE;
+        }
+
+        private OkHttpClient buildHttpClient() {
+            final OkHttpClient base = baseHttpClient();
+            if (callTimeout == null && connectTimeout == null && maxIdleConnections == null
+                    && maxRequests == null && preferHttp2 == null) {
+                return base;
+            }
+
+            // Derived client keeps the pool and dispatcher of the base one unless they are overridden
+            final OkHttpClient.Builder client = base.newBuilder();
+            if (callTimeout != null) {
+                client.callTimeout(callTimeout);
+            }
+            if (connectTimeout != null) {
+                client.connectTimeout(connectTimeout);
+            }
+            if (maxIdleConnections != null) {
+                client.connectionPool(new ConnectionPool(maxIdleConnections, keepAlive().toMillis(), TimeUnit.MILLISECONDS));
+            }
+            if (maxRequests != null) {
+                final Dispatcher dispatcher = new Dispatcher();
+                dispatcher.setMaxRequests(maxRequests);
+                dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+                client.dispatcher(dispatcher);
+            }
+            if (preferHttp2 != null) {
+                client.protocols(preferHttp2 ?
+                        Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1) : Collections.singletonList(Protocol.HTTP_1_1));
+            }
+            return client.build();
+        }
+
+        private Duration keepAlive() {
+            return keepAliveDuration != null ? keepAliveDuration : DEFAULT_KEEP_ALIVE;
+        }
+
+        private Map<String, OkHttpClient> buildLaneClients(OkHttpClient base) {
+            final Map<String, OkHttpClient> clients = new HashMap<>();
+            for (Lane lane : lanes) {
+                final Dispatcher dispatcher = new Dispatcher();
+                dispatcher.setMaxRequests(lane.maxConcurrency);
+                dispatcher.setMaxRequestsPerHost(lane.maxConcurrency);
+                final OkHttpClient client = base.newBuilder()
+                        .dispatcher(dispatcher)
+                        .connectionPool(new ConnectionPool(lane.maxConcurrency, keepAlive().toMillis(), TimeUnit.MILLISECONDS))
+                        .build();
+                for (String method : lane.methods) {
+                    clients.put(method, client);
                 }
-            });
+            }
+            return clients;
+        }
+    }
+
+    private static class Lane {
+
+        private final Set<String> methods;
+
+        private final int maxConcurrency;
 
-            return future;
+        Lane(Set<String> methods, int maxConcurrency) {
+            this.methods = methods;
+            this.maxConcurrency = maxConcurrency;
+        }
+    }
+
+    private static class SharedHttpClient {
+
+        private static final OkHttpClient INSTANCE = new OkHttpClient
+                .Builder()
+                .callTimeout(DEFAULT_TIMEOUT)
+                .connectTimeout(DEFAULT_TIMEOUT)
+                .build();
     }
 }
@@ -0,0 +1,164 @@
+package io.zksync.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.zksync.transport.codec.ZkSyncJsonModule;
+import io.zksync.transport.response.ZksAccountState;
+import io.zksync.transport.response.ZksContractAddress;
+import io.zksync.transport.response.ZksEthOpInfo;
+import io.zksync.transport.response.ZksGetConfirmationsForEthOpAmount;
+import io.zksync.transport.response.ZksSentTransaction;
+import io.zksync.transport.response.ZksSentTransactionBatch;
+import io.zksync.transport.response.ZksToggle2FA;
+import io.zksync.transport.response.ZksTokenPrice;
+import io.zksync.transport.response.ZksTokens;
+import io.zksync.transport.response.ZksTransactionDetails;
+import io.zksync.transport.response.ZksTransactionFeeDetails;
+
+/**
+ * Jackson readers and writers resolved once and shared by all transports
+ *
+ * `ObjectMapper.readValue` looks up the deserializer of the type on every call, a prebuilt
+ * `ObjectReader` keeps it. Readers of the SDK response types are built up front, readers of
+ * other types on first use.
+ */
+final class JsonCodec {
+
+    private static final String AFTERBURNER_MODULE = "com.fasterxml.jackson.module.afterburner.AfterburnerModule";
+
+    private static final List<Class<?>> RESPONSE_TYPES = Arrays.asList(
+            ZksAccountState.class, ZksContractAddress.class, ZksEthOpInfo.class, ZksGetConfirmationsForEthOpAmount.class,
+            ZksSentTransaction.class, ZksSentTransactionBatch.class, ZksToggle2FA.class, ZksTokenPrice.class,
+            ZksTokens.class, ZksTransactionDetails.class, ZksTransactionFeeDetails.class, ZkSyncError.class);
+
+    private static volatile JsonCodec afterburner;
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter requestWriter;
+
+    private final ObjectWriter batchWriter;
+
+    private final ObjectReader treeReader;
+
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    private JsonCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        // Writers stream into connections which they must not close
+        this.requestWriter = objectMapper.writerFor(ZkSyncRequest.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.batchWriter = objectMapper.writerFor(new TypeReference<List<ZkSyncRequest>>() {}).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.treeReader = objectMapper.readerFor(JsonNode.class);
+        for (Class<?> type : RESPONSE_TYPES) {
+            reader(type);
+        }
+    }
+
+    /**
+     * Codec with streaming codecs of the hot path types and reflection based binding of the rest
+     */
+    static JsonCodec standard() {
+        return Standard.INSTANCE;
+    }
+
+    /**
+     * Codec which generates bytecode for (de)serialization with Jackson Afterburner
+     *
+     * @throws IllegalStateException - If `jackson-module-afterburner` is not on the classpath
+     */
+    static JsonCodec afterburner() {
+        if (afterburner == null) {
+            synchronized (JsonCodec.class) {
+                if (afterburner == null) {
+                    afterburner = new JsonCodec(new ObjectMapper()
+                            .registerModule(new ZkSyncJsonModule())
+                            .registerModule(loadAfterburner()));
+                }
+            }
+        }
+        return afterburner;
+    }
+
+    void writeRequest(ZkSyncRequest request, OutputStream output) throws IOException {
+        requestWriter.writeValue(output, request);
+    }
+
+    void writeBatch(List<ZkSyncRequest> requests, OutputStream output) throws IOException {
+        batchWriter.writeValue(output, requests);
+    }
+
+    String writeRequestAsString(ZkSyncRequest request) throws IOException {
+        return requestWriter.writeValueAsString(request);
+    }
+
+    String writeBatchAsString(List<ZkSyncRequest> requests) throws IOException {
+        return batchWriter.writeValueAsString(requests);
+    }
+
+    /**
+     * @return Tree of the value as the SDK writes it, e.g. to record a response
+     */
+    JsonNode valueToTree(Object value) {
+        return objectMapper.valueToTree(value);
+    }
+
+    ObjectNode createObjectNode() {
+        return objectMapper.createObjectNode();
+    }
+
+    String writeValueAsString(Object value) throws IOException {
+        return objectMapper.writeValueAsString(value);
+    }
+
+    JsonParser createParser(InputStream input) throws IOException {
+        return objectMapper.getFactory().createParser(input);
+    }
+
+    JsonNode readTree(JsonParser parser) throws IOException {
+        return treeReader.readValue(parser);
+    }
+
+    JsonNode readTree(String text) throws IOException {
+        return treeReader.readValue(text);
+    }
+
+    <T> T read(JsonParser parser, Class<T> type) throws IOException {
+        return reader(type).readValue(parser);
+    }
+
+    <T> T read(JsonNode tree, Class<T> type) throws IOException {
+        return reader(type).readValue(tree);
+    }
+
+    private ObjectReader reader(Class<?> type) {
+        return readers.computeIfAbsent(type, objectMapper::readerFor);
+    }
+
+    private static Module loadAfterburner() {
+        try {
+            return (Module) Class.forName(AFTERBURNER_MODULE).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new IllegalStateException("Add com.fasterxml.jackson.module:jackson-module-afterburner to the classpath", e);
+        }
+    }
+
+    private static class Standard {
+        private static final JsonCodec INSTANCE = new JsonCodec(new ObjectMapper().registerModule(new ZkSyncJsonModule()));
+    }
+}
@@ -0,0 +1,105 @@
+package io.zksync.transport;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+/**
+ * Request body which serializes the JSON-RPC request straight into the connection
+ *
+ * The JSON never exists as a whole in memory, which matters for large batches of signed
+ * transactions. The length is unknown in advance, so the body is sent with chunked encoding.
+ * OkHttp may write the body again when it retries the call on a new connection.
+ */
+class JsonRequestBody extends RequestBody {
+
+    @FunctionalInterface
+    private interface Content {
+        void writeTo(OutputStream output) throws IOException;
+    }
+
+    private final Content content;
+
+    private volatile long bytesWritten;
+
+    private volatile long writeNanos;
+
+    private JsonRequestBody(Content content) {
+        this.content = content;
+    }
+
+    static JsonRequestBody of(JsonCodec codec, ZkSyncRequest request) {
+        return new JsonRequestBody(output -> codec.writeRequest(request, output));
+    }
+
+    static JsonRequestBody of(JsonCodec codec, List<ZkSyncRequest> requests) {
+        return new JsonRequestBody(output -> codec.writeBatch(requests, output));
+    }
+
+    @Override
+    public MediaType contentType() {
+        return HttpTransport.APPLICATION_JSON;
+    }
+
+    @Override
+    public long contentLength() {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        final long start = System.nanoTime();
+        final CountingOutputStream output = new CountingOutputStream(sink.outputStream());
+        try {
+            content.writeTo(output);
+        } finally {
+            bytesWritten = output.count;
+            writeNanos = System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * @return Size of the body sent last time, 0 if it was not sent yet
+     */
+    long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * @return Time spent serializing and writing the body last time it was sent
+     */
+    long getWriteNanos() {
+        return writeNanos;
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() {
+            // The sink belongs to OkHttp
+        }
+    }
+}
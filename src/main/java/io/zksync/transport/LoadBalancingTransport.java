@@ -0,0 +1,331 @@
+package io.zksync.transport;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.zksync.transport.response.ZksContractAddress;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Transport which spreads requests over several ZkSync endpoints
+ *
+ * Every endpoint keeps an exponentially weighted average of its latency and error rate.
+ * Each call goes to the healthy endpoint with the lowest expected latency, taking the calls
+ * already in flight into account. Endpoints which fail too often or fail the periodic
+ * `contract_address` probe are ejected until the probe succeeds again.
+ */
+public class LoadBalancingTransport implements ZkSyncTransport, Closeable {
+
+    private static final Duration DEFAULT_PROBE_INTERVAL = Duration.ofSeconds(10);
+
+    private static final double DEFAULT_DECAY = 0.2;
+
+    private static final double DEFAULT_MAX_ERROR_RATE = 0.5;
+
+    private static final double ERROR_PENALTY = 10.0;
+
+    private final List<Endpoint> endpoints;
+
+    private final double decay;
+
+    private final double maxErrorRate;
+
+    private final ScheduledFuture<?> probe;
+
+    public LoadBalancingTransport(List<? extends ZkSyncTransport> transports) {
+        this(transports, DEFAULT_PROBE_INTERVAL, DEFAULT_DECAY, DEFAULT_MAX_ERROR_RATE);
+    }
+
+    /**
+     * @param transports - Transports of every endpoint
+     * @param probeInterval - Interval between health probes of every endpoint
+     * @param decay - Weight of the latest sample in latency and error rate averages, between 0 and 1
+     * @param maxErrorRate - Endpoint is ejected once its average error rate exceeds this value
+     */
+    public LoadBalancingTransport(List<? extends ZkSyncTransport> transports, Duration probeInterval, double decay, double maxErrorRate) {
+        if (transports.isEmpty()) {
+            throw new IllegalArgumentException("At least one endpoint is required");
+        }
+        if (decay <= 0 || decay > 1) {
+            throw new IllegalArgumentException("Decay must be in (0, 1]");
+        }
+        final List<Endpoint> endpoints = new ArrayList<>(transports.size());
+        for (ZkSyncTransport transport : transports) {
+            endpoints.add(new Endpoint(transport));
+        }
+        this.endpoints = Collections.unmodifiableList(endpoints);
+        this.decay = decay;
+        this.maxErrorRate = maxErrorRate;
+        this.probe = TransportScheduler.INSTANCE.scheduleWithFixedDelay(this::probe,
+                probeInterval.toMillis(), probeInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public <R, T extends ZkSyncResponse<R>> R send(String method, List<Object> params, Class<T> returntype) {
+        final Endpoint endpoint = select();
+        final long start = endpoint.begin();
+        try {
+            final R result = endpoint.transport.send(method, params, returntype);
+            endpoint.end(start, null);
+            return result;
+        } catch (RuntimeException e) {
+            endpoint.end(start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public <R, T extends ZkSyncResponse<R>> CompletableFuture<R> sendAsync(String method, List<Object> params, Class<T> returntype) {
+        final Endpoint endpoint = select();
+        final long start = endpoint.begin();
+        final CompletableFuture<R> result;
+        try {
+            result = endpoint.transport.sendAsync(method, params, returntype);
+        } catch (RuntimeException e) {
+            endpoint.end(start, e);
+            throw e;
+        }
+        result.whenComplete((response, error) -> endpoint.end(start, error));
+        return forward(result);
+    }
+
+    @Override
+    public <R, T extends ZkSyncResponse<R>> List<CompletableFuture<R>> sendBatch(List<ZkSyncRequest> requests, Class<T> returntype) {
+        final Endpoint endpoint = select();
+        final long start = endpoint.begin();
+        final List<CompletableFuture<R>> results = endpoint.transport.sendBatch(requests, returntype);
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0]))
+                .whenComplete((response, error) -> endpoint.end(start, error));
+        final List<CompletableFuture<R>> forwarded = new ArrayList<>(results.size());
+        for (CompletableFuture<R> result : results) {
+            forwarded.add(forward(result));
+        }
+        return forwarded;
+    }
+
+    /**
+     * Cancelling the returned future cancels the endpoint call, so that it stops counting as in flight
+     *
+     * @param call - Call made to an endpoint
+     * @return Future which completes with the call
+     */
+    private static <R> CompletableFuture<R> forward(CompletableFuture<R> call) {
+        final CompletableFuture<R> result = new CompletableFuture<>();
+        call.whenComplete((response, error) -> {
+            if (error == null) {
+                result.complete(response);
+            } else {
+                result.completeExceptionally(TransportErrors.unwrap(error));
+            }
+        });
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                call.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Warm up every endpoint in parallel, endpoints which fail the warm-up are ejected
+     *
+     * @return Combined report of the endpoints which were warmed up, fails if none of them was
+     */
+    @Override
+    public CompletableFuture<WarmUpReport> warmUp() {
+        final List<CompletableFuture<WarmUpReport>> reports = new ArrayList<>(endpoints.size());
+        for (Endpoint endpoint : endpoints) {
+            reports.add(endpoint.transport.warmUp().whenComplete((report, error) -> {
+                if (error != null) {
+                    endpoint.healthy = false;
+                }
+            }));
+        }
+        return CompletableFuture
+                .allOf(reports.toArray(new CompletableFuture<?>[0]))
+                .handle((done, error) -> {
+                    final List<WarmUpReport> succeeded = new ArrayList<>(reports.size());
+                    for (CompletableFuture<WarmUpReport> report : reports) {
+                        if (!report.isCompletedExceptionally()) {
+                            succeeded.add(report.join());
+                        }
+                    }
+                    if (succeeded.isEmpty()) {
+                        throw new CompletionException(TransportErrors.unwrap(error));
+                    }
+                    return WarmUpReport.merge(succeeded);
+                });
+    }
+
+    @Override
+    public void close() {
+        probe.cancel(false);
+    }
+
+    /**
+     * Get snapshot of the state of every endpoint in the order they were given
+     *
+     * @return Endpoint statistics
+     */
+    public List<EndpointStats> getStats() {
+        final List<EndpointStats> stats = new ArrayList<>(endpoints.size());
+        for (Endpoint endpoint : endpoints) {
+            stats.add(endpoint.stats());
+        }
+        return stats;
+    }
+
+    private Endpoint select() {
+        final double prior = meanLatencyNanos();
+        Endpoint best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (Endpoint endpoint : endpoints) {
+            if (!endpoint.healthy) {
+                continue;
+            }
+            final double score = endpoint.score(prior);
+            if (score < bestScore) {
+                best = endpoint;
+                bestScore = score;
+            }
+        }
+        if (best != null) {
+            return best;
+        }
+
+        // Every endpoint is ejected, so try the one with the best score anyway
+        for (Endpoint endpoint : endpoints) {
+            final double score = endpoint.score(prior);
+            if (score < bestScore) {
+                best = endpoint;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return Mean latency of the measured endpoints, 1 if none is measured yet so that in-flight counts decide
+     */
+    private double meanLatencyNanos() {
+        double sum = 0;
+        int measured = 0;
+        for (Endpoint endpoint : endpoints) {
+            final double latency = endpoint.latencyNanos();
+            if (latency > 0) {
+                sum += latency;
+                measured++;
+            }
+        }
+        return measured == 0 ? 1 : sum / measured;
+    }
+
+    private void probe() {
+        for (Endpoint endpoint : endpoints) {
+            final CompletableFuture<?> check;
+            try {
+                check = endpoint.transport.sendAsync("contract_address", Collections.emptyList(), ZksContractAddress.class);
+            } catch (RuntimeException e) {
+                endpoint.healthy = false;
+                continue;
+            }
+            check.whenComplete((response, error) -> {
+                if (error == null) {
+                    endpoint.reinstate();
+                } else {
+                    endpoint.healthy = false;
+                }
+            });
+        }
+    }
+
+    /**
+     * State of one endpoint
+     */
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PACKAGE)
+    public static class EndpointStats {
+
+        private final ZkSyncTransport transport;
+
+        private final boolean healthy;
+
+        private final Duration latency;
+
+        private final double errorRate;
+
+        private final int inFlight;
+    }
+
+    private class Endpoint {
+
+        private final ZkSyncTransport transport;
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private double latencyNanos;
+
+        private double errorRate;
+
+        private volatile boolean healthy = true;
+
+        Endpoint(ZkSyncTransport transport) {
+            this.transport = transport;
+        }
+
+        long begin() {
+            inFlight.incrementAndGet();
+            return System.nanoTime();
+        }
+
+        void end(long start, Throwable error) {
+            inFlight.decrementAndGet();
+            if (TransportErrors.unwrap(error) instanceof CancellationException) {
+                // Abandoned by the caller, says nothing about the endpoint
+                return;
+            }
+            final long elapsed = System.nanoTime() - start;
+            final boolean failed = TransportErrors.isEndpointFailure(error);
+            synchronized (this) {
+                latencyNanos = latencyNanos == 0 ? elapsed : latencyNanos + decay * (elapsed - latencyNanos);
+                errorRate = errorRate + decay * ((failed ? 1.0 : 0.0) - errorRate);
+                if (errorRate > maxErrorRate) {
+                    healthy = false;
+                }
+            }
+        }
+
+        synchronized void reinstate() {
+            errorRate = 0;
+            healthy = true;
+        }
+
+        synchronized double latencyNanos() {
+            return latencyNanos;
+        }
+
+        /**
+         * @param prior - Latency assumed while the endpoint has no samples yet
+         */
+        synchronized double score(double prior) {
+            // Unmeasured endpoints rank as average ones, so they get traffic without taking all of it
+            final double latency = latencyNanos == 0 ? prior : latencyNanos;
+            return latency * (inFlight.get() + 1) * (1 + ERROR_PENALTY * errorRate);
+        }
+
+        synchronized EndpointStats stats() {
+            return new EndpointStats(transport, healthy, Duration.ofNanos((long) latencyNanos), errorRate, inFlight.get());
+        }
+    }
+}
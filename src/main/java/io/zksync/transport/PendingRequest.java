@@ -0,0 +1,34 @@
+package io.zksync.transport;
+
+import java.util.concurrent.CompletableFuture;
+
+import io.zksync.exception.ZkSyncException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+class PendingRequest<R> {
+
+    private final ZkSyncRequest request;
+
+    private final Class<? extends ZkSyncResponse<R>> returntype;
+
+    private final CompletableFuture<R> future;
+
+    long getId() {
+        return request.getId();
+    }
+
+    void complete(ZkSyncResponse<R> response) {
+        if (response.getError() != null) {
+            future.completeExceptionally(new ZkSyncException(response.getError()));
+        } else {
+            future.complete(response.getResult());
+        }
+    }
+
+    void fail(Throwable error) {
+        future.completeExceptionally(error);
+    }
+}
@@ -0,0 +1,450 @@
+package io.zksync.transport;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import io.zksync.exception.ZkSyncException;
+import io.zksync.exception.ZkSyncRateLimitException;
+
+/**
+ * Transport decorator which limits the rate of requests per JSON-RPC method and in total
+ *
+ * Requests over the budget wait in a bounded queue of their method, so a flood of one method
+ * neither fills the queue of another nor delays it beyond its own limits. Queued write methods
+ * get the shared budget first, the other methods take turns. Requests which can not be queued
+ * or wait too long fail with `ZkSyncRateLimitException`. When the server reports throttling, all rates
+ * are cut in half and then recover gradually with every successful response.
+ */
+public class RateLimitingTransport implements ZkSyncTransport {
+
+    public static final Set<Integer> DEFAULT_THROTTLING_CODES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            HttpTransport.HTTP_TOO_MANY_REQUESTS)));
+
+    private static final double MIN_FACTOR = 0.05;
+
+    private static final double RECOVERY_STEP = 0.01;
+
+    private static final long MIN_DRAIN_DELAY = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final ZkSyncTransport transport;
+
+    private final Map<String, TokenBucket> methodBuckets;
+
+    private final TokenBucket globalBucket;
+
+    private final Map<String, ArrayDeque<Waiter>> queues = new LinkedHashMap<>();
+
+    private final int maxQueueSize;
+
+    private final long maxQueueNanos;
+
+    private final Set<Integer> throttlingCodes;
+
+    private double factor = 1.0;
+
+    private int queued;
+
+    private int writesQueued;
+
+    private int rotation;
+
+    private boolean drainScheduled;
+
+    private RateLimitingTransport(Builder builder) {
+        this.transport = builder.transport;
+        this.methodBuckets = new HashMap<>(builder.methodBuckets);
+        this.globalBucket = builder.globalBucket;
+        this.maxQueueSize = builder.maxQueueSize;
+        this.maxQueueNanos = builder.maxQueueTime.toNanos();
+        this.throttlingCodes = new HashSet<>(builder.throttlingCodes);
+    }
+
+    public static Builder builder(ZkSyncTransport transport) {
+        return new Builder(transport);
+    }
+
+    /**
+     * Get current share of the configured rates, reduced after the server throttled requests
+     *
+     * @return Value between 0 and 1
+     */
+    public synchronized double getRateFactor() {
+        return factor;
+    }
+
+    @Override
+    public <R, T extends ZkSyncResponse<R>> R send(String method, List<Object> params, Class<T> returntype) {
+        try {
+            acquire(method, 1).join();
+        } catch (CompletionException e) {
+            throw (ZkSyncException) TransportErrors.unwrap(e);
+        }
+        try {
+            final R result = transport.send(method, params, returntype);
+            onResponse(null);
+            return result;
+        } catch (RuntimeException e) {
+            onResponse(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Cancelling the returned future gives up the place of the request in the queue,
+     * or the permit if it was granted but the request was not sent yet
+     */
+    @Override
+    public <R, T extends ZkSyncResponse<R>> CompletableFuture<R> sendAsync(String method, List<Object> params, Class<T> returntype) {
+        final CompletableFuture<R> result = new CompletableFuture<>();
+        final CompletableFuture<Void> permit = acquire(method, 1);
+        permit.whenComplete((granted, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+                return;
+            }
+            if (result.isDone()) {
+                refund(method, 1);
+                return;
+            }
+            CompletableFuture<R> response;
+            try {
+                response = transport.sendAsync(method, params, returntype);
+            } catch (RuntimeException e) {
+                response = new CompletableFuture<>();
+                response.completeExceptionally(e);
+            }
+            response.whenComplete((value, failure) -> {
+                onResponse(failure);
+                if (failure != null) {
+                    result.completeExceptionally(failure);
+                } else {
+                    result.complete(value);
+                }
+            });
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                withdraw(method, permit);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Requests of one method are sent as a batch of their own once the budget allows all of them,
+     * they wait in a single place of the queue of the method
+     */
+    @Override
+    public <R, T extends ZkSyncResponse<R>> List<CompletableFuture<R>> sendBatch(List<ZkSyncRequest> requests, Class<T> returntype) {
+        final Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        final List<CompletableFuture<R>> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            groups.computeIfAbsent(requests.get(i).getMethod(), method -> new ArrayList<>()).add(i);
+            results.add(new CompletableFuture<>());
+        }
+        groups.forEach((method, indices) -> {
+            final List<ZkSyncRequest> group = new ArrayList<>(indices.size());
+            for (int index : indices) {
+                group.add(requests.get(index));
+            }
+            acquire(method, group.size()).whenComplete((granted, error) -> {
+                if (error != null) {
+                    indices.forEach(index -> results.get(index).completeExceptionally(error));
+                    return;
+                }
+                List<CompletableFuture<R>> responses;
+                try {
+                    responses = transport.sendBatch(group, returntype);
+                } catch (RuntimeException e) {
+                    indices.forEach(index -> results.get(index).completeExceptionally(e));
+                    onResponse(e);
+                    return;
+                }
+                for (int i = 0; i < indices.size(); i++) {
+                    final CompletableFuture<R> result = results.get(indices.get(i));
+                    responses.get(i).whenComplete((value, failure) -> {
+                        onResponse(failure);
+                        if (failure != null) {
+                            result.completeExceptionally(failure);
+                        } else {
+                            result.complete(value);
+                        }
+                    });
+                }
+            });
+        });
+        return results;
+    }
+
+    @Override
+    public CompletableFuture<WarmUpReport> warmUp() {
+        return transport.warmUp();
+    }
+
+    /**
+     * @param permits - Requests the permit covers, a batch of one method is admitted as a whole
+     */
+    private CompletableFuture<Void> acquire(String method, int permits) {
+        final CompletableFuture<Void> permit = new CompletableFuture<>();
+        synchronized (this) {
+            final ArrayDeque<Waiter> queue = queues.computeIfAbsent(method, key -> new ArrayDeque<>());
+            final boolean write = RpcMethods.WRITE.contains(method);
+            // Other methods must not take the shared budget from writes which already wait for it
+            if (queue.isEmpty() && (write || writesQueued == 0) && tryTake(method, permits, System.nanoTime())) {
+                permit.complete(null);
+                return permit;
+            }
+            if (queue.size() >= maxQueueSize) {
+                permit.completeExceptionally(new ZkSyncRateLimitException(
+                        "Rate limit of " + method + " is exceeded and the queue is full"));
+                return permit;
+            }
+            queue.add(new Waiter(permit, permits, System.nanoTime() + maxQueueNanos));
+            queued++;
+            if (write) {
+                writesQueued++;
+            }
+            scheduleDrain(MIN_DRAIN_DELAY);
+        }
+        return permit;
+    }
+
+    /**
+     * Remove the request from its queue if it still waits there
+     */
+    private void withdraw(String method, CompletableFuture<Void> permit) {
+        synchronized (this) {
+            final ArrayDeque<Waiter> queue = queues.get(method);
+            if (queue == null || !queue.removeIf(waiter -> waiter.permit == permit)) {
+                return;
+            }
+            dequeued(method);
+        }
+        permit.cancel(false);
+    }
+
+    /**
+     * Return a permit which was granted to a request that was cancelled before it was sent
+     */
+    private synchronized void refund(String method, int permits) {
+        final TokenBucket methodBucket = methodBuckets.get(method);
+        if (methodBucket != null) {
+            methodBucket.giveBack(permits);
+        }
+        if (globalBucket != null) {
+            globalBucket.giveBack(permits);
+        }
+        if (queued > 0) {
+            scheduleDrain(MIN_DRAIN_DELAY);
+        }
+    }
+
+    private boolean tryTake(String method, int permits, long now) {
+        final TokenBucket methodBucket = methodBuckets.get(method);
+        if (methodBucket != null) {
+            methodBucket.refill(now, factor);
+            if (!methodBucket.isAvailable()) {
+                return false;
+            }
+        }
+        if (globalBucket != null) {
+            globalBucket.refill(now, factor);
+            if (!globalBucket.isAvailable()) {
+                return false;
+            }
+            globalBucket.take(permits);
+        }
+        if (methodBucket != null) {
+            methodBucket.take(permits);
+        }
+        return true;
+    }
+
+    private void drain() {
+        final List<CompletableFuture<Void>> granted = new ArrayList<>();
+        final List<Waiter> expired = new ArrayList<>();
+        synchronized (this) {
+            drainScheduled = false;
+            final long now = System.nanoTime();
+            for (Map.Entry<String, ArrayDeque<Waiter>> entry : queues.entrySet()) {
+                for (Iterator<Waiter> it = entry.getValue().iterator(); it.hasNext(); ) {
+                    final Waiter waiter = it.next();
+                    if (waiter.deadline - now <= 0 || waiter.permit.isDone()) {
+                        it.remove();
+                        dequeued(entry.getKey());
+                        expired.add(waiter);
+                    }
+                }
+            }
+
+            // One request per method and pass, so that no method drains the shared budget on its own
+            final List<String> order = drainOrder();
+            boolean progress = true;
+            while (progress) {
+                progress = false;
+                for (String method : order) {
+                    final ArrayDeque<Waiter> queue = queues.get(method);
+                    if (!queue.isEmpty() && tryTake(method, queue.peek().permits, now)) {
+                        granted.add(queue.poll().permit);
+                        dequeued(method);
+                        progress = true;
+                    }
+                }
+            }
+
+            long nextDelay = Long.MAX_VALUE;
+            for (String method : order) {
+                if (!queues.get(method).isEmpty()) {
+                    nextDelay = Math.min(nextDelay, nanosUntilAvailable(method));
+                }
+            }
+            if (queued > 0) {
+                scheduleDrain(Math.max(MIN_DRAIN_DELAY, nextDelay));
+            }
+        }
+        for (Waiter waiter : expired) {
+            waiter.permit.completeExceptionally(new ZkSyncRateLimitException("Request waited too long for rate limit"));
+        }
+        for (CompletableFuture<Void> permit : granted) {
+            permit.complete(null);
+        }
+    }
+
+    /**
+     * @return Methods with waiting requests, writes first and the others rotated on every drain
+     */
+    private List<String> drainOrder() {
+        final List<String> writes = new ArrayList<>();
+        final List<String> others = new ArrayList<>();
+        for (Map.Entry<String, ArrayDeque<Waiter>> entry : queues.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                (RpcMethods.WRITE.contains(entry.getKey()) ? writes : others).add(entry.getKey());
+            }
+        }
+        if (!others.isEmpty()) {
+            Collections.rotate(others, -(rotation++ % others.size()));
+        }
+        writes.addAll(others);
+        return writes;
+    }
+
+    private void dequeued(String method) {
+        queued--;
+        if (RpcMethods.WRITE.contains(method)) {
+            writesQueued--;
+        }
+    }
+
+    private long nanosUntilAvailable(String method) {
+        final TokenBucket methodBucket = methodBuckets.get(method);
+        long delay = methodBucket != null ? methodBucket.nanosUntilAvailable(factor) : 0;
+        if (globalBucket != null) {
+            delay = Math.max(delay, globalBucket.nanosUntilAvailable(factor));
+        }
+        return delay;
+    }
+
+    private void scheduleDrain(long delayNanos) {
+        if (!drainScheduled) {
+            drainScheduled = true;
+            TransportScheduler.INSTANCE.schedule(this::drain, delayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private synchronized void onResponse(Throwable error) {
+        final ZkSyncError serverError = error != null ? TransportErrors.serverError(error) : null;
+        if (serverError != null && serverError.getCode() != null && throttlingCodes.contains(serverError.getCode())) {
+            factor = Math.max(MIN_FACTOR, factor / 2);
+        } else if (error == null) {
+            factor = Math.min(1.0, factor + RECOVERY_STEP);
+        }
+    }
+
+    private static class Waiter {
+
+        private final CompletableFuture<Void> permit;
+
+        private final int permits;
+
+        private final long deadline;
+
+        Waiter(CompletableFuture<Void> permit, int permits, long deadline) {
+            this.permit = permit;
+            this.permits = permits;
+            this.deadline = deadline;
+        }
+    }
+
+    public static class Builder {
+
+        private final ZkSyncTransport transport;
+
+        private final Map<String, TokenBucket> methodBuckets = new HashMap<>();
+
+        private TokenBucket globalBucket;
+
+        private int maxQueueSize = 1000;
+
+        private Duration maxQueueTime = Duration.ofSeconds(5);
+
+        private Set<Integer> throttlingCodes = DEFAULT_THROTTLING_CODES;
+
+        Builder(ZkSyncTransport transport) {
+            this.transport = transport;
+        }
+
+        /**
+         * @param method - JSON-RPC method name
+         * @param permitsPerSecond - Sustained rate of the method
+         * @param burst - Requests which may be sent at once after a quiet period
+         */
+        public Builder limit(String method, double permitsPerSecond, int burst) {
+            this.methodBuckets.put(method, new TokenBucket(permitsPerSecond, burst));
+            return this;
+        }
+
+        /**
+         * @param permitsPerSecond - Sustained rate of all methods together
+         * @param burst - Requests which may be sent at once after a quiet period
+         */
+        public Builder globalLimit(double permitsPerSecond, int burst) {
+            this.globalBucket = new TokenBucket(permitsPerSecond, burst);
+            return this;
+        }
+
+        /**
+         * @param maxQueueSize - Requests of one method waiting for the budget, further requests of the method are rejected; 0 disables queueing
+         * @param maxQueueTime - Longest time a request may wait for the budget
+         */
+        public Builder queue(int maxQueueSize, Duration maxQueueTime) {
+            this.maxQueueSize = maxQueueSize;
+            this.maxQueueTime = maxQueueTime;
+            return this;
+        }
+
+        /**
+         * @param throttlingCodes - Error codes by which the server reports that the client is throttled
+         */
+        public Builder throttlingCodes(Set<Integer> throttlingCodes) {
+            this.throttlingCodes = throttlingCodes;
+            return this;
+        }
+
+        public RateLimitingTransport build() {
+            return new RateLimitingTransport(this);
+        }
+    }
+}
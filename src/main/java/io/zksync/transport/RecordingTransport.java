@@ -0,0 +1,139 @@
+package io.zksync.transport;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Transport decorator which records every request and its response to a file
+ *
+ * Each exchange is written as one JSON line with the method, params, result or error
+ * and the observed latency. Files with the `.gz` extension are compressed.
+ * The recording is read back by {@link ReplayTransport}.
+ */
+public class RecordingTransport implements ZkSyncTransport, Closeable {
+
+    static final String METHOD = "method";
+    static final String PARAMS = "params";
+    static final String RESULT = "result";
+    static final String ERROR = "error";
+    static final String LATENCY = "latencyMicros";
+
+    private final ZkSyncTransport transport;
+
+    private final JsonCodec codec = JsonCodec.standard();
+
+    private final Writer writer;
+
+    private IOException writeError;
+
+    /**
+     * @param transport - Transport which performs the requests
+     * @param file - Recording file, overwritten if it exists
+     */
+    public RecordingTransport(ZkSyncTransport transport, Path file) throws IOException {
+        OutputStream output = Files.newOutputStream(file);
+        if (file.toString().endsWith(".gz")) {
+            output = new GZIPOutputStream(output);
+        }
+        this.transport = transport;
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public <R, T extends ZkSyncResponse<R>> R send(String method, List<Object> params, Class<T> returntype) {
+        final long start = System.nanoTime();
+        try {
+            final R result = transport.send(method, params, returntype);
+            record(method, params, result, null, start);
+            return result;
+        } catch (RuntimeException e) {
+            record(method, params, null, e, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public <R, T extends ZkSyncResponse<R>> CompletableFuture<R> sendAsync(String method, List<Object> params, Class<T> returntype) {
+        final long start = System.nanoTime();
+        return transport.<R, T>sendAsync(method, params, returntype)
+                .whenComplete((result, error) -> record(method, params, result, error, start));
+    }
+
+    @Override
+    public <R, T extends ZkSyncResponse<R>> List<CompletableFuture<R>> sendBatch(List<ZkSyncRequest> requests, Class<T> returntype) {
+        final long start = System.nanoTime();
+        final List<CompletableFuture<R>> responses = transport.sendBatch(requests, returntype);
+        final List<CompletableFuture<R>> results = new ArrayList<>(responses.size());
+        for (int i = 0; i < requests.size(); i++) {
+            final ZkSyncRequest request = requests.get(i);
+            results.add(responses.get(i)
+                    .whenComplete((result, error) -> record(request.getMethod(), request.getParams(), result, error, start)));
+        }
+        return results;
+    }
+
+    @Override
+    public CompletableFuture<WarmUpReport> warmUp() {
+        return transport.warmUp();
+    }
+
+    /**
+     * Flush recorded exchanges to the file and close it
+     *
+     * @throws IOException - If the file could not be written, including failures while recording
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+        if (writeError != null) {
+            throw writeError;
+        }
+    }
+
+    private void record(String method, List<Object> params, Object result, Throwable error, long start) {
+        final long latency = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        final ZkSyncError serverError = error != null ? TransportErrors.serverError(error) : null;
+        if (error != null && serverError == null) {
+            // Failures of the connection say nothing about the server and can not be replayed
+            return;
+        }
+
+        // Values are written by the codec of the SDK, so the recording matches what goes over the wire
+        final ObjectNode entry = codec.createObjectNode();
+        entry.put(METHOD, method);
+        entry.set(PARAMS, codec.valueToTree(params));
+        if (serverError != null) {
+            entry.set(ERROR, codec.valueToTree(serverError));
+        } else {
+            entry.set(RESULT, codec.valueToTree(result));
+        }
+        entry.put(LATENCY, latency);
+
+        synchronized (this) {
+            if (writeError != null) {
+                return;
+            }
+            try {
+                writer.write(codec.writeValueAsString(entry));
+                writer.write('\n');
+            } catch (IOException e) {
+                // Recording must not break the session, the error is reported on close
+                writeError = e;
+            }
+        }
+    }
+}
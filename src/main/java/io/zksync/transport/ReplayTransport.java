@@ -0,0 +1,222 @@
+package io.zksync.transport;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.zksync.exception.ZkSyncException;
+
+/**
+ * Transport which answers requests from a file written by {@link RecordingTransport} without any network
+ *
+ * A request is answered by the recorded exchange with the same method and params. Signed transactions
+ * never repeat exactly, so requests without an exact match get the recorded responses of their method
+ * in turn. Repeated requests cycle through their recorded responses in the original order.
+ * Responses are delayed by the recorded latency multiplied by the latency scale.
+ */
+public class ReplayTransport implements ZkSyncTransport {
+
+    private final JsonCodec codec = JsonCodec.standard();
+
+    private final Map<String, Recording> exact = new HashMap<>();
+
+    private final Map<String, Recording> byMethod = new HashMap<>();
+
+    private final double latencyScale;
+
+    private final Executor completionExecutor;
+
+    public ReplayTransport(Path file) throws IOException {
+        this(file, 1.0);
+    }
+
+    /**
+     * @param file - Recording file, compressed if it has the `.gz` extension
+     * @param latencyScale - Multiplier of the recorded latencies, 0 answers immediately
+     */
+    public ReplayTransport(Path file, double latencyScale) throws IOException {
+        this(file, latencyScale, null);
+    }
+
+    /**
+     * @param file - Recording file, compressed if it has the `.gz` extension
+     * @param latencyScale - Multiplier of the recorded latencies, 0 answers immediately
+     * @param completionExecutor - Executor which completes delayed responses, by default the shared
+     *     transport scheduler does, so callbacks attached to the futures must not block
+     */
+    public ReplayTransport(Path file, double latencyScale, Executor completionExecutor) throws IOException {
+        if (latencyScale < 0) {
+            throw new IllegalArgumentException("Latency scale must not be negative");
+        }
+        this.latencyScale = latencyScale;
+        this.completionExecutor = completionExecutor;
+
+        InputStream input = Files.newInputStream(file);
+        if (file.toString().endsWith(".gz")) {
+            input = new GZIPInputStream(input);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                final JsonNode entry = codec.readTree(line);
+                final String method = entry.get(RecordingTransport.METHOD).asText();
+                final Exchange exchange = new Exchange(entry);
+                exact.computeIfAbsent(key(method, entry.get(RecordingTransport.PARAMS)), k -> new Recording()).add(exchange);
+                byMethod.computeIfAbsent(method, k -> new Recording()).add(exchange);
+            }
+        }
+    }
+
+    @Override
+    public <R, T extends ZkSyncResponse<R>> R send(String method, List<Object> params, Class<T> returntype) {
+        final Exchange exchange = lookup(method, params);
+        final long delay = delayNanos(exchange);
+        if (delay > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ZkSyncException(e);
+            }
+        }
+        final ZkSyncResponse<R> response = decode(exchange, returntype);
+        if (response.getError() != null) {
+            throw new ZkSyncException(response.getError());
+        }
+        return response.getResult();
+    }
+
+    @Override
+    public <R, T extends ZkSyncResponse<R>> CompletableFuture<R> sendAsync(String method, List<Object> params, Class<T> returntype) {
+        final CompletableFuture<R> result = new CompletableFuture<>();
+        final Exchange exchange;
+        try {
+            exchange = lookup(method, params);
+        } catch (ZkSyncException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+        final Runnable complete = () -> {
+            try {
+                final ZkSyncResponse<R> response = decode(exchange, returntype);
+                if (response.getError() != null) {
+                    result.completeExceptionally(new ZkSyncException(response.getError()));
+                } else {
+                    result.complete(response.getResult());
+                }
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        };
+
+        final long delay = delayNanos(exchange);
+        if (delay > 0) {
+            TransportScheduler.INSTANCE.schedule(() -> complete(complete), delay, TimeUnit.NANOSECONDS);
+        } else {
+            complete.run();
+        }
+        return result;
+    }
+
+    private void complete(Runnable completion) {
+        if (completionExecutor == null) {
+            completion.run();
+            return;
+        }
+        try {
+            completionExecutor.execute(completion);
+        } catch (RejectedExecutionException e) {
+            // Executor is shut down or saturated, completing here is better than never
+            completion.run();
+        }
+    }
+
+    private Exchange lookup(String method, List<Object> params) {
+        Recording recording;
+        try {
+            recording = exact.get(key(method, codec.valueToTree(params)));
+        } catch (IllegalArgumentException e) {
+            recording = null;
+        }
+        if (recording == null) {
+            recording = byMethod.get(method);
+        }
+        if (recording == null) {
+            throw new ZkSyncException("No recorded response for method " + method);
+        }
+        return recording.next();
+    }
+
+    private <R, T extends ZkSyncResponse<R>> ZkSyncResponse<R> decode(Exchange exchange, Class<T> returntype) {
+        final ObjectNode response = codec.createObjectNode();
+        response.put("jsonrpc", "2.0");
+        response.set(RecordingTransport.RESULT, exchange.result);
+        response.set(RecordingTransport.ERROR, exchange.error);
+        try {
+            return codec.read(response, returntype);
+        } catch (IOException e) {
+            throw new ZkSyncException("Recorded response does not match " + returntype.getSimpleName(), e);
+        }
+    }
+
+    private long delayNanos(Exchange exchange) {
+        return (long) (TimeUnit.MICROSECONDS.toNanos(exchange.latencyMicros) * latencyScale);
+    }
+
+    private static String key(String method, JsonNode params) {
+        return method + '\n' + params;
+    }
+
+    private static class Exchange {
+
+        private final JsonNode result;
+
+        private final JsonNode error;
+
+        private final long latencyMicros;
+
+        Exchange(JsonNode entry) {
+            this.result = entry.get(RecordingTransport.RESULT);
+            this.error = entry.get(RecordingTransport.ERROR);
+            this.latencyMicros = entry.path(RecordingTransport.LATENCY).asLong();
+        }
+    }
+
+    /**
+     * Recorded exchanges of one request, handed out in turn
+     */
+    private static class Recording {
+
+        private final List<Exchange> exchanges = new ArrayList<>();
+
+        private final AtomicInteger next = new AtomicInteger();
+
+        void add(Exchange exchange) {
+            exchanges.add(exchange);
+        }
+
+        Exchange next() {
+            return exchanges.get(Math.floorMod(next.getAndIncrement(), exchanges.size()));
+        }
+    }
+}
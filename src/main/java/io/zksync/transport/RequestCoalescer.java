@@ -0,0 +1,73 @@
+package io.zksync.transport;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Collects concurrent requests and hands them to the dispatcher as one batch
+ * once the window elapses or the batch is full
+ */
+class RequestCoalescer {
+
+    private final Duration window;
+
+    private final int maxBatchSize;
+
+    private final Consumer<List<PendingRequest<?>>> dispatcher;
+
+    private List<PendingRequest<?>> pending = new ArrayList<>();
+
+    private ScheduledFuture<?> scheduledFlush;
+
+    RequestCoalescer(Duration window, int maxBatchSize, Consumer<List<PendingRequest<?>>> dispatcher) {
+        if (window.isNegative()) {
+            throw new IllegalArgumentException("Coalescing window must not be negative");
+        }
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Max batch size must be positive");
+        }
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.dispatcher = dispatcher;
+    }
+
+    void submit(PendingRequest<?> request) {
+        List<PendingRequest<?>> ready = Collections.emptyList();
+        synchronized (this) {
+            pending.add(request);
+            if (pending.size() >= maxBatchSize) {
+                ready = drain();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = TransportScheduler.INSTANCE.schedule(this::flush, window.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+        if (!ready.isEmpty()) {
+            dispatcher.accept(ready);
+        }
+    }
+
+    void flush() {
+        final List<PendingRequest<?>> ready;
+        synchronized (this) {
+            ready = drain();
+        }
+        if (!ready.isEmpty()) {
+            dispatcher.accept(ready);
+        }
+    }
+
+    private List<PendingRequest<?>> drain() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        final List<PendingRequest<?>> ready = pending;
+        pending = new ArrayList<>();
+        return ready;
+    }
+}
@@ -0,0 +1,104 @@
+package io.zksync.transport;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Collects timings of one HTTP exchange and reports them to the listener
+ */
+class RequestRecorder {
+
+    private final TransportListener listener;
+
+    private final String method;
+
+    private final int batchSize;
+
+    private final long start = System.nanoTime();
+
+    private JsonRequestBody body;
+
+    private long received;
+
+    private CountingInputStream responseStream;
+
+    RequestRecorder(TransportListener listener, String method, int batchSize) {
+        this.listener = listener;
+        this.method = method;
+        this.batchSize = batchSize;
+    }
+
+    void body(JsonRequestBody body) {
+        this.body = body;
+    }
+
+    void received() {
+        this.received = System.nanoTime();
+    }
+
+    InputStream count(InputStream stream) {
+        responseStream = new CountingInputStream(stream);
+        return responseStream;
+    }
+
+    void finish(Throwable error) {
+        if (listener == TransportListener.NONE) {
+            return;
+        }
+        final long now = System.nanoTime();
+        final long receivedAt = received != 0 ? received : now;
+        final long serializationNanos = body != null ? body.getWriteNanos() : 0;
+        final TransportEvent event = TransportEvent
+                .builder()
+                .method(method)
+                .batchSize(batchSize)
+                .requestBytes(body != null ? body.getBytesWritten() : 0)
+                .responseBytes(responseStream != null ? responseStream.count : 0)
+                .serializationNanos(serializationNanos)
+                .networkNanos(Math.max(0, receivedAt - start - serializationNanos))
+                .deserializationNanos(now - receivedAt)
+                .outcome(TransportEvent.Outcome.of(error))
+                .error(error)
+                .build();
+        try {
+            listener.onRequest(event);
+        } catch (RuntimeException e) {
+            // Broken listener must not break requests
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int result = super.read();
+            if (result != -1) {
+                count++;
+            }
+            return result;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int result = super.read(b, off, len);
+            if (result > 0) {
+                count += result;
+            }
+            return result;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            final long result = super.skip(n);
+            count += result;
+            return result;
+        }
+    }
+}
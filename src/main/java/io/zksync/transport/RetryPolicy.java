@@ -0,0 +1,54 @@
+package io.zksync.transport;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Settings of retries of one JSON-RPC method
+ *
+ * Delay before retry `n` grows as `initialBackoff * multiplier^(n - 1)` up to `maxBackoff`,
+ * and a random part of it, up to `jitter`, is dropped so that clients do not retry in lockstep.
+ */
+@Getter
+@Builder
+public class RetryPolicy {
+
+    @Builder.Default
+    private final int maxAttempts = 3;
+
+    @Builder.Default
+    private final Duration initialBackoff = Duration.ofMillis(100);
+
+    @Builder.Default
+    private final Duration maxBackoff = Duration.ofSeconds(2);
+
+    @Builder.Default
+    private final double multiplier = 2.0;
+
+    @Builder.Default
+    private final double jitter = 0.5;
+
+    public static RetryPolicy defaultPolicy() {
+        return RetryPolicy.builder().build();
+    }
+
+    public static RetryPolicy noRetry() {
+        return RetryPolicy.builder().maxAttempts(1).build();
+    }
+
+    /**
+     * Get delay before the next attempt
+     *
+     * @param attempt - Number of the failed attempt, starting from 1
+     * @return Delay in nanoseconds
+     */
+    long backoffNanos(int attempt) {
+        final double backoff = Math.min(
+                maxBackoff.toNanos(),
+                initialBackoff.toNanos() * Math.pow(multiplier, attempt - 1));
+        return (long) (backoff * (1 - jitter * ThreadLocalRandom.current().nextDouble()));
+    }
+}
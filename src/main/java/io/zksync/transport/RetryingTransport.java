@@ -0,0 +1,366 @@
+package io.zksync.transport;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import io.zksync.domain.transaction.TransactionDetails;
+import io.zksync.domain.transaction.ZkSyncTransaction;
+import io.zksync.exception.ZkSyncException;
+import io.zksync.transport.response.ZksTransactionDetails;
+
+/**
+ * Transport decorator which retries failed requests and stops calling an endpoint which is down
+ *
+ * A failure is retried when the request did not reach the server or the server returned
+ * one of the retryable error codes. Read methods are retried by default, state changing
+ * methods are not. `tx_submit` is retried only when a transaction hash function is configured:
+ * before every retry the hash is looked up with `tx_info`. The transaction is sent again only
+ * when the server clearly does not know it; a transaction it knows is reported as submitted,
+ * and an answer which is not conclusive ends the retries with the original error.
+ */
+public class RetryingTransport implements ZkSyncTransport {
+
+    /**
+     * JSON-RPC internal error and the implementation defined server error
+     */
+    public static final Set<Integer> DEFAULT_RETRYABLE_CODES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            -32603, -32000)));
+
+    private static final String SUBMIT_METHOD = "tx_submit";
+
+    private final ZkSyncTransport transport;
+
+    private final Map<String, RetryPolicy> policies;
+
+    private final RetryPolicy defaultPolicy;
+
+    private final Set<Integer> retryableCodes;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final Function<ZkSyncTransaction, String> transactionHash;
+
+    public RetryingTransport(ZkSyncTransport transport) {
+        this(builder(transport));
+    }
+
+    private RetryingTransport(Builder builder) {
+        this.transport = builder.transport;
+        this.policies = new HashMap<>(builder.policies);
+        this.defaultPolicy = builder.defaultPolicy;
+        this.retryableCodes = new HashSet<>(builder.retryableCodes);
+        this.circuitBreaker = new CircuitBreaker(builder.failureThreshold, builder.openDuration);
+        this.transactionHash = builder.transactionHash;
+    }
+
+    public static Builder builder(ZkSyncTransport transport) {
+        return new Builder(transport);
+    }
+
+    /**
+     * Whether calls currently fail fast because the endpoint is considered down
+     */
+    public boolean isCircuitOpen() {
+        return circuitBreaker.getState() == CircuitBreaker.State.OPEN;
+    }
+
+    @Override
+    public <R, T extends ZkSyncResponse<R>> R send(String method, List<Object> params, Class<T> returntype) {
+        final RetryPolicy policy = policy(method, params);
+        for (int attempt = 1; ; attempt++) {
+            if (!circuitBreaker.tryAcquire()) {
+                throw circuitOpen();
+            }
+            try {
+                final R result = transport.send(method, params, returntype);
+                circuitBreaker.onSuccess();
+                return result;
+            } catch (RuntimeException e) {
+                record(e);
+                if (attempt >= policy.getMaxAttempts() || !isRetryable(e)) {
+                    throw e;
+                }
+                sleep(policy.backoffNanos(attempt));
+                if (SUBMIT_METHOD.equals(method)) {
+                    final String hash = transactionHash.apply((ZkSyncTransaction) params.get(0));
+                    final SubmitStatus status;
+                    try {
+                        status = submitStatus(hash).join();
+                    } catch (RuntimeException lookupError) {
+                        // Can not confirm the transaction was not accepted, so report the original failure
+                        throw e;
+                    }
+                    if (status == SubmitStatus.ACCEPTED) {
+                        @SuppressWarnings("unchecked")
+                        final R accepted = (R) hash;
+                        return accepted;
+                    }
+                    if (status == SubmitStatus.AMBIGUOUS) {
+                        throw e;
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public <R, T extends ZkSyncResponse<R>> CompletableFuture<R> sendAsync(String method, List<Object> params, Class<T> returntype) {
+        final CompletableFuture<R> result = new CompletableFuture<>();
+        attempt(method, params, returntype, policy(method, params), 1, result);
+        return result;
+    }
+
+    @Override
+    public <R, T extends ZkSyncResponse<R>> List<CompletableFuture<R>> sendBatch(List<ZkSyncRequest> requests, Class<T> returntype) {
+        if (!circuitBreaker.tryAcquire()) {
+            // Every request gets a future of its own, so that cancelling one does not affect the others
+            final List<CompletableFuture<R>> failed = new ArrayList<>(requests.size());
+            for (int i = 0; i < requests.size(); i++) {
+                final CompletableFuture<R> future = new CompletableFuture<>();
+                future.completeExceptionally(circuitOpen());
+                failed.add(future);
+            }
+            return failed;
+        }
+        final List<CompletableFuture<R>> results = transport.sendBatch(requests, returntype);
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0]))
+                .whenComplete((response, error) -> record(error));
+        return results;
+    }
+
+    @Override
+    public CompletableFuture<WarmUpReport> warmUp() {
+        return transport.warmUp();
+    }
+
+    private <R, T extends ZkSyncResponse<R>> void attempt(String method, List<Object> params, Class<T> returntype,
+            RetryPolicy policy, int attempt, CompletableFuture<R> result) {
+        if (result.isDone()) {
+            return;
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            result.completeExceptionally(circuitOpen());
+            return;
+        }
+
+        final CompletableFuture<R> response;
+        try {
+            response = transport.sendAsync(method, params, returntype);
+        } catch (RuntimeException e) {
+            circuitBreaker.onFailure();
+            result.completeExceptionally(e);
+            return;
+        }
+
+        response.whenComplete((value, error) -> {
+            record(error);
+            if (error == null) {
+                result.complete(value);
+                return;
+            }
+            if (attempt >= policy.getMaxAttempts() || !isRetryable(error)) {
+                result.completeExceptionally(TransportErrors.unwrap(error));
+                return;
+            }
+            TransportScheduler.INSTANCE.schedule(() -> {
+                if (!SUBMIT_METHOD.equals(method)) {
+                    attempt(method, params, returntype, policy, attempt + 1, result);
+                    return;
+                }
+                final String hash = transactionHash.apply((ZkSyncTransaction) params.get(0));
+                submitStatus(hash).whenComplete((status, lookupError) -> {
+                    if (lookupError == null && status == SubmitStatus.ACCEPTED) {
+                        @SuppressWarnings("unchecked")
+                        final R accepted = (R) hash;
+                        result.complete(accepted);
+                    } else if (lookupError == null && status == SubmitStatus.UNKNOWN) {
+                        attempt(method, params, returntype, policy, attempt + 1, result);
+                    } else {
+                        // Can not confirm the transaction was not accepted, so report the original failure
+                        result.completeExceptionally(TransportErrors.unwrap(error));
+                    }
+                });
+            }, policy.backoffNanos(attempt), TimeUnit.NANOSECONDS);
+        });
+    }
+
+    private RetryPolicy policy(String method, List<Object> params) {
+        final RetryPolicy policy = policies.get(method);
+        if (policy != null) {
+            return SUBMIT_METHOD.equals(method) && !canConfirmSubmit(params) ? RetryPolicy.noRetry() : policy;
+        }
+        return RpcMethods.READ.contains(method) ? defaultPolicy : RetryPolicy.noRetry();
+    }
+
+    private boolean canConfirmSubmit(List<Object> params) {
+        return transactionHash != null && !params.isEmpty() && params.get(0) instanceof ZkSyncTransaction;
+    }
+
+    /**
+     * Look up the submitted transaction by its client-side hash
+     *
+     * @param hash - Hash of the transaction in format: `sync-tx:[hex]`
+     * @return What the server knows about the transaction
+     */
+    private CompletableFuture<SubmitStatus> submitStatus(String hash) {
+        final CompletableFuture<TransactionDetails> details =
+                transport.sendAsync("tx_info", Collections.singletonList(hash), ZksTransactionDetails.class);
+        return details.thenApply(RetryingTransport::submitStatus);
+    }
+
+    static SubmitStatus submitStatus(TransactionDetails tx) {
+        if (tx == null) {
+            return SubmitStatus.AMBIGUOUS;
+        }
+        if (Boolean.TRUE.equals(tx.getExecuted()) || tx.getBlock() != null) {
+            return SubmitStatus.ACCEPTED;
+        }
+        if (Boolean.FALSE.equals(tx.getExecuted()) && tx.getSuccess() == null && tx.getFailReason() == null) {
+            return SubmitStatus.UNKNOWN;
+        }
+        return SubmitStatus.AMBIGUOUS;
+    }
+
+    private boolean isRetryable(Throwable error) {
+        final ZkSyncError serverError = TransportErrors.serverError(error);
+        if (serverError == null) {
+            return !(TransportErrors.unwrap(error) instanceof CircuitOpenException);
+        }
+        return serverError.getCode() != null && retryableCodes.contains(serverError.getCode());
+    }
+
+    private void record(Throwable error) {
+        // Errors returned by the server prove that the endpoint is up
+        if (TransportErrors.isEndpointFailure(error)) {
+            circuitBreaker.onFailure();
+        } else {
+            circuitBreaker.onSuccess();
+        }
+    }
+
+    private static CircuitOpenException circuitOpen() {
+        return new CircuitOpenException();
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ZkSyncException(e);
+        }
+    }
+
+    enum SubmitStatus {
+
+        /**
+         * Server knows the transaction, executed or waiting for a block
+         */
+        ACCEPTED,
+
+        /**
+         * Server has no trace of the transaction, so it is safe to send again
+         */
+        UNKNOWN,
+
+        /**
+         * Answer does not tell, sending again could duplicate the transaction
+         */
+        AMBIGUOUS
+    }
+
+    private static class CircuitOpenException extends ZkSyncException {
+        private static final long serialVersionUID = -2364387612519738227L;
+
+        CircuitOpenException() {
+            super("ZkSync endpoint is unavailable, circuit breaker is open");
+        }
+    }
+
+    public static class Builder {
+
+        private final ZkSyncTransport transport;
+
+        private final Map<String, RetryPolicy> policies = new HashMap<>();
+
+        private RetryPolicy defaultPolicy = RetryPolicy.defaultPolicy();
+
+        private Set<Integer> retryableCodes = DEFAULT_RETRYABLE_CODES;
+
+        private int failureThreshold = 5;
+
+        private Duration openDuration = Duration.ofSeconds(10);
+
+        private Function<ZkSyncTransaction, String> transactionHash;
+
+        Builder(ZkSyncTransport transport) {
+            this.transport = transport;
+        }
+
+        /**
+         * @param policy - Retry policy of read methods without their own policy
+         */
+        public Builder defaultPolicy(RetryPolicy policy) {
+            this.defaultPolicy = policy;
+            return this;
+        }
+
+        /**
+         * Write methods are rejected, a retry of `tx_submit` is enabled by `retrySubmit` only
+         *
+         * @param method - JSON-RPC method name
+         * @param policy - Retry policy of the method
+         */
+        public Builder policy(String method, RetryPolicy policy) {
+            if (RpcMethods.WRITE.contains(method)) {
+                throw new IllegalArgumentException("Write method " + method + " can not be retried blindly, use retrySubmit for tx_submit");
+            }
+            this.policies.put(method, policy);
+            return this;
+        }
+
+        /**
+         * @param retryableCodes - ZkSync error codes which are worth retrying, other codes are fatal
+         */
+        public Builder retryableCodes(Set<Integer> retryableCodes) {
+            this.retryableCodes = retryableCodes;
+            return this;
+        }
+
+        /**
+         * @param failureThreshold - Consecutive failures which open the circuit breaker
+         * @param openDuration - How long calls fail fast before a trial call is let through
+         */
+        public Builder circuitBreaker(int failureThreshold, Duration openDuration) {
+            this.failureThreshold = failureThreshold;
+            this.openDuration = openDuration;
+            return this;
+        }
+
+        /**
+         * Allow retries of `tx_submit` with the given policy
+         *
+         * @param transactionHash - Computes ZkSync hash of a signed transaction, in format `sync-tx:[hex]`
+         * @param policy - Retry policy of `tx_submit`
+         */
+        public Builder retrySubmit(Function<ZkSyncTransaction, String> transactionHash, RetryPolicy policy) {
+            this.transactionHash = transactionHash;
+            this.policies.put(SUBMIT_METHOD, policy);
+            return this;
+        }
+
+        public RetryingTransport build() {
+            return new RetryingTransport(this);
+        }
+    }
+}
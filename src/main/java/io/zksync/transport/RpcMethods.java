@@ -0,0 +1,41 @@
+package io.zksync.transport;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Classification of ZkSync JSON-RPC methods shared by the transport decorators
+ */
+public final class RpcMethods {
+
+    /**
+     * Read-only methods which are safe to retry, hedge and share
+     */
+    public static final Set<String> READ = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "account_info", "tx_info", "tokens", "get_token_price", "ethop_info", "get_tx_fee",
+            "get_txs_batch_fee_in_wei", "contract_address", "get_confirmations_for_eth_op_amount",
+            "get_eth_tx_for_withdrawal")));
+
+    /**
+     * Methods which change state and must never be sent twice
+     */
+    public static final Set<String> WRITE = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "tx_submit", "submit_txs_batch", "toggle_2fa")));
+
+    /**
+     * Write methods which submit transactions
+     */
+    public static final Set<String> SUBMIT = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "tx_submit", "submit_txs_batch")));
+
+    /**
+     * Read methods by which clients poll the progress of submitted operations
+     */
+    public static final Set<String> POLL = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "tx_info", "ethop_info", "get_eth_tx_for_withdrawal")));
+
+    private RpcMethods() {
+    }
+}
@@ -0,0 +1,167 @@
+package io.zksync.transport;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.zksync.exception.ZkSyncException;
+
+/**
+ * Transport decorator which lets concurrent identical read requests share one call
+ *
+ * Requests are identical when they have the same method, params and response type.
+ * While a request is in flight, identical requests wait for its response instead of
+ * being sent. Only methods from the allow-list are shared, by default the read methods.
+ * Every caller gets its own future, so cancelling it does not affect the other callers.
+ * Results are mutable, so only the caller which made the call gets its result, the callers
+ * which share the call get their own copy of it.
+ */
+public class SingleFlightTransport implements ZkSyncTransport {
+
+    private final ZkSyncTransport transport;
+
+    private final Set<String> methods;
+
+    private final JsonCodec codec = JsonCodec.standard();
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder shared = new LongAdder();
+
+    public SingleFlightTransport(ZkSyncTransport transport) {
+        this(transport, RpcMethods.READ);
+    }
+
+    /**
+     * @param transport - Transport which performs the requests
+     * @param methods - Methods whose identical in-flight requests are shared, must not change state
+     */
+    public SingleFlightTransport(ZkSyncTransport transport, Set<String> methods) {
+        for (String method : methods) {
+            if (RpcMethods.WRITE.contains(method)) {
+                throw new IllegalArgumentException("Method " + method + " changes state and can not be shared");
+            }
+        }
+        this.transport = transport;
+        this.methods = new HashSet<>(methods);
+    }
+
+    /**
+     * @return Number of requests answered by another request in flight instead of the network
+     */
+    public long getSharedCount() {
+        return shared.sum();
+    }
+
+    @Override
+    public <R, T extends ZkSyncResponse<R>> R send(String method, List<Object> params, Class<T> returntype) {
+        final String key = key(method, params, returntype);
+        if (key == null) {
+            return transport.send(method, params, returntype);
+        }
+
+        final CompletableFuture<Object> call = new CompletableFuture<>();
+        final CompletableFuture<Object> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            shared.increment();
+            try {
+                return this.<R, T>duplicate(existing.join(), returntype);
+            } catch (CompletionException e) {
+                final Throwable cause = TransportErrors.unwrap(e);
+                if (cause instanceof ZkSyncException) {
+                    throw (ZkSyncException) cause;
+                }
+                throw new ZkSyncException("There was an error when sending the request", cause);
+            }
+        }
+
+        try {
+            final R result = transport.send(method, params, returntype);
+            inFlight.remove(key, call);
+            call.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            inFlight.remove(key, call);
+            call.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public <R, T extends ZkSyncResponse<R>> CompletableFuture<R> sendAsync(String method, List<Object> params, Class<T> returntype) {
+        final String key = key(method, params, returntype);
+        if (key == null) {
+            return transport.sendAsync(method, params, returntype);
+        }
+
+        final CompletableFuture<Object> call = new CompletableFuture<>();
+        final CompletableFuture<Object> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            shared.increment();
+            return existing.thenApply(result -> this.<R, T>duplicate(result, returntype));
+        }
+
+        try {
+            transport.<R, T>sendAsync(method, params, returntype).whenComplete((result, error) -> {
+                inFlight.remove(key, call);
+                if (error != null) {
+                    call.completeExceptionally(TransportErrors.unwrap(error));
+                } else {
+                    call.complete(result);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, call);
+            call.completeExceptionally(e);
+        }
+        @SuppressWarnings("unchecked")
+        final CompletableFuture<R> result = call.thenApply(response -> (R) response);
+        return result;
+    }
+
+    @Override
+    public <R, T extends ZkSyncResponse<R>> List<CompletableFuture<R>> sendBatch(List<ZkSyncRequest> requests, Class<T> returntype) {
+        return transport.sendBatch(requests, returntype);
+    }
+
+    @Override
+    public CompletableFuture<WarmUpReport> warmUp() {
+        return transport.warmUp();
+    }
+
+    private String key(String method, List<Object> params, Class<?> returntype) {
+        if (!methods.contains(method)) {
+            return null;
+        }
+        try {
+            return method + '\n' + returntype.getName() + '\n' + codec.writeValueAsString(params);
+        } catch (IOException e) {
+            // Request can not be compared with others, so it is sent on its own
+            return null;
+        }
+    }
+
+    /**
+     * Copy a shared result by decoding it again as the response of the request
+     */
+    private <R, T extends ZkSyncResponse<R>> R duplicate(Object result, Class<T> returntype) {
+        if (result == null) {
+            return null;
+        }
+        final ObjectNode response = codec.createObjectNode();
+        response.set("result", codec.valueToTree(result));
+        try {
+            return codec.read(response, returntype).getResult();
+        } catch (IOException e) {
+            throw new ZkSyncException("Shared response can not be copied", e);
+        }
+    }
+}
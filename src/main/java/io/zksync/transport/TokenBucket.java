@@ -0,0 +1,54 @@
+package io.zksync.transport;
+
+/**
+ * Token bucket refilled at a constant rate scaled by the current slowdown factor
+ *
+ * Not thread safe, guarded by the owner.
+ */
+class TokenBucket {
+
+    private final double permitsPerNano;
+
+    private final double capacity;
+
+    private double tokens;
+
+    private long lastRefill;
+
+    TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.permitsPerNano = permitsPerSecond / 1_000_000_000d;
+        this.capacity = burst;
+        this.tokens = burst;
+        this.lastRefill = System.nanoTime();
+    }
+
+    void refill(long now, double factor) {
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * permitsPerNano * factor);
+        lastRefill = now;
+    }
+
+    boolean isAvailable() {
+        return tokens >= 1;
+    }
+
+    /**
+     * Take tokens, a batch may overdraw the bucket and requests after it wait until the debt is paid off
+     */
+    void take(int permits) {
+        tokens -= permits;
+    }
+
+    /**
+     * Return tokens which were taken but not used
+     */
+    void giveBack(int permits) {
+        tokens = Math.min(capacity, tokens + permits);
+    }
+
+    long nanosUntilAvailable(double factor) {
+        return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / (permitsPerNano * factor));
+    }
+}
@@ -0,0 +1,40 @@
+package io.zksync.transport;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+import io.zksync.exception.ZkSyncException;
+
+final class TransportErrors {
+
+    private TransportErrors() {
+    }
+
+    /**
+     * Strip wrappers added by CompletableFuture
+     */
+    static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /**
+     * Get JSON-RPC error returned by the server
+     *
+     * @return Error or null if the request failed on the way to the server or back
+     */
+    static ZkSyncError serverError(Throwable error) {
+        final Throwable cause = unwrap(error);
+        return cause instanceof ZkSyncException ? ((ZkSyncException) cause).getError() : null;
+    }
+
+    /**
+     * Whether the failure was caused by the endpoint rather than by the request itself
+     */
+    static boolean isEndpointFailure(Throwable error) {
+        return error != null && serverError(error) == null;
+    }
+}
@@ -0,0 +1,57 @@
+package io.zksync.transport;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Measurements of one HTTP exchange
+ *
+ * Request is encoded while it streams out and the response is decoded while it streams in,
+ * so serialization time includes writing the body to the connection and deserialization time
+ * includes reading the body after the headers arrived. Network time covers the rest of waiting
+ * for the response headers, including time queued in the dispatcher.
+ */
+@Getter
+@Builder
+@ToString
+public class TransportEvent {
+
+    public enum Outcome {
+        SUCCESS,
+        SERVER_ERROR,
+        FAILURE;
+
+        static Outcome of(Throwable error) {
+            if (error == null) {
+                return SUCCESS;
+            }
+            return TransportErrors.serverError(error) != null ? SERVER_ERROR : FAILURE;
+        }
+    }
+
+    /**
+     * JSON-RPC method, or `batch` for a batch of different methods
+     */
+    private final String method;
+
+    private final int batchSize;
+
+    private final long requestBytes;
+
+    private final long responseBytes;
+
+    private final long serializationNanos;
+
+    private final long networkNanos;
+
+    private final long deserializationNanos;
+
+    private final Outcome outcome;
+
+    private final Throwable error;
+
+    public long getTotalNanos() {
+        return serializationNanos + networkNanos + deserializationNanos;
+    }
+}
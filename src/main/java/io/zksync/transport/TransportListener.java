@@ -0,0 +1,13 @@
+package io.zksync.transport;
+
+/**
+ * Receives an event for every HTTP exchange made by a transport
+ *
+ * Called on the thread which completed the exchange, so implementations must be fast and thread safe.
+ */
+public interface TransportListener {
+
+    TransportListener NONE = event -> {};
+
+    void onRequest(TransportEvent event);
+}
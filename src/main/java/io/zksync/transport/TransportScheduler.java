@@ -0,0 +1,40 @@
+package io.zksync.transport;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * Daemon scheduler shared by transports for delayed flushes, timeouts and reconnects
+ *
+ * Providers schedule their background refreshes on it too, so the SDK runs a single background thread.
+ */
+public final class TransportScheduler {
+
+    static final ScheduledExecutorService INSTANCE = create();
+
+    private static ScheduledExecutorService create() {
+        final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, "zksync-transport-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Most timeouts are cancelled long before they fire
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    /**
+     * Get the scheduler shared by the SDK
+     *
+     * Tasks run on a single thread and must not block, e.g. they only start asynchronous calls.
+     * The scheduler must not be shut down.
+     *
+     * @return Shared scheduler
+     */
+    public static ScheduledExecutorService shared() {
+        return INSTANCE;
+    }
+
+    private TransportScheduler() {
+    }
+}
@@ -0,0 +1,75 @@
+package io.zksync.transport;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Timings of the stages of a warm-up, in the order the stages were started
+ */
+@Getter
+@ToString
+public class WarmUpReport {
+
+    /**
+     * Opening connections to the endpoint, including DNS lookup and TLS handshake
+     */
+    public static final String CONNECT = "connect";
+
+    /**
+     * Fetching the token set
+     */
+    public static final String TOKENS = "tokens";
+
+    /**
+     * Fetching the address of ZkSync contract
+     */
+    public static final String CONTRACT_ADDRESS = "contract_address";
+
+    static final WarmUpReport EMPTY = new WarmUpReport(Collections.emptyMap(), 0, Duration.ZERO);
+
+    private final Map<String, Duration> stages;
+
+    private final int connections;
+
+    private final Duration total;
+
+    /**
+     * @param stages - Duration of every stage
+     * @param connections - Connections which were opened successfully
+     * @param total - Duration of the whole warm-up, stages may overlap
+     */
+    public WarmUpReport(Map<String, Duration> stages, int connections, Duration total) {
+        this.stages = Collections.unmodifiableMap(new LinkedHashMap<>(stages));
+        this.connections = connections;
+        this.total = total;
+    }
+
+    /**
+     * @param stage - Name of the stage
+     * @return Duration of the stage or null if the warm-up did not include it
+     */
+    public Duration getStage(String stage) {
+        return stages.get(stage);
+    }
+
+    /**
+     * Combine reports of warm-ups which ran in parallel
+     */
+    static WarmUpReport merge(List<WarmUpReport> reports) {
+        final Map<String, Duration> stages = new LinkedHashMap<>();
+        int connections = 0;
+        Duration total = Duration.ZERO;
+        for (WarmUpReport report : reports) {
+            report.stages.forEach((stage, duration) -> stages.merge(stage, duration, (a, b) -> a.compareTo(b) >= 0 ? a : b));
+            connections += report.connections;
+            total = report.total.compareTo(total) > 0 ? report.total : total;
+        }
+        return new WarmUpReport(stages, connections, total);
+    }
+}
@@ -0,0 +1,320 @@
+package io.zksync.transport;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.zksync.exception.ZkSyncException;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Transport which multiplexes all requests over one persistent WebSocket connection
+ *
+ * Responses are matched to requests by JSON-RPC id. The connection is opened lazily
+ * and re-established automatically after it drops; requests in flight on the dropped
+ * connection fail since it is unknown whether the server processed them.
+ */
+public class WebSocketTransport implements ZkSyncTransport, Closeable {
+
+    private static final Logger LOG = Logger.getLogger(WebSocketTransport.class.getName());
+
+    private static final Pattern RESPONSE_ID = Pattern.compile("\"id\"\\s*:\\s*(\\d{1,18})");
+
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
+
+    private static final Duration DEFAULT_RECONNECT_DELAY = Duration.ofSeconds(1);
+
+    private static final Duration PING_INTERVAL = Duration.ofSeconds(20);
+
+    private final OkHttpClient httpClient;
+
+    private final Request request;
+
+    private final JsonCodec codec = JsonCodec.standard();
+
+    private final Duration callTimeout;
+
+    private final Duration reconnectDelay;
+
+    private final Map<Long, InFlightRequest> inFlight = new ConcurrentHashMap<>();
+
+    private CompletableFuture<WebSocket> connection;
+
+    private volatile boolean closed;
+
+    public WebSocketTransport(String url) {
+        this(url, SharedWebSocketClient.INSTANCE, DEFAULT_TIMEOUT, DEFAULT_RECONNECT_DELAY);
+    }
+
+    /**
+     * @param url - Address of ZkSync WebSocket endpoint
+     * @param httpClient - Client used to open connections, its dispatcher and connection pool are shared
+     *                     with the transport and stay owned by the caller
+     * @param callTimeout - Max time to wait for the response of one request
+     * @param reconnectDelay - Delay before reconnecting after the connection drops
+     */
+    public WebSocketTransport(String url, OkHttpClient httpClient, Duration callTimeout, Duration reconnectDelay) {
+        this.httpClient = httpClient
+                .newBuilder()
+                .pingInterval(PING_INTERVAL)
+                .build();
+        this.request = new Request.Builder().url(url).build();
+        this.callTimeout = callTimeout;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    @Override
+    public <R, T extends ZkSyncResponse<R>> R send(String method, List<Object> params, Class<T> returntype) {
+        try {
+            return this.<R, T>sendAsync(method, params, returntype).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ZkSyncException) {
+                throw (ZkSyncException) e.getCause();
+            }
+            throw new ZkSyncException("There was an error when sending the request", e.getCause());
+        }
+    }
+
+    @Override
+    public <R, T extends ZkSyncResponse<R>> CompletableFuture<R> sendAsync(String method, List<Object> params, Class<T> returntype) {
+        final ZkSyncRequest zkRequest = ZkSyncRequest
+                .builder()
+                .method(method)
+                .params(params)
+                .build();
+        final PendingRequest<R> pending = new PendingRequest<>(zkRequest, returntype, new CompletableFuture<>());
+
+        try {
+            dispatch(codec.writeRequestAsString(zkRequest), pending);
+        } catch (IOException e) {
+            pending.fail(e);
+        }
+
+        return pending.getFuture();
+    }
+
+    @Override
+    public <R, T extends ZkSyncResponse<R>> List<CompletableFuture<R>> sendBatch(List<ZkSyncRequest> requests, Class<T> returntype) {
+        final List<PendingRequest<R>> batch = requests
+                .stream()
+                .map(zkRequest -> new PendingRequest<R>(zkRequest, returntype, new CompletableFuture<>()))
+                .collect(Collectors.toList());
+
+        try {
+            dispatch(codec.writeBatchAsString(requests), batch.toArray(new PendingRequest<?>[0]));
+        } catch (IOException e) {
+            batch.forEach(pending -> pending.fail(e));
+        }
+
+        return batch.stream().map(PendingRequest::getFuture).collect(Collectors.toList());
+    }
+
+    /**
+     * Close the connection and fail requests in flight, the threads of the client are shared and keep running
+     */
+    @Override
+    public void close() {
+        final CompletableFuture<WebSocket> current;
+        synchronized (this) {
+            closed = true;
+            current = connection;
+            connection = null;
+        }
+        if (current != null) {
+            current.thenAccept(webSocket -> webSocket.close(1000, null));
+        }
+        failInFlight(null, new ZkSyncException("Transport is closed"));
+    }
+
+    private void dispatch(String payload, PendingRequest<?>... requests) {
+        if (closed) {
+            for (PendingRequest<?> pending : requests) {
+                pending.fail(new ZkSyncException("Transport is closed"));
+            }
+            return;
+        }
+
+        final CompletableFuture<WebSocket> current = connect();
+        final List<InFlightRequest> sent = new ArrayList<>(requests.length);
+        for (PendingRequest<?> pending : requests) {
+            final InFlightRequest request = new InFlightRequest(pending, current);
+            sent.add(request);
+            inFlight.put(pending.getId(), request);
+            final ScheduledFuture<?> timeout = TransportScheduler.INSTANCE.schedule(() -> {
+                if (inFlight.remove(pending.getId(), request)) {
+                    pending.fail(new ZkSyncException("Request " + pending.getId() + " timed out"));
+                }
+            }, callTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            pending.getFuture().whenComplete((result, error) -> timeout.cancel(false));
+        }
+
+        current.whenComplete((webSocket, error) -> {
+            if (error == null && webSocket.send(payload)) {
+                return;
+            }
+            final ZkSyncException exception = new ZkSyncException("Connection is not available", error);
+            for (InFlightRequest request : sent) {
+                if (inFlight.remove(request.pending.getId(), request)) {
+                    request.pending.fail(exception);
+                }
+            }
+        });
+    }
+
+    private synchronized CompletableFuture<WebSocket> connect() {
+        if (connection == null || connection.isCompletedExceptionally()) {
+            final CompletableFuture<WebSocket> opening = new CompletableFuture<>();
+            connection = opening;
+            httpClient.newWebSocket(request, new Listener(opening));
+        }
+        return connection;
+    }
+
+    private void onDisconnected(CompletableFuture<WebSocket> dropped, Throwable cause) {
+        synchronized (this) {
+            if (connection != dropped) {
+                return;
+            }
+            connection = null;
+        }
+        failInFlight(dropped, new ZkSyncException("Connection to ZkSync was lost", cause));
+
+        if (!closed) {
+            TransportScheduler.INSTANCE.schedule(() -> {
+                if (!closed) {
+                    connect();
+                }
+            }, reconnectDelay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @param dropped - Connection whose requests fail, null to fail requests on every connection
+     * @param exception - Error to fail the requests with
+     */
+    private void failInFlight(CompletableFuture<WebSocket> dropped, ZkSyncException exception) {
+        final List<InFlightRequest> requests = new ArrayList<>(inFlight.values());
+        for (InFlightRequest request : requests) {
+            if (dropped != null && request.connection != dropped) {
+                // Sent on a newer connection after this one was replaced
+                continue;
+            }
+            if (inFlight.remove(request.pending.getId(), request)) {
+                request.pending.fail(exception);
+            }
+        }
+    }
+
+    private void onResponse(String text) throws IOException {
+        final JsonNode resultJson = codec.readTree(text);
+        if (resultJson.isArray()) {
+            for (JsonNode item : resultJson) {
+                completeItem(item);
+            }
+        } else {
+            completeItem(resultJson);
+        }
+    }
+
+    private void completeItem(JsonNode item) {
+        if (!item.hasNonNull("id")) {
+            return;
+        }
+        final InFlightRequest request = inFlight.remove(item.get("id").asLong());
+        if (request != null) {
+            completeItem(request.pending, item);
+        }
+    }
+
+    /**
+     * Fail the requests whose ids can still be found in a message which is not valid JSON
+     */
+    private void onUnreadable(String text, IOException error) {
+        LOG.log(Level.WARNING, "Unreadable message from ZkSync: " + text, error);
+        final Matcher ids = RESPONSE_ID.matcher(text);
+        while (ids.find()) {
+            final InFlightRequest request = inFlight.remove(Long.parseLong(ids.group(1)));
+            if (request != null) {
+                request.pending.fail(new ZkSyncException("Unreadable response to request " + ids.group(1), error));
+            }
+        }
+    }
+
+    private <R> void completeItem(PendingRequest<R> pending, JsonNode item) {
+        try {
+            pending.complete(codec.read(item, pending.getReturntype()));
+        } catch (IOException | RuntimeException e) {
+            pending.fail(e);
+        }
+    }
+
+    private static class InFlightRequest {
+
+        private final PendingRequest<?> pending;
+
+        private final CompletableFuture<WebSocket> connection;
+
+        InFlightRequest(PendingRequest<?> pending, CompletableFuture<WebSocket> connection) {
+            this.pending = pending;
+            this.connection = connection;
+        }
+    }
+
+    private static class SharedWebSocketClient {
+
+        private static final OkHttpClient INSTANCE = new OkHttpClient();
+    }
+
+    private class Listener extends WebSocketListener {
+
+        private final CompletableFuture<WebSocket> opening;
+
+        Listener(CompletableFuture<WebSocket> opening) {
+            this.opening = opening;
+        }
+
+        @Override
+        public void onOpen(WebSocket webSocket, Response response) {
+            opening.complete(webSocket);
+        }
+
+        @Override
+        public void onMessage(WebSocket webSocket, String text) {
+            try {
+                onResponse(text);
+            } catch (IOException e) {
+                onUnreadable(text, e);
+            }
+        }
+
+        @Override
+        public void onClosing(WebSocket webSocket, int code, String reason) {
+            webSocket.close(code, null);
+            onDisconnected(opening, new ZkSyncException("Connection closed by server: " + reason));
+        }
+
+        @Override
+        public void onFailure(WebSocket webSocket, Throwable error, Response response) {
+            opening.completeExceptionally(error);
+            onDisconnected(opening, error);
+        }
+    }
+}
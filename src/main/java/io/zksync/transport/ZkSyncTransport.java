@@ -2,9 +2,54 @@ package io.zksync.transport;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 public interface ZkSyncTransport {
 
     <R, T extends ZkSyncResponse<R>> R send(String method, List<Object> params, Class<T> returntype);
     <R, T extends ZkSyncResponse<R>> CompletableFuture<R> sendAsync(String method, List<Object> params, Class<T> returntype);
+
+    /**
+     * Send request which must complete before the deadline
+     *
+     * Transports which can not shorten their own timeouts abandon the request once the deadline passes
+     *
+     * @param deadline - Deadline of the operation the request is part of
+     * @return Future of the result which fails with `ZkSyncDeadlineExceededException` after the deadline
+     */
+    default <R, T extends ZkSyncResponse<R>> CompletableFuture<R> sendAsync(String method, List<Object> params, Class<T> returntype, Deadline deadline) {
+        if (deadline.isExpired()) {
+            final CompletableFuture<R> expired = new CompletableFuture<>();
+            expired.completeExceptionally(deadline.exceeded());
+            return expired;
+        }
+        return deadline.bound(this.<R, T>sendAsync(method, params, returntype));
+    }
+
+    /**
+     * Send several requests with the same response type as one JSON-RPC batch
+     *
+     * Transports without batch support send every request separately
+     *
+     * @param requests - Prepared requests, responses are matched by `ZkSyncRequest.id`
+     * @param returntype - Response type of every request in the batch
+     * @return Futures of the results in the same order as requests
+     */
+    default <R, T extends ZkSyncResponse<R>> List<CompletableFuture<R>> sendBatch(List<ZkSyncRequest> requests, Class<T> returntype) {
+        return requests
+                .stream()
+                .map(request -> this.<R, T>sendAsync(request.getMethod(), request.getParams(), returntype))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Prepare the transport for traffic, e.g. open connections to the endpoint
+     *
+     * Transports without anything to prepare complete immediately with an empty report
+     *
+     * @return Future of timings of the warm-up stages
+     */
+    default CompletableFuture<WarmUpReport> warmUp() {
+        return CompletableFuture.completedFuture(WarmUpReport.EMPTY);
+    }
 }
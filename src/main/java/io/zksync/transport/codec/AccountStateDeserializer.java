@@ -0,0 +1,49 @@
+package io.zksync.transport.codec;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+
+import io.zksync.domain.state.AccountState;
+import io.zksync.domain.state.DepositingState;
+
+class AccountStateDeserializer extends StreamingDeserializer<AccountState> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final StateDeserializer stateDeserializer = new StateDeserializer();
+
+    AccountStateDeserializer() {
+        super(AccountState.class);
+    }
+
+    @Override
+    public AccountState deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        final AccountState account = new AccountState();
+        for (String field = startObject(p, ctxt); field != null; field = p.nextFieldName()) {
+            p.nextToken();
+            switch (field) {
+                case "address":
+                    account.setAddress(readString(p, ctxt));
+                    break;
+                case "id":
+                    account.setId(readInteger(p, ctxt));
+                    break;
+                case "depositing":
+                    account.setDepositing(readValue(p, ctxt, DepositingState.class));
+                    break;
+                case "committed":
+                    account.setCommitted(p.getCurrentToken() == JsonToken.VALUE_NULL ? null : stateDeserializer.deserialize(p, ctxt));
+                    break;
+                case "verified":
+                    account.setVerified(p.getCurrentToken() == JsonToken.VALUE_NULL ? null : stateDeserializer.deserialize(p, ctxt));
+                    break;
+                default:
+                    p.skipChildren();
+            }
+        }
+        return account;
+    }
+}
@@ -0,0 +1,61 @@
+package io.zksync.transport.codec;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
+import io.zksync.domain.state.State;
+import io.zksync.domain.token.NFT;
+
+class StateDeserializer extends StreamingDeserializer<State> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final JavaType NFT_MAP = TypeFactory.defaultInstance().constructMapType(LinkedHashMap.class, String.class, NFT.class);
+
+    StateDeserializer() {
+        super(State.class);
+    }
+
+    @Override
+    public State deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        final State state = new State();
+        for (String field = startObject(p, ctxt); field != null; field = p.nextFieldName()) {
+            p.nextToken();
+            switch (field) {
+                case "nonce":
+                    state.setNonce(readInteger(p, ctxt));
+                    break;
+                case "pubKeyHash":
+                    state.setPubKeyHash(readString(p, ctxt));
+                    break;
+                case "balances":
+                    state.setBalances(readStringMap(p, ctxt));
+                    break;
+                case "nfts":
+                    state.setNfts(readNfts(p, ctxt));
+                    break;
+                case "mintedNfts":
+                    state.setMintedNfts(readNfts(p, ctxt));
+                    break;
+                default:
+                    p.skipChildren();
+            }
+        }
+        return state;
+    }
+
+    private Map<String, NFT> readNfts(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.getCurrentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        // Accounts rarely own NFTs, so the generic binding is good enough here
+        return ctxt.readValue(p, NFT_MAP);
+    }
+}
@@ -0,0 +1,112 @@
+package io.zksync.transport.codec;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+/**
+ * Base of deserializers which read an object field by field from the token stream
+ *
+ * Unknown fields are skipped. Scalars are coerced the same way as by Jackson data binding,
+ * so numbers may come as strings and the other way round.
+ */
+abstract class StreamingDeserializer<T> extends StdDeserializer<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    StreamingDeserializer(Class<T> type) {
+        super(type);
+    }
+
+    /**
+     * @return Name of the first field, or null for an empty object
+     */
+    String startObject(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.isExpectedStartObjectToken()) {
+            return p.nextFieldName();
+        }
+        if (p.getCurrentToken() == JsonToken.FIELD_NAME) {
+            return p.getCurrentName();
+        }
+        if (p.getCurrentToken() == JsonToken.END_OBJECT) {
+            return null;
+        }
+        ctxt.handleUnexpectedToken(handledType(), p);
+        return null;
+    }
+
+    String readString(JsonParser p, DeserializationContext ctxt) throws IOException {
+        final JsonToken token = p.getCurrentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isScalarValue()) {
+            return p.getValueAsString();
+        }
+        ctxt.handleUnexpectedToken(String.class, p);
+        return null;
+    }
+
+    Integer readInteger(JsonParser p, DeserializationContext ctxt) throws IOException {
+        switch (p.getCurrentToken()) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_NUMBER_INT:
+                return p.getIntValue();
+            case VALUE_STRING:
+                final String text = p.getText().trim();
+                return text.isEmpty() ? null : Integer.valueOf(text);
+            default:
+                ctxt.handleUnexpectedToken(Integer.class, p);
+                return null;
+        }
+    }
+
+    Boolean readBoolean(JsonParser p, DeserializationContext ctxt) throws IOException {
+        switch (p.getCurrentToken()) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_STRING:
+                final String text = p.getText().trim();
+                return text.isEmpty() ? null : Boolean.valueOf(text);
+            default:
+                ctxt.handleUnexpectedToken(Boolean.class, p);
+                return null;
+        }
+    }
+
+    Map<String, String> readStringMap(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.getCurrentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (p.getCurrentToken() != JsonToken.START_OBJECT) {
+            ctxt.handleUnexpectedToken(Map.class, p);
+            return null;
+        }
+        final Map<String, String> map = new LinkedHashMap<>();
+        for (String key = p.nextFieldName(); key != null; key = p.nextFieldName()) {
+            p.nextToken();
+            map.put(key, readString(p, ctxt));
+        }
+        return map;
+    }
+
+    /**
+     * Read a nested value with the deserializer Jackson has for its type
+     */
+    <V> V readValue(JsonParser p, DeserializationContext ctxt, Class<V> type) throws IOException {
+        if (p.getCurrentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return ctxt.readValue(p, type);
+    }
+}
@@ -0,0 +1,68 @@
+package io.zksync.transport.codec;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+
+import io.zksync.domain.block.BlockInfo;
+import io.zksync.domain.transaction.TransactionDetails;
+
+class TransactionDetailsDeserializer extends StreamingDeserializer<TransactionDetails> {
+
+    private static final long serialVersionUID = 1L;
+
+    TransactionDetailsDeserializer() {
+        super(TransactionDetails.class);
+    }
+
+    @Override
+    public TransactionDetails deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        final TransactionDetails details = new TransactionDetails();
+        for (String field = startObject(p, ctxt); field != null; field = p.nextFieldName()) {
+            p.nextToken();
+            switch (field) {
+                case "executed":
+                    details.setExecuted(readBoolean(p, ctxt));
+                    break;
+                case "success":
+                    details.setSuccess(readBoolean(p, ctxt));
+                    break;
+                case "failReason":
+                    details.setFailReason(readString(p, ctxt));
+                    break;
+                case "block":
+                    details.setBlock(readBlock(p, ctxt));
+                    break;
+                default:
+                    p.skipChildren();
+            }
+        }
+        return details;
+    }
+
+    private BlockInfo readBlock(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.getCurrentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        final BlockInfo block = new BlockInfo();
+        for (String field = startObject(p, ctxt); field != null; field = p.nextFieldName()) {
+            p.nextToken();
+            switch (field) {
+                case "blockNumber":
+                    block.setBlockNumber(readInteger(p, ctxt));
+                    break;
+                case "committed":
+                    block.setCommitted(readBoolean(p, ctxt));
+                    break;
+                case "verified":
+                    block.setVerified(readBoolean(p, ctxt));
+                    break;
+                default:
+                    p.skipChildren();
+            }
+        }
+        return block;
+    }
+}
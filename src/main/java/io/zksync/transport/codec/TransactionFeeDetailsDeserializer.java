@@ -0,0 +1,45 @@
+package io.zksync.transport.codec;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+
+import io.zksync.domain.fee.TransactionFeeDetails;
+
+class TransactionFeeDetailsDeserializer extends StreamingDeserializer<TransactionFeeDetails> {
+
+    private static final long serialVersionUID = 1L;
+
+    TransactionFeeDetailsDeserializer() {
+        super(TransactionFeeDetails.class);
+    }
+
+    @Override
+    public TransactionFeeDetails deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        final TransactionFeeDetails fee = new TransactionFeeDetails();
+        for (String field = startObject(p, ctxt); field != null; field = p.nextFieldName()) {
+            p.nextToken();
+            switch (field) {
+                case "gasTxAmount":
+                    fee.setGasTxAmount(readString(p, ctxt));
+                    break;
+                case "gasPriceWei":
+                    fee.setGasPriceWei(readString(p, ctxt));
+                    break;
+                case "gasFee":
+                    fee.setGasFee(readString(p, ctxt));
+                    break;
+                case "zkpFee":
+                    fee.setZkpFee(readString(p, ctxt));
+                    break;
+                case "totalFee":
+                    fee.setTotalFee(readString(p, ctxt));
+                    break;
+                default:
+                    p.skipChildren();
+            }
+        }
+        return fee;
+    }
+}
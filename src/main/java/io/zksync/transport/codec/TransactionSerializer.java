@@ -0,0 +1,126 @@
+package io.zksync.transport.codec;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import io.zksync.domain.Signature;
+import io.zksync.domain.TimeRange;
+
+/**
+ * Base of serializers which write a transaction field by field
+ *
+ * Output matches the data binding of the annotated class: null fields are written as null,
+ * amounts as decimal strings and the unwrapped time range as top level fields.
+ */
+abstract class TransactionSerializer<T> extends StdSerializer<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    // Field names are quoted and encoded once instead of on every write
+    static final SerializableString TYPE = new SerializedString("type");
+
+    static final SerializableString ACCOUNT_ID = new SerializedString("accountId");
+
+    static final SerializableString FROM = new SerializedString("from");
+
+    static final SerializableString TO = new SerializedString("to");
+
+    static final SerializableString TOKEN = new SerializedString("token");
+
+    static final SerializableString AMOUNT = new SerializedString("amount");
+
+    static final SerializableString FEE = new SerializedString("fee");
+
+    static final SerializableString NONCE = new SerializedString("nonce");
+
+    static final SerializableString SIGNATURE = new SerializedString("signature");
+
+    static final SerializableString PUB_KEY = new SerializedString("pubKey");
+
+    static final SerializableString VALID_FROM = new SerializedString("validFrom");
+
+    static final SerializableString VALID_UNTIL = new SerializedString("validUntil");
+
+    static final SerializableString INITIATOR_ACCOUNT_ID = new SerializedString("initiatorAccountId");
+
+    static final SerializableString TARGET = new SerializedString("target");
+
+    static final SerializableString FEE_TOKEN = new SerializedString("feeToken");
+
+    static final SerializableString ACCOUNT = new SerializedString("account");
+
+    static final SerializableString NEW_PK_HASH = new SerializedString("newPkHash");
+
+    static final SerializableString ETH_AUTH_DATA = new SerializedString("ethAuthData");
+
+    static final SerializableString RECIPIENT = new SerializedString("recipient");
+
+    static final SerializableString TOKEN_BUY = new SerializedString("tokenBuy");
+
+    static final SerializableString TOKEN_SELL = new SerializedString("tokenSell");
+
+    static final SerializableString RATIO = new SerializedString("ratio");
+
+    TransactionSerializer(Class<T> type) {
+        super(type);
+    }
+
+    @Override
+    public void serialize(T value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+        writeFields(value, gen, provider);
+        gen.writeEndObject();
+    }
+
+    abstract void writeFields(T value, JsonGenerator gen, SerializerProvider provider) throws IOException;
+
+    static void writeInteger(JsonGenerator gen, SerializableString name, Integer value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    static void writeString(JsonGenerator gen, SerializableString name, String value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value);
+        }
+    }
+
+    static void writeAmount(JsonGenerator gen, SerializableString name, BigInteger value) throws IOException {
+        writeString(gen, name, value != null ? value.toString() : null);
+    }
+
+    static void writeSignature(JsonGenerator gen, Signature signature) throws IOException {
+        gen.writeFieldName(SIGNATURE);
+        if (signature == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject();
+        writeString(gen, PUB_KEY, signature.getPubKey());
+        writeString(gen, SIGNATURE, signature.getSignature());
+        gen.writeEndObject();
+    }
+
+    static void writeTimeRange(JsonGenerator gen, TimeRange timeRange) throws IOException {
+        if (timeRange == null) {
+            return;
+        }
+        gen.writeFieldName(VALID_FROM);
+        gen.writeNumber(timeRange.getValidFrom());
+        gen.writeFieldName(VALID_UNTIL);
+        gen.writeNumber(timeRange.getValidUntil());
+    }
+}
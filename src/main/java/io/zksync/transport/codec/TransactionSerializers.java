@@ -0,0 +1,173 @@
+package io.zksync.transport.codec;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import io.zksync.domain.swap.Order;
+import io.zksync.domain.transaction.ChangePubKey;
+import io.zksync.domain.transaction.ForcedExit;
+import io.zksync.domain.transaction.Transfer;
+import io.zksync.domain.transaction.Withdraw;
+import io.zksync.domain.transaction.WithdrawNFT;
+
+/**
+ * Serializers of the transactions with an unwrapped time range
+ */
+final class TransactionSerializers {
+
+    private TransactionSerializers() {
+    }
+
+    static class TransferSerializer extends TransactionSerializer<Transfer> {
+
+        private static final long serialVersionUID = 1L;
+
+        TransferSerializer() {
+            super(Transfer.class);
+        }
+
+        @Override
+        void writeFields(Transfer tx, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeFieldName(TYPE);
+            gen.writeString(tx.getType());
+            writeInteger(gen, ACCOUNT_ID, tx.getAccountId());
+            writeString(gen, FROM, tx.getFrom());
+            writeString(gen, TO, tx.getTo());
+            writeInteger(gen, TOKEN, tx.getToken());
+            writeAmount(gen, AMOUNT, tx.getAmount());
+            writeString(gen, FEE, tx.getFee());
+            writeInteger(gen, NONCE, tx.getNonce());
+            writeSignature(gen, tx.getSignature());
+            writeTimeRange(gen, tx.getTimeRange());
+        }
+    }
+
+    static class WithdrawSerializer extends TransactionSerializer<Withdraw> {
+
+        private static final long serialVersionUID = 1L;
+
+        WithdrawSerializer() {
+            super(Withdraw.class);
+        }
+
+        @Override
+        void writeFields(Withdraw tx, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeFieldName(TYPE);
+            gen.writeString(tx.getType());
+            writeInteger(gen, ACCOUNT_ID, tx.getAccountId());
+            writeString(gen, FROM, tx.getFrom());
+            writeString(gen, TO, tx.getTo());
+            writeInteger(gen, TOKEN, tx.getToken());
+            writeAmount(gen, AMOUNT, tx.getAmount());
+            writeString(gen, FEE, tx.getFee());
+            writeInteger(gen, NONCE, tx.getNonce());
+            writeSignature(gen, tx.getSignature());
+            writeTimeRange(gen, tx.getTimeRange());
+        }
+    }
+
+    static class ForcedExitSerializer extends TransactionSerializer<ForcedExit> {
+
+        private static final long serialVersionUID = 1L;
+
+        ForcedExitSerializer() {
+            super(ForcedExit.class);
+        }
+
+        @Override
+        void writeFields(ForcedExit tx, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeFieldName(TYPE);
+            gen.writeString(tx.getType());
+            writeInteger(gen, INITIATOR_ACCOUNT_ID, tx.getInitiatorAccountId());
+            writeString(gen, TARGET, tx.getTarget());
+            writeInteger(gen, TOKEN, tx.getToken());
+            writeString(gen, FEE, tx.getFee());
+            writeInteger(gen, NONCE, tx.getNonce());
+            writeSignature(gen, tx.getSignature());
+            writeTimeRange(gen, tx.getTimeRange());
+        }
+    }
+
+    static class WithdrawNFTSerializer extends TransactionSerializer<WithdrawNFT> {
+
+        private static final long serialVersionUID = 1L;
+
+        WithdrawNFTSerializer() {
+            super(WithdrawNFT.class);
+        }
+
+        @Override
+        void writeFields(WithdrawNFT tx, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeFieldName(TYPE);
+            gen.writeString(tx.getType());
+            writeInteger(gen, ACCOUNT_ID, tx.getAccountId());
+            writeString(gen, FROM, tx.getFrom());
+            writeString(gen, TO, tx.getTo());
+            writeInteger(gen, TOKEN, tx.getToken());
+            writeInteger(gen, FEE_TOKEN, tx.getFeeToken());
+            writeString(gen, FEE, tx.getFee());
+            writeInteger(gen, NONCE, tx.getNonce());
+            writeSignature(gen, tx.getSignature());
+            writeTimeRange(gen, tx.getTimeRange());
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    static class ChangePubKeySerializer extends TransactionSerializer<ChangePubKey> {
+
+        private static final long serialVersionUID = 1L;
+
+        ChangePubKeySerializer() {
+            super(ChangePubKey.class);
+        }
+
+        @Override
+        void writeFields(ChangePubKey tx, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeFieldName(TYPE);
+            gen.writeString(tx.getType());
+            writeInteger(gen, ACCOUNT_ID, tx.getAccountId());
+            writeString(gen, ACCOUNT, tx.getAccount());
+            writeString(gen, NEW_PK_HASH, tx.getNewPkHash());
+            writeInteger(gen, FEE_TOKEN, tx.getFeeToken());
+            writeString(gen, FEE, tx.getFee());
+            writeInteger(gen, NONCE, tx.getNonce());
+            writeSignature(gen, tx.getSignature());
+            // Auth data has several variants, each with its own binding
+            gen.writeFieldName(ETH_AUTH_DATA);
+            provider.defaultSerializeValue(tx.getEthAuthData(), gen);
+            writeTimeRange(gen, tx.getTimeRange());
+        }
+    }
+
+    static class OrderSerializer extends TransactionSerializer<Order> {
+
+        private static final long serialVersionUID = 1L;
+
+        OrderSerializer() {
+            super(Order.class);
+        }
+
+        @Override
+        void writeFields(Order order, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            writeInteger(gen, ACCOUNT_ID, order.getAccountId());
+            writeString(gen, RECIPIENT, order.getRecipient());
+            writeInteger(gen, NONCE, order.getNonce());
+            writeInteger(gen, TOKEN_BUY, order.getTokenBuy());
+            writeInteger(gen, TOKEN_SELL, order.getTokenSell());
+            gen.writeFieldName(RATIO);
+            if (order.getRatio() == null) {
+                gen.writeNull();
+            } else {
+                gen.writeStartArray();
+                gen.writeString(order.getRatio().component1().toString());
+                gen.writeString(order.getRatio().component2().toString());
+                gen.writeEndArray();
+            }
+            writeAmount(gen, AMOUNT, order.getAmount());
+            writeSignature(gen, order.getSignature());
+            writeTimeRange(gen, order.getTimeRange());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package io.zksync.transport.codec;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import io.zksync.domain.fee.TransactionFeeDetails;
+import io.zksync.domain.state.AccountState;
+import io.zksync.domain.state.State;
+import io.zksync.domain.swap.Order;
+import io.zksync.domain.transaction.ChangePubKey;
+import io.zksync.domain.transaction.ForcedExit;
+import io.zksync.domain.transaction.TransactionDetails;
+import io.zksync.domain.transaction.Transfer;
+import io.zksync.domain.transaction.Withdraw;
+import io.zksync.domain.transaction.WithdrawNFT;
+import io.zksync.transport.codec.TransactionSerializers.ChangePubKeySerializer;
+import io.zksync.transport.codec.TransactionSerializers.ForcedExitSerializer;
+import io.zksync.transport.codec.TransactionSerializers.OrderSerializer;
+import io.zksync.transport.codec.TransactionSerializers.TransferSerializer;
+import io.zksync.transport.codec.TransactionSerializers.WithdrawNFTSerializer;
+import io.zksync.transport.codec.TransactionSerializers.WithdrawSerializer;
+
+/**
+ * Jackson module with streaming codecs of the types on the hot path of the SDK
+ *
+ * Submitted transactions are written without reflection and `@JsonUnwrapped` handling,
+ * account state, transaction details and fees are read without reflection.
+ * The output and accepted input are the same as with plain data binding.
+ */
+public class ZkSyncJsonModule extends SimpleModule {
+
+    private static final long serialVersionUID = 1L;
+
+    @SuppressWarnings("unchecked")
+    public ZkSyncJsonModule() {
+        super("ZkSyncJsonModule");
+
+        addSerializer(Transfer.class, new TransferSerializer());
+        addSerializer(Withdraw.class, new WithdrawSerializer());
+        addSerializer(ForcedExit.class, new ForcedExitSerializer());
+        addSerializer(WithdrawNFT.class, new WithdrawNFTSerializer());
+        addSerializer(ChangePubKey.class, new ChangePubKeySerializer());
+        addSerializer(Order.class, new OrderSerializer());
+
+        addDeserializer(AccountState.class, new AccountStateDeserializer());
+        addDeserializer(State.class, new StateDeserializer());
+        addDeserializer(TransactionDetails.class, new TransactionDetailsDeserializer());
+        addDeserializer(TransactionFeeDetails.class, new TransactionFeeDetailsDeserializer());
+    }
+}
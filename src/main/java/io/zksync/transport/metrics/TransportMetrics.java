@@ -0,0 +1,101 @@
+package io.zksync.transport.metrics;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.zksync.transport.TransportEvent;
+import io.zksync.transport.TransportListener;
+import lombok.Getter;
+
+/**
+ * Default listener which aggregates transport events per JSON-RPC method
+ *
+ * <pre>
+ * TransportMetrics metrics = new TransportMetrics();
+ * ZkSyncTransport transport = HttpTransport.builder().url(url).listener(metrics).build();
+ * ...
+ * metrics.getMethod("account_info").getTotal().getPercentile(0.99);
+ * </pre>
+ */
+public class TransportMetrics implements TransportListener {
+
+    private final Map<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+
+    @Override
+    public void onRequest(TransportEvent event) {
+        methods.computeIfAbsent(event.getMethod(), MethodMetrics::new).record(event);
+    }
+
+    /**
+     * @param method - JSON-RPC method name
+     * @return Metrics of the method or null if it was never called
+     */
+    public MethodMetrics getMethod(String method) {
+        return methods.get(method);
+    }
+
+    /**
+     * @return Metrics of every method called so far
+     */
+    public Map<String, MethodMetrics> getMethods() {
+        return Collections.unmodifiableMap(new HashMap<>(methods));
+    }
+
+    public void reset() {
+        methods.clear();
+    }
+
+    /**
+     * Counters and latency histograms of one JSON-RPC method
+     */
+    @Getter
+    public static class MethodMetrics {
+
+        private final String method;
+
+        private final LatencyHistogram total = new LatencyHistogram();
+
+        private final LatencyHistogram serialization = new LatencyHistogram();
+
+        private final LatencyHistogram network = new LatencyHistogram();
+
+        private final LatencyHistogram deserialization = new LatencyHistogram();
+
+        private final LongAdder requests = new LongAdder();
+
+        private final LongAdder serverErrors = new LongAdder();
+
+        private final LongAdder failures = new LongAdder();
+
+        private final LongAdder requestBytes = new LongAdder();
+
+        private final LongAdder responseBytes = new LongAdder();
+
+        MethodMetrics(String method) {
+            this.method = method;
+        }
+
+        void record(TransportEvent event) {
+            total.record(event.getTotalNanos());
+            serialization.record(event.getSerializationNanos());
+            network.record(event.getNetworkNanos());
+            deserialization.record(event.getDeserializationNanos());
+            requests.add(event.getBatchSize());
+            requestBytes.add(event.getRequestBytes());
+            responseBytes.add(event.getResponseBytes());
+            switch (event.getOutcome()) {
+                case SERVER_ERROR:
+                    serverErrors.increment();
+                    break;
+                case FAILURE:
+                    failures.increment();
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package io.zksync.wallet;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.tuples.generated.Tuple2;
+import org.web3j.tx.gas.ContractGasProvider;
+
+import io.reactivex.annotations.Nullable;
+import io.zksync.domain.TimeRange;
+import io.zksync.domain.fee.TransactionFee;
+import io.zksync.domain.state.AccountState;
+import io.zksync.domain.swap.Order;
+import io.zksync.domain.token.NFT;
+import io.zksync.domain.token.TokenId;
+import io.zksync.domain.token.Tokens;
+import io.zksync.domain.transaction.ZkSyncTransaction;
+import io.zksync.ethereum.EthereumProvider;
+import io.zksync.provider.AsyncProvider;
+import io.zksync.transport.Deadline;
+
+/**
+ * View of a wallet which limits every operation as a whole to the deadline
+ *
+ * Used by wallets which can not pass the deadline down to their provider. Operations still run
+ * to the end, only their results are abandoned once the deadline passes.
+ */
+class DeadlineZkASyncWallet implements ZkASyncWallet {
+
+    private final ZkASyncWallet wallet;
+
+    private final Deadline deadline;
+
+    DeadlineZkASyncWallet(ZkASyncWallet wallet, Deadline deadline) {
+        this.wallet = wallet;
+        this.deadline = deadline;
+    }
+
+    @Override
+    public CompletableFuture<String> setSigningKey(TransactionFee fee, Integer nonce, boolean onchainAuth, TimeRange timeRange) {
+        return bound(() -> wallet.setSigningKey(fee, nonce, onchainAuth, timeRange));
+    }
+
+    @Override
+    public CompletableFuture<String> syncTransfer(String to, BigInteger amount, TransactionFee fee, Integer nonce, TimeRange timeRange) {
+        return bound(() -> wallet.syncTransfer(to, amount, fee, nonce, timeRange));
+    }
+
+    @Override
+    public CompletableFuture<String> syncWithdraw(String ethAddress, BigInteger amount, TransactionFee fee, Integer nonce,
+            boolean fastProcessing, TimeRange timeRange) {
+        return bound(() -> wallet.syncWithdraw(ethAddress, amount, fee, nonce, fastProcessing, timeRange));
+    }
+
+    @Override
+    public CompletableFuture<String> syncForcedExit(String target, TransactionFee fee, Integer nonce, TimeRange timeRange) {
+        return bound(() -> wallet.syncForcedExit(target, fee, nonce, timeRange));
+    }
+
+    @Override
+    public CompletableFuture<String> syncMintNFT(String recipient, String contentHash, TransactionFee fee, Integer nonce) {
+        return bound(() -> wallet.syncMintNFT(recipient, contentHash, fee, nonce));
+    }
+
+    @Override
+    public CompletableFuture<String> syncWithdrawNFT(String to, NFT token, TransactionFee fee, Integer nonce, TimeRange timeRange) {
+        return bound(() -> wallet.syncWithdrawNFT(to, token, fee, nonce, timeRange));
+    }
+
+    @Override
+    public CompletableFuture<List<String>> syncTransferNFT(String to, NFT token, TransactionFee fee, Integer nonce, TimeRange timeRange) {
+        return bound(() -> wallet.syncTransferNFT(to, token, fee, nonce, timeRange));
+    }
+
+    @Override
+    public CompletableFuture<String> syncSwap(Order order1, Order order2, BigInteger amount1, BigInteger amount2, TransactionFee fee,
+            Integer nonce) {
+        return bound(() -> wallet.syncSwap(order1, order2, amount1, amount2, fee, nonce));
+    }
+
+    @Override
+    public <T extends TokenId> CompletableFuture<Order> buildSignedOrder(String recipient, T sell, T buy,
+            Tuple2<BigInteger, BigInteger> ratio, BigInteger amount, Integer nonce, TimeRange timeRange) {
+        return bound(() -> wallet.buildSignedOrder(recipient, sell, buy, ratio, amount, nonce, timeRange));
+    }
+
+    @Override
+    public <T extends TokenId> CompletableFuture<Order> buildSignedLimitOrder(String recipient, T sell, T buy,
+            Tuple2<BigInteger, BigInteger> ratio, Integer nonce, TimeRange timeRange) {
+        return bound(() -> wallet.buildSignedLimitOrder(recipient, sell, buy, ratio, nonce, timeRange));
+    }
+
+    @Override
+    public <T extends ZkSyncTransaction> CompletableFuture<String> submitTransaction(SignedTransaction<T> transaction) {
+        return bound(() -> wallet.submitTransaction(transaction));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isSigningKeySet() {
+        return bound(wallet::isSigningKeySet);
+    }
+
+    @Override
+    public CompletableFuture<AccountState> getState() {
+        return bound(wallet::getState);
+    }
+
+    @Override
+    public AsyncProvider getProvider() {
+        return wallet.getProvider().withDeadline(deadline);
+    }
+
+    @Override
+    public CompletableFuture<String> getPubKeyHash() {
+        return bound(wallet::getPubKeyHash);
+    }
+
+    @Override
+    public CompletableFuture<Integer> getAccountId() {
+        return bound(wallet::getAccountId);
+    }
+
+    @Override
+    public CompletableFuture<Integer> getNonce() {
+        return bound(wallet::getNonce);
+    }
+
+    @Override
+    public CompletableFuture<Tokens> getTokens() {
+        return bound(wallet::getTokens);
+    }
+
+    @Override
+    public ZkASyncWallet withDeadline(Deadline deadline) {
+        return new DeadlineZkASyncWallet(wallet, deadline);
+    }
+
+    @Override
+    public String getAddress() {
+        return wallet.getAddress();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> enable2FA() {
+        return bound(wallet::enable2FA);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> disable2FA(@Nullable String pubKeyHash) {
+        return bound(() -> wallet.disable2FA(pubKeyHash));
+    }
+
+    @Override
+    public EthereumProvider createEthereumProvider(Web3j web3j, ContractGasProvider contractGasProvider) {
+        return wallet.createEthereumProvider(web3j, contractGasProvider);
+    }
+
+    private <T> CompletableFuture<T> bound(Supplier<CompletableFuture<T>> operation) {
+        if (deadline.isExpired()) {
+            final CompletableFuture<T> expired = new CompletableFuture<>();
+            expired.completeExceptionally(deadline.exceeded());
+            return expired;
+        }
+        return deadline.bound(operation.get());
+    }
+}
@@ -35,6 +35,7 @@ import io.zksync.provider.AsyncProvider;
 import io.zksync.signer.EthSignature;
 import io.zksync.signer.EthSigner;
 import io.zksync.signer.ZkSigner;
+import io.zksync.transport.Deadline;
 
 public class DefaultZkASyncWallet<A extends ChangePubKeyVariant, S extends EthSigner<A>> implements ZkASyncWallet {
 
@@ -44,6 +45,8 @@ public class DefaultZkASyncWallet<A extends ChangePubKeyVariant, S extends EthSi
     private ZkSigner zkSigner;
     private AsyncProvider provider;
 
+    private Deadline deadline;
+
     private Integer accountId;
 
     private String pubKeyHash;
@@ -57,140 +60,156 @@ public class DefaultZkASyncWallet<A extends ChangePubKeyVariant, S extends EthSi
         this.accountId = null;
         this.pubKeyHash = null;
 
-        this.helper = new TransactionBuildHelper(this, this.getTokens().join());
+        // Lookups read the latest token set of the provider, which is normally a cached snapshot
+        this.helper = new TransactionBuildHelper(this, () -> this.getTokens().join());
+    }
+
+    private DefaultZkASyncWallet(DefaultZkASyncWallet<A, S> wallet, Deadline deadline) {
+        this(wallet.ethSigner, wallet.zkSigner, wallet.provider.withDeadline(deadline));
+
+        this.deadline = deadline;
+        this.accountId = wallet.accountId;
+        this.pubKeyHash = wallet.pubKeyHash;
+    }
+
+    @Override
+    public DefaultZkASyncWallet<A, S> withDeadline(Deadline deadline) {
+        return new DefaultZkASyncWallet<>(this, deadline);
     }
 
     @Override
     public CompletableFuture<String> setSigningKey(TransactionFee fee, Integer nonce, boolean onchainAuth,
             TimeRange timeRange) {
         if (onchainAuth) {
-            return this.helper.<ChangePubKeyOnchain>changePubKey(this.getPubKeyHash().join(), fee, nonce, timeRange)
-                .thenApply(changePubKey -> {
+            return bound(this.getPubKeyHash()
+                .thenCompose(pubKeyHash -> this.helper.<ChangePubKeyOnchain>changePubKey(pubKeyHash, fee, nonce, timeRange))
+                .thenCompose(changePubKey -> {
                     zkSigner.signChangePubKey(changePubKey);
 
-                    return this.submitSignedTransaction(changePubKey).join();
-                });
+                    return this.submitSignedTransaction(changePubKey);
+                }));
         } else {
-            return this.helper.<A>changePubKey(this.getPubKeyHash().join(), fee, nonce, timeRange)
-                .thenApply(changePubKey -> {
-                    final ChangePubKey<A> changePubKeyAuth = ethSigner.signAuth(changePubKey).join();
-                    final EthSignature ethSignature = ethSigner.signTransaction(changePubKey, nonce, this.helper.getToken(fee.getFeeToken()), fee.getFee()).join();
-                    zkSigner.signChangePubKey(changePubKeyAuth);
-
-                    return this.submitSignedTransaction(changePubKeyAuth, ethSignature).join();
-                });
+            return bound(this.getPubKeyHash()
+                .thenCompose(pubKeyHash -> this.helper.<A>changePubKey(pubKeyHash, fee, nonce, timeRange))
+                .thenCompose(changePubKey -> ethSigner.signAuth(changePubKey)
+                    .thenCompose(changePubKeyAuth -> ethSigner.signTransaction(changePubKey, nonce, this.helper.getToken(fee.getFeeToken()), fee.getFee())
+                        .thenCompose(ethSignature -> {
+                            zkSigner.signChangePubKey(changePubKeyAuth);
+
+                            return this.submitSignedTransaction(changePubKeyAuth, ethSignature);
+                        }))));
         }
     }
 
     @Override
     public CompletableFuture<String> syncTransfer(String to, BigInteger amount, TransactionFee fee, Integer nonce,
             TimeRange timeRange) {
-            return this.helper.transfer(to, amount, fee, nonce, timeRange)
-                .thenApply(transfer -> {
-                    final EthSignature ethSignature = ethSigner.signTransaction(transfer, nonce, this.helper.getToken(fee.getFeeToken()), fee.getFee()).join();
-                    zkSigner.signTransfer(transfer);
+            return bound(this.helper.transfer(to, amount, fee, nonce, timeRange)
+                .thenCompose(transfer -> ethSigner.signTransaction(transfer, nonce, this.helper.getToken(fee.getFeeToken()), fee.getFee())
+                    .thenCompose(ethSignature -> {
+                        zkSigner.signTransfer(transfer);
 
-                    return this.submitSignedTransaction(transfer, ethSignature).join();
-                });
+                        return this.submitSignedTransaction(transfer, ethSignature);
+                    })));
     }
 
     @Override
     public CompletableFuture<String> syncWithdraw(String ethAddress, BigInteger amount, TransactionFee fee,
             Integer nonce, boolean fastProcessing, TimeRange timeRange) {
-            return this.helper.withdraw(ethAddress, amount, fee, nonce, timeRange)
-                .thenApply(withdraw -> {
-                    final EthSignature ethSignature = ethSigner.signTransaction(withdraw, nonce, this.helper.getToken(fee.getFeeToken()), fee.getFee()).join();
-                    zkSigner.signWithdraw(withdraw);
+            return bound(this.helper.withdraw(ethAddress, amount, fee, nonce, timeRange)
+                .thenCompose(withdraw -> ethSigner.signTransaction(withdraw, nonce, this.helper.getToken(fee.getFeeToken()), fee.getFee())
+                    .thenCompose(ethSignature -> {
+                        zkSigner.signWithdraw(withdraw);
 
-                    return this.submitSignedTransaction(withdraw, ethSignature, fastProcessing).join();
-                });
+                        return this.submitSignedTransaction(withdraw, ethSignature, fastProcessing);
+                    })));
     }
 
     @Override
     public CompletableFuture<String> syncForcedExit(String target, TransactionFee fee, Integer nonce,
             TimeRange timeRange) {
-            return this.helper.forcedExit(target, fee, nonce, timeRange)
-                .thenApply(forcedExit -> {
-                    final EthSignature ethSignature = ethSigner.signTransaction(forcedExit, nonce, this.helper.getToken(fee.getFeeToken()), fee.getFee()).join();
-                    zkSigner.signForcedExit(forcedExit);
+            return bound(this.helper.forcedExit(target, fee, nonce, timeRange)
+                .thenCompose(forcedExit -> ethSigner.signTransaction(forcedExit, nonce, this.helper.getToken(fee.getFeeToken()), fee.getFee())
+                    .thenCompose(ethSignature -> {
+                        zkSigner.signForcedExit(forcedExit);
 
-                    return this.submitSignedTransaction(forcedExit, ethSignature).join();
-                });
+                        return this.submitSignedTransaction(forcedExit, ethSignature);
+                    })));
     }
 
     @Override
     public CompletableFuture<String> syncMintNFT(String recipient, String contentHash, TransactionFee fee,
             Integer nonce) {
-            return this.helper.mintNFT(recipient, contentHash, fee, nonce)
-                .thenApply(mintNft -> {
-                    final EthSignature ethSignature = ethSigner.signTransaction(mintNft, nonce, this.helper.getToken(fee.getFeeToken()), fee.getFee()).join();
-                    zkSigner.signMintNFT(mintNft);
+            return bound(this.helper.mintNFT(recipient, contentHash, fee, nonce)
+                .thenCompose(mintNft -> ethSigner.signTransaction(mintNft, nonce, this.helper.getToken(fee.getFeeToken()), fee.getFee())
+                    .thenCompose(ethSignature -> {
+                        zkSigner.signMintNFT(mintNft);
 
-                    return this.submitSignedTransaction(mintNft, ethSignature).join();
-                });
+                        return this.submitSignedTransaction(mintNft, ethSignature);
+                    })));
     }
 
     @Override
     public CompletableFuture<String> syncWithdrawNFT(String to, NFT token, TransactionFee fee, Integer nonce,
             TimeRange timeRange) {
-        return this.helper.withdrawNFT(to, token, fee, nonce, timeRange)
-                .thenApply(withdrawNft -> {
-                    final EthSignature ethSignature = ethSigner.signTransaction(withdrawNft, nonce, this.helper.getToken(fee.getFeeToken()), fee.getFee()).join();
-                    zkSigner.signWithdrawNFT(withdrawNft);
+        return bound(this.helper.withdrawNFT(to, token, fee, nonce, timeRange)
+                .thenCompose(withdrawNft -> ethSigner.signTransaction(withdrawNft, nonce, this.helper.getToken(fee.getFeeToken()), fee.getFee())
+                    .thenCompose(ethSignature -> {
+                        zkSigner.signWithdrawNFT(withdrawNft);
 
-                    return this.submitSignedTransaction(withdrawNft, ethSignature).join();
-                });
+                        return this.submitSignedTransaction(withdrawNft, ethSignature);
+                    })));
     }
 
     @Override
     public CompletableFuture<List<String>> syncTransferNFT(String to, NFT token, TransactionFee fee, Integer nonce,
             TimeRange timeRange) {
-        return this.helper.transferNFT(to, token, fee, nonce, timeRange)
-                .thenApply(transferNft -> {
+        return bound(this.helper.transferNFT(to, token, fee, nonce, timeRange)
+                .thenCompose(transferNft -> {
                     final Transfer nft = transferNft.component1();
                     final Transfer fees = transferNft.component2();
-                    EthSignature ethSignature = ethSigner.signBatch(Arrays.asList(nft, fees), nft.getNonce(), this.helper.getToken(fee.getFeeToken()), fee.getFee()).join();
-                    return submitSignedBatch(Arrays.asList(
-                        zkSigner.signTransfer(nft),
-                        zkSigner.signTransfer(fees)
-                    ), ethSignature).join();
-                });
+                    return ethSigner.signBatch(Arrays.asList(nft, fees), nft.getNonce(), this.helper.getToken(fee.getFeeToken()), fee.getFee())
+                        .thenCompose(ethSignature -> submitSignedBatch(Arrays.asList(
+                            zkSigner.signTransfer(nft),
+                            zkSigner.signTransfer(fees)
+                        ), ethSignature));
+                }));
     }
 
     @Override
     public CompletableFuture<String> syncSwap(Order order1, Order order2, BigInteger amount1, BigInteger amount2,
             TransactionFee fee, Integer nonce) {
-        return this.helper.swap(order1, order2, amount1, amount2, fee, nonce)
-                .thenApply(swap -> {
-                    final EthSignature ethSignature = ethSigner.signTransaction(swap, nonce, this.helper.getToken(fee.getFeeToken()), fee.getFee()).join();
-                    zkSigner.signSwap(swap);
+        return bound(this.helper.swap(order1, order2, amount1, amount2, fee, nonce)
+                .thenCompose(swap -> ethSigner.signTransaction(swap, nonce, this.helper.getToken(fee.getFeeToken()), fee.getFee())
+                    .thenCompose(ethSignature -> {
+                        zkSigner.signSwap(swap);
 
-                    return this.submitSignedTransaction(swap, ethSignature).join();
-                });
+                        return this.submitSignedTransaction(swap, ethSignature);
+                    })));
     }
 
     @Override
     public <T extends TokenId> CompletableFuture<Order> buildSignedOrder(String recipient, T sell, T buy,
             Tuple2<BigInteger, BigInteger> ratio, BigInteger amount, Integer nonce, TimeRange timeRange) {
-        return this.helper.order(recipient, sell, buy, ratio, amount, nonce, timeRange)
-                .thenApply(order -> {
-                    final EthSignature ethSignature = ethSigner.signOrder(order, sell, buy).join();
-                    order.setEthereumSignature(ethSignature);
+        return bound(this.helper.order(recipient, sell, buy, ratio, amount, nonce, timeRange)
+                .thenCompose(order -> ethSigner.signOrder(order, sell, buy)
+                    .thenApply(ethSignature -> {
+                        order.setEthereumSignature(ethSignature);
 
-                    return zkSigner.signOrder(order);
-                });
+                        return zkSigner.signOrder(order);
+                    })));
     }
 
     @Override
     public <T extends TokenId> CompletableFuture<Order> buildSignedLimitOrder(String recipient, T sell, T buy,
             Tuple2<BigInteger, BigInteger> ratio, Integer nonce, TimeRange timeRange) {
-        return this.helper.limitOrder(recipient, sell, buy, ratio, nonce, timeRange)
-                .thenApply(order -> {
-                    final EthSignature ethSignature = ethSigner.signOrder(order, sell, buy).join();
-                    order.setEthereumSignature(ethSignature);
+        return bound(this.helper.limitOrder(recipient, sell, buy, ratio, nonce, timeRange)
+                .thenCompose(order -> ethSigner.signOrder(order, sell, buy)
+                    .thenApply(ethSignature -> {
+                        order.setEthereumSignature(ethSignature);
 
-                    return zkSigner.signOrder(order);
-                });
+                        return zkSigner.signOrder(order);
+                    })));
     }
 
     @Override
@@ -264,37 +283,40 @@ public class DefaultZkASyncWallet<A extends ChangePubKeyVariant, S extends EthSi
     public CompletableFuture<Boolean> enable2FA() {
         final Long timestamp = System.currentTimeMillis();
 
-        return ethSigner.signToggle(true, timestamp).thenApply(ethSignature -> {
-                final Toggle2FA toggle2Fa = new Toggle2FA(
-                    true,
-                    this.getAccountId().join(),
-                    timestamp,
-                    ethSignature,
-                    null
-                );
-
-                return provider.toggle2FA(toggle2Fa).join();
-            });
+        return bound(ethSigner.signToggle(true, timestamp)
+            .thenCompose(ethSignature -> this.getAccountId()
+                .thenCompose(accountId -> {
+                    final Toggle2FA toggle2Fa = new Toggle2FA(
+                        true,
+                        accountId,
+                        timestamp,
+                        ethSignature,
+                        null
+                    );
+
+                    return provider.toggle2FA(toggle2Fa);
+                })));
     }
 
     @Override
     public CompletableFuture<Boolean> disable2FA(@Nullable String pubKeyHash) {
         final Long timestamp = System.currentTimeMillis();
 
-        return (Strings.isEmpty(pubKeyHash) ?
+        return bound((Strings.isEmpty(pubKeyHash) ?
                     ethSigner.signToggle(false, timestamp) :
                     ethSigner.signToggle(false, timestamp, pubKeyHash)
-            ).thenApply(ethSignature -> {
-                final Toggle2FA toggle2Fa = new Toggle2FA(
-                    false,
-                    this.getAccountId().join(),
-                    timestamp,
-                    ethSignature,
-                    pubKeyHash
-                );
-
-                return provider.toggle2FA(toggle2Fa).join();
-            });
+            ).thenCompose(ethSignature -> this.getAccountId()
+                .thenCompose(accountId -> {
+                    final Toggle2FA toggle2Fa = new Toggle2FA(
+                        false,
+                        accountId,
+                        timestamp,
+                        ethSignature,
+                        pubKeyHash
+                    );
+
+                    return provider.toggle2FA(toggle2Fa);
+                })));
     }
 
     private CompletableFuture<String> submitSignedTransaction(ZkSyncTransaction signedTransaction,
@@ -321,6 +343,13 @@ public class DefaultZkASyncWallet<A extends ChangePubKeyVariant, S extends EthSi
         );
     }
 
+    /**
+     * Limit the whole operation to the deadline of the view, including signing between provider calls
+     */
+    private <T> CompletableFuture<T> bound(CompletableFuture<T> operation) {
+        return deadline != null ? deadline.bound(operation) : operation;
+    }
+
     private AccountState setAccountInfo(AccountState state) {
         this.accountId = state.getId();
         this.pubKeyHash = state.getCommitted().getPubKeyHash();
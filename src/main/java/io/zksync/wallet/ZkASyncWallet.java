@@ -23,6 +23,7 @@ import io.zksync.provider.AsyncProvider;
 import io.zksync.provider.DefaultAsyncProvider;
 import io.zksync.signer.EthSigner;
 import io.zksync.signer.ZkSigner;
+import io.zksync.transport.Deadline;
 import io.zksync.transport.ZkSyncTransport;
 
 public interface ZkASyncWallet {
@@ -222,6 +223,22 @@ public interface ZkASyncWallet {
      */
     CompletableFuture<Tokens> getTokens();
 
+    /**
+     * Get view of this wallet whose operations must complete before the deadline
+     *
+     * Every provider call of an operation gets only the time left until the deadline,
+     * so a chain like nonce, fee and submit fails within the budget as a whole.
+     *
+     * Wallets which do not override it abandon the result of an operation once the deadline passes,
+     * the operation itself still runs to the end.
+     *
+     * @param deadline - Deadline shared by all operations made through the view
+     * @return - Wallet which applies the deadline to every operation
+     */
+    default ZkASyncWallet withDeadline(Deadline deadline) {
+        return new DeadlineZkASyncWallet(this, deadline);
+    }
+
     /**
      * Get current wallet address
      * 
@@ -0,0 +1,44 @@
+package io.zksync.provider;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+import io.zksync.domain.contract.ContractAddress;
+
+public class CachingAsyncProviderTest {
+
+    @Test
+    public void testConcurrentMissesShareRequest() {
+        AsyncProvider delegate = mock(AsyncProvider.class);
+        CompletableFuture<ContractAddress> response = new CompletableFuture<>();
+        when(delegate.contractAddress()).thenReturn(response);
+        CachingAsyncProvider provider = new CachingAsyncProvider(delegate);
+
+        CompletableFuture<ContractAddress> first = provider.contractAddress();
+        CompletableFuture<ContractAddress> second = provider.contractAddress();
+        first.cancel(false);
+        response.complete(new ContractAddress("0x1", "0x2"));
+
+        assertEquals("0x1", second.join().getMainContract());
+        assertEquals("0x1", provider.contractAddress().join().getMainContract());
+        verify(delegate, times(1)).contractAddress();
+    }
+
+    @Test
+    public void testFailureIsNotCached() {
+        AsyncProvider delegate = mock(AsyncProvider.class);
+        CompletableFuture<ContractAddress> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new RuntimeException("Unavailable"));
+        when(delegate.contractAddress())
+                .thenReturn(failed)
+                .thenReturn(CompletableFuture.completedFuture(new ContractAddress("0x1", "0x2")));
+        CachingAsyncProvider provider = new CachingAsyncProvider(delegate);
+
+        assertThrows(Exception.class, () -> provider.contractAddress().join());
+        assertEquals("0x1", provider.contractAddress().join().getMainContract());
+    }
+}
@@ -0,0 +1,125 @@
+package io.zksync.provider;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import io.zksync.domain.contract.ContractAddress;
+import io.zksync.domain.state.AccountState;
+import io.zksync.domain.token.Token;
+import io.zksync.domain.token.Tokens;
+
+public class CachingProviderTest {
+
+    @Test
+    public void testCachesUntilExpired() throws InterruptedException {
+        Provider delegate = mock(Provider.class);
+        when(delegate.contractAddress()).thenReturn(new ContractAddress("0x1", "0x2"));
+        CachingProvider provider = new CachingProvider(delegate, CachePolicy.builder()
+                .ttl(CachedMethod.CONTRACT_ADDRESS, Duration.ofMillis(100))
+                .build());
+
+        assertEquals("0x1", provider.contractAddress().getMainContract());
+        assertEquals("0x1", provider.contractAddress().getMainContract());
+        verify(delegate, times(1)).contractAddress();
+
+        Thread.sleep(150);
+        provider.contractAddress();
+        verify(delegate, times(2)).contractAddress();
+
+        CacheStats stats = provider.getStats(CachedMethod.CONTRACT_ADDRESS);
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        Provider delegate = mock(Provider.class);
+        Token eth = new Token(0, "0x0", "ETH", 18);
+        Token usdc = new Token(1, "0x1", "USDC", 6);
+        when(delegate.getTokenPrice(any())).thenReturn(BigDecimal.ONE);
+        CachingProvider provider = new CachingProvider(delegate, CachePolicy.builder().maximumSize(1).build());
+
+        provider.getTokenPrice(eth);
+        provider.getTokenPrice(usdc);
+        provider.getTokenPrice(eth);
+
+        verify(delegate, times(2)).getTokenPrice(eth);
+        assertEquals(2, provider.getStats().getEvictions());
+    }
+
+    @Test
+    public void testTokensMissDoesNotReloadTokenSet() {
+        Provider delegate = mock(Provider.class);
+        when(delegate.getTokens()).thenReturn(new Tokens(Collections.emptyMap()));
+        CachingProvider provider = new CachingProvider(delegate);
+
+        provider.getTokens();
+        provider.getTokens();
+
+        verify(delegate, times(1)).getTokens();
+        verify(delegate, never()).updateTokenSet();
+    }
+
+    @Test
+    public void testInvalidate() {
+        Provider delegate = mock(Provider.class);
+        when(delegate.getConfirmationsForEthOpAmount()).thenReturn(BigInteger.TEN);
+        CachingProvider provider = new CachingProvider(delegate);
+
+        provider.getConfirmationsForEthOpAmount();
+        provider.invalidate(CachedMethod.CONFIRMATIONS_FOR_ETH_OP_AMOUNT);
+        provider.getConfirmationsForEthOpAmount();
+
+        verify(delegate, times(2)).getConfirmationsForEthOpAmount();
+    }
+
+    @Test
+    public void testStateCachedByLowerCaseAddress() {
+        Provider delegate = mock(Provider.class);
+        when(delegate.getState(anyString())).thenReturn(new AccountState());
+        CachingProvider provider = new CachingProvider(delegate, CachePolicy.builder()
+                .ttl(CachedMethod.ACCOUNT_STATE, Duration.ofMinutes(1))
+                .build());
+
+        provider.getState("0xAbC");
+        provider.getState("0xabc");
+        verify(delegate, times(1)).getState(anyString());
+
+        provider.invalidateState("0xABC");
+        provider.getState("0xabc");
+        verify(delegate, times(2)).getState(anyString());
+    }
+
+    @Test
+    public void testConcurrentMissesLoadOnce() throws InterruptedException {
+        Provider delegate = mock(Provider.class);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.contractAddress()).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return new ContractAddress("0x1", "0x2");
+        });
+        CachingProvider provider = new CachingProvider(delegate);
+
+        CompletableFuture<ContractAddress> first = CompletableFuture.supplyAsync(provider::contractAddress);
+        loading.await();
+        CompletableFuture<ContractAddress> second = CompletableFuture.supplyAsync(provider::contractAddress);
+        Thread.sleep(50);
+        release.countDown();
+
+        assertEquals("0x1", first.join().getMainContract());
+        assertEquals("0x1", second.join().getMainContract());
+        verify(delegate, times(1)).contractAddress();
+        assertEquals(2, provider.getStats(CachedMethod.CONTRACT_ADDRESS).getMisses());
+    }
+}
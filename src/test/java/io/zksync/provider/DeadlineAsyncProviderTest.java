@@ -0,0 +1,29 @@
+package io.zksync.provider;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.junit.Test;
+
+import io.zksync.domain.state.AccountState;
+import io.zksync.exception.ZkSyncDeadlineExceededException;
+import io.zksync.transport.Deadline;
+
+public class DeadlineAsyncProviderTest {
+
+    @Test
+    public void testDefaultViewAbandonsCallAfterDeadline() {
+        AsyncProvider provider = mock(AsyncProvider.class, CALLS_REAL_METHODS);
+        CompletableFuture<AccountState> pending = new CompletableFuture<>();
+        doReturn(pending).when(provider).getState("0x1");
+
+        CompletableFuture<AccountState> state = provider.withDeadline(Deadline.after(Duration.ofMillis(50))).getState("0x1");
+
+        CompletionException error = assertThrows(CompletionException.class, state::join);
+        assertTrue(error.getCause() instanceof ZkSyncDeadlineExceededException);
+    }
+}
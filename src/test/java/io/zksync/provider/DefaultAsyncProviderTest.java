@@ -0,0 +1,75 @@
+package io.zksync.provider;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import io.zksync.domain.state.AccountState;
+import io.zksync.domain.transaction.TransactionDetails;
+import io.zksync.testing.ZkSyncStubServer;
+import io.zksync.transport.HttpTransport;
+import io.zksync.transport.WarmUpReport;
+
+public class DefaultAsyncProviderTest {
+
+    @Test
+    public void testWarmUp() throws IOException {
+        try (ZkSyncStubServer stubServer = ZkSyncStubServer.builder().start()) {
+            DefaultAsyncProvider provider = new DefaultAsyncProvider(new HttpTransport(stubServer.getUrl()));
+
+            WarmUpReport report = provider.warmUp().join();
+
+            assertEquals(Arrays.asList(WarmUpReport.CONNECT, WarmUpReport.TOKENS, WarmUpReport.CONTRACT_ADDRESS),
+                    new ArrayList<>(report.getStages().keySet()));
+            assertEquals(3, stubServer.getRequests());
+
+            // Primed values are served without further requests
+            assertEquals(ZkSyncStubServer.MAIN_CONTRACT, provider.contractAddress().join().getMainContract());
+            assertNotNull(provider.getTokens().join().getToken("ETH"));
+            assertEquals(3, stubServer.getRequests());
+        }
+    }
+
+    @Test
+    public void testGetStates() throws IOException {
+        try (ZkSyncStubServer stubServer = ZkSyncStubServer.builder().start()) {
+            DefaultAsyncProvider provider = new DefaultAsyncProvider(new HttpTransport(stubServer.getUrl()));
+            List<String> addresses = new ArrayList<>();
+            for (int i = 0; i < 250; i++) {
+                addresses.add(String.format("0x%040x", i));
+            }
+
+            Map<String, AccountState> states = provider.getStates(addresses).join();
+
+            assertEquals(250, states.size());
+            for (String address : addresses) {
+                assertEquals(address, states.get(address).getAddress());
+            }
+            assertEquals(250, stubServer.getRequests());
+        }
+    }
+
+    @Test
+    public void testGetTransactionDetailsReportsFailuresPerHash() throws IOException {
+        try (ZkSyncStubServer stubServer = ZkSyncStubServer.builder().errors(0.5, -32000).start()) {
+            DefaultAsyncProvider provider = new DefaultAsyncProvider(new HttpTransport(stubServer.getUrl()));
+            List<String> hashes = new ArrayList<>();
+            for (int i = 0; i < 250; i++) {
+                hashes.add(String.format("sync-tx:%064x", i));
+            }
+
+            BatchResult<TransactionDetails> result = provider.getTransactionDetails(hashes).join();
+
+            assertEquals(250, result.getValues().size() + result.getErrors().size());
+            assertTrue(result.hasErrors());
+            assertTrue(result.getValues().values().stream().allMatch(TransactionDetails::getExecuted));
+            assertTrue(result.getErrors().values().stream().allMatch(error -> error.getError().getCode() == -32000));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package io.zksync.provider;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+import io.zksync.domain.fee.TransactionFeeDetails;
+import io.zksync.domain.fee.TransactionFeeRequest;
+import io.zksync.domain.fee.TransactionType;
+import io.zksync.signer.SigningUtils;
+
+public class FeeQuoteCacheTest {
+
+    private static final TransactionFeeRequest REQUEST = TransactionFeeRequest.builder()
+            .transactionType(TransactionType.TRANSFER)
+            .address("0xede35562d3555e61120a151b3c8e8e91d83a378a")
+            .tokenIdentifier("ETH")
+            .build();
+
+    @Test
+    public void testServesStaleQuoteWhileRefreshing() throws Exception {
+        List<CompletableFuture<TransactionFeeDetails>> responses = new ArrayList<>();
+        FeeQuoteCache cache = FeeQuoteCache.builder()
+                .maxAge(Duration.ZERO, Duration.ofMinutes(1))
+                .refreshExecutor(Runnable::run)
+                .build();
+
+        CompletableFuture<TransactionFeeDetails> first = cache.quote(REQUEST, request -> {
+            CompletableFuture<TransactionFeeDetails> response = new CompletableFuture<>();
+            responses.add(response);
+            return response;
+        });
+        responses.get(0).complete(fee("1000"));
+        assertEquals("1000", first.join().getTotalFee());
+
+        Thread.sleep(1);
+        CompletableFuture<TransactionFeeDetails> stale = cache.quote(REQUEST, request -> {
+            CompletableFuture<TransactionFeeDetails> response = new CompletableFuture<>();
+            responses.add(response);
+            return response;
+        });
+        CompletableFuture<TransactionFeeDetails> staleAgain = cache.quote(REQUEST, request -> {
+            throw new AssertionError("Refresh is already in flight");
+        });
+
+        assertEquals("1000", stale.join().getTotalFee());
+        assertEquals("1000", staleAgain.join().getTotalFee());
+        assertEquals(2, responses.size());
+        assertEquals(2, cache.getStaleHits());
+
+        responses.get(1).complete(fee("2000"));
+        Thread.sleep(1);
+        assertEquals("2000", cache.quote(REQUEST, request -> responses.get(1)).join().getTotalFee());
+    }
+
+    @Test
+    public void testSafetyMargin() {
+        FeeQuoteCache cache = FeeQuoteCache.builder()
+                .safetyMargin(0.1)
+                .build();
+
+        TransactionFeeDetails quote = cache.quote(REQUEST, request -> CompletableFuture.completedFuture(fee("123456789"))).join();
+
+        BigInteger expected = SigningUtils.closestGreaterOrEqPackableTransactionFee(BigInteger.valueOf(135802468));
+        assertEquals(expected, quote.getTotalFeeInteger());
+        assertEquals(1, cache.getMisses());
+        assertEquals(expected, cache.quote(REQUEST, request -> {
+            throw new AssertionError("Quote is fresh");
+        }).join().getTotalFeeInteger());
+        assertEquals(1, cache.getHits());
+    }
+
+    private static TransactionFeeDetails fee(String totalFee) {
+        return new TransactionFeeDetails("0", "0", totalFee, "0", totalFee);
+    }
+}
@@ -0,0 +1,60 @@
+package io.zksync.provider;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+import io.zksync.domain.token.Token;
+import io.zksync.domain.token.Tokens;
+import io.zksync.transport.ZkSyncTransport;
+
+public class TokenRegistryTest {
+
+    @Test
+    public void testConcurrentLoadsShareRequest() {
+        ZkSyncTransport transport = mock(ZkSyncTransport.class);
+        CompletableFuture<Tokens> response = new CompletableFuture<>();
+        doReturn(response).when(transport).sendAsync(eq("tokens"), anyList(), any());
+        TokenRegistry registry = new TokenRegistry(transport);
+
+        CompletableFuture<Tokens> first = registry.refresh();
+        CompletableFuture<Tokens> second = registry.refresh();
+        response.complete(tokens("ETH"));
+
+        assertSame(first.join(), second.join());
+        assertSame(first.join(), registry.getTokens());
+        assertThrows(UnsupportedOperationException.class, () -> registry.getTokens().getTokens().clear());
+        verify(transport, times(1)).sendAsync(eq("tokens"), anyList(), any());
+    }
+
+    @Test
+    public void testBackgroundRefresh() throws InterruptedException {
+        ZkSyncTransport transport = mock(ZkSyncTransport.class);
+        doReturn(CompletableFuture.completedFuture(tokens("ETH")))
+                .doReturn(CompletableFuture.completedFuture(tokens("ETH", "USDC")))
+                .when(transport).sendAsync(eq("tokens"), anyList(), any());
+
+        try (TokenRegistry registry = new TokenRegistry(transport)) {
+            assertNull(registry.getTokens().getTokenBySymbol("USDC"));
+
+            registry.refreshEvery(Duration.ofMillis(20));
+            Thread.sleep(200);
+
+            assertNotNull(registry.getToken("USDC"));
+        }
+    }
+
+    private static Tokens tokens(String... symbols) {
+        Map<String, Token> tokens = new HashMap<>();
+        for (int i = 0; i < symbols.length; i++) {
+            tokens.put(symbols[i], new Token(i, "0x" + i, symbols[i], 18));
+        }
+        return new Tokens(tokens);
+    }
+}
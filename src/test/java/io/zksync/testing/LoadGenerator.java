@@ -0,0 +1,150 @@
+package io.zksync.testing;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.zksync.transport.metrics.LatencyHistogram;
+
+/**
+ * Closed-loop load generator which drives every wallet from its own thread
+ *
+ * Each wallet runs the operation back to back for the given duration, so the offered load
+ * grows with the number of wallets. Latency of every operation is recorded, failed
+ * operations are counted but not timed.
+ *
+ * <pre>
+ * LoadGenerator.Report report = LoadGenerator.run(wallets, Duration.ofSeconds(10),
+ *         (wallet, iteration) -> wallet.syncTransfer(recipient, amount, fee, null, null));
+ * </pre>
+ */
+public class LoadGenerator {
+
+    @FunctionalInterface
+    public interface Operation<W> {
+
+        /**
+         * @param wallet - Wallet driven by the calling thread
+         * @param iteration - Sequence number of the call for this wallet, starting at 0
+         */
+        void run(W wallet, int iteration) throws Exception;
+    }
+
+    private LoadGenerator() {
+    }
+
+    /**
+     * @param wallets - Wallets to drive concurrently, typically one per account
+     * @param duration - How long to keep generating load
+     * @param operation - Work done in one iteration, such as a transfer
+     * @return Throughput and latency of the operation
+     */
+    public static <W> Report run(List<W> wallets, Duration duration, Operation<W> operation) throws InterruptedException {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder failures = new LongAdder();
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>(wallets.size());
+        final long[] deadline = new long[1];
+
+        for (int i = 0; i < wallets.size(); i++) {
+            final W wallet = wallets.get(i);
+            final Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int iteration = 0; System.nanoTime() - deadline[0] < 0; iteration++) {
+                    final long begin = System.nanoTime();
+                    try {
+                        operation.run(wallet, iteration);
+                        latency.record(System.nanoTime() - begin);
+                    } catch (Exception e) {
+                        failures.increment();
+                    }
+                }
+            }, "zksync-load-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+
+        final long begin = System.nanoTime();
+        deadline[0] = begin + duration.toNanos();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        final Duration elapsed = Duration.ofNanos(System.nanoTime() - begin);
+
+        return new Report(wallets.size(), latency.getCount(), failures.sum(), elapsed,
+                latency.getPercentile(0.5), latency.getPercentile(0.9), latency.getPercentile(0.99));
+    }
+
+    public static class Report {
+
+        private final int wallets;
+
+        private final long operations;
+
+        private final long failures;
+
+        private final Duration elapsed;
+
+        private final Duration p50;
+
+        private final Duration p90;
+
+        private final Duration p99;
+
+        private Report(int wallets, long operations, long failures, Duration elapsed, Duration p50, Duration p90, Duration p99) {
+            this.wallets = wallets;
+            this.operations = operations;
+            this.failures = failures;
+            this.elapsed = elapsed;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+        }
+
+        public int getWallets() {
+            return wallets;
+        }
+
+        public long getOperations() {
+            return operations;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        public Duration getElapsed() {
+            return elapsed;
+        }
+
+        public Duration getP50() {
+            return p50;
+        }
+
+        public Duration getP90() {
+            return p90;
+        }
+
+        public Duration getP99() {
+            return p99;
+        }
+
+        public double getOperationsPerSecond() {
+            return operations / (elapsed.toNanos() / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d wallets: %.1f ops/s, %d ok, %d failed, p50 %d ms, p90 %d ms, p99 %d ms",
+                    wallets, getOperationsPerSecond(), operations, failures, p50.toMillis(), p90.toMillis(), p99.toMillis());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package io.zksync.testing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.zksync.domain.state.AccountState;
+import io.zksync.domain.transaction.Transfer;
+import io.zksync.provider.DefaultProvider;
+import io.zksync.provider.Provider;
+import io.zksync.transport.HttpTransport;
+
+public class LoadGeneratorTest {
+
+    @Test
+    public void testLoadAgainstStubServer() throws Exception {
+        try (ZkSyncStubServer server = ZkSyncStubServer.builder().latency(Duration.ofMillis(2)).start()) {
+            HttpTransport transport = new HttpTransport(server.getUrl());
+            List<Provider> providers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                providers.add(new DefaultProvider(transport));
+            }
+
+            LoadGenerator.Report report = LoadGenerator.run(providers, Duration.ofMillis(300), (provider, iteration) -> {
+                String address = "0x" + Integer.toHexString(System.identityHashCode(provider));
+                AccountState state = provider.getState(address);
+                assertEquals(iteration, state.getCommitted().getNonce());
+                provider.submitTx(Transfer.builder().from(address).amount(BigInteger.ONE).fee("0").nonce(iteration).build(), false);
+            });
+
+            assertEquals(0, report.getFailures());
+            assertTrue(report.getOperations() > 0);
+            assertEquals(report.getOperations(), server.getTransactions());
+            assertTrue(report.getP99().compareTo(Duration.ofMillis(4)) >= 0);
+        }
+    }
+}
@@ -0,0 +1,578 @@
+package io.zksync.testing;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * In-process stand-in for the ZkSync JSON-RPC API
+ *
+ * Implements the methods called by the SDK with plausible responses: accounts start with the
+ * signing key set and a large ETH balance, every submitted transaction increments the nonce
+ * of its account and is reported as executed. Latency and errors can be injected to measure
+ * the client under realistic conditions. Optionally the same API is served over WebSocket,
+ * where every message is answered on its own thread, so responses may arrive out of order.
+ *
+ * <pre>
+ * try (ZkSyncStubServer server = ZkSyncStubServer.builder().latency(Duration.ofMillis(20)).start()) {
+ *     ZkSyncTransport transport = new HttpTransport(server.getUrl());
+ * }
+ * </pre>
+ */
+public class ZkSyncStubServer implements Closeable {
+
+    public static final String PUB_KEY_HASH = "sync:18e8446d7748f2de52b28345bdbc76160e6b35eb";
+
+    private static final String ETH_ADDRESS = "0x0000000000000000000000000000000000000000";
+
+    public static final String MAIN_CONTRACT = "0xaBEA9132b05A70803a4E85094fD0e1800777fBEF";
+
+    public static final String GOV_CONTRACT = "0x34460C0EB5074C29A9F6FE13b8e7E23A0D08aF01";
+
+    private static final String BALANCE = "1000000000000000000000";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HttpServer server;
+
+    private final ExecutorService executor;
+
+    private final Duration latency;
+
+    private final double errorRate;
+
+    private final int errorCode;
+
+    private final Map<String, AtomicInteger> nonces = new ConcurrentHashMap<>();
+
+    private final AtomicLong transactions = new AtomicLong();
+
+    private final AtomicLong requests = new AtomicLong();
+
+    private final Set<String> unanswered;
+
+    private final Set<String> garbled;
+
+    private final WebSocketEndpoint webSocket;
+
+    private ZkSyncStubServer(Builder builder) throws IOException {
+        this.latency = builder.latency;
+        this.errorRate = builder.errorRate;
+        this.errorCode = builder.errorCode;
+        this.unanswered = new HashSet<>(builder.unanswered);
+        this.garbled = new HashSet<>(builder.garbled);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "zksync-stub-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+        this.webSocket = builder.webSocket ? new WebSocketEndpoint() : null;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/jsrpc";
+    }
+
+    /**
+     * @return Address of the WebSocket endpoint, if it was enabled by `Builder.webSocket`
+     */
+    public String getWebSocketUrl() {
+        return "ws://localhost:" + webSocket.serverSocket.getLocalPort() + "/jsrpc";
+    }
+
+    /**
+     * @return Number of WebSocket connections accepted so far
+     */
+    public int getWebSocketConnections() {
+        return webSocket.connections.get();
+    }
+
+    /**
+     * Close every open WebSocket connection from the server side, as a restarting server would
+     */
+    public void closeWebSocketConnections() {
+        webSocket.closeAll();
+    }
+
+    /**
+     * @return Number of JSON-RPC requests handled, counting every item of a batch
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * @return Number of transactions accepted by `tx_submit` and `submit_txs_batch`
+     */
+    public long getTransactions() {
+        return transactions.get();
+    }
+
+    @Override
+    public void close() {
+        if (webSocket != null) {
+            webSocket.close();
+        }
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        final JsonNode request;
+        try (InputStream body = exchange.getRequestBody()) {
+            request = objectMapper.readTree(body);
+        }
+
+        if (!latency.isZero()) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(latency.toNanos());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        final JsonNode response = respondAll(request, false);
+
+        final byte[] bytes = objectMapper.writeValueAsBytes(response);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    /**
+     * @param skipUnanswered - Leave out the methods which must stay unanswered
+     * @return Response to a request or a batch, null if nothing is left to answer
+     */
+    private JsonNode respondAll(JsonNode request, boolean skipUnanswered) {
+        if (request.isArray()) {
+            final ArrayNode items = objectMapper.createArrayNode();
+            for (JsonNode item : request) {
+                if (!skipUnanswered || !unanswered.contains(item.path("method").asText())) {
+                    items.add(respond(item));
+                }
+            }
+            return items.size() == 0 ? null : items;
+        }
+        if (skipUnanswered && unanswered.contains(request.path("method").asText())) {
+            return null;
+        }
+        return respond(request);
+    }
+
+    private ObjectNode respond(JsonNode request) {
+        requests.incrementAndGet();
+        final ObjectNode response = objectMapper.createObjectNode();
+        response.put("jsonrpc", "2.0");
+        response.set("id", request.get("id"));
+
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            return error(response, errorCode, "Injected error");
+        }
+
+        final JsonNode params = request.path("params");
+        switch (request.path("method").asText()) {
+            case "account_info":
+                response.set("result", account(params.path(0).asText()));
+                break;
+            case "tokens":
+                response.set("result", tokens());
+                break;
+            case "contract_address":
+                response.putObject("result")
+                        .put("mainContract", MAIN_CONTRACT)
+                        .put("govContract", GOV_CONTRACT);
+                break;
+            case "get_tx_fee":
+            case "get_txs_batch_fee_in_wei":
+                response.set("result", fee());
+                break;
+            case "tx_submit":
+                response.put("result", submit(params.path(0)));
+                break;
+            case "submit_txs_batch":
+                final ArrayNode hashes = response.putArray("result");
+                for (JsonNode signed : params.path(0)) {
+                    hashes.add(submit(signed.path("tx")));
+                }
+                break;
+            case "tx_info":
+            case "ethop_info":
+                response.set("result", executed());
+                break;
+            default:
+                return error(response, -32601, "Method not found");
+        }
+        return response;
+    }
+
+    private ObjectNode account(String address) {
+        final int nonce = nonces.computeIfAbsent(address.toLowerCase(), key -> new AtomicInteger()).get();
+        final ObjectNode account = objectMapper.createObjectNode();
+        account.put("address", address);
+        account.put("id", Math.abs(address.toLowerCase().hashCode() % 1_000_000));
+        account.putObject("depositing").putObject("balances");
+        account.set("committed", state(nonce));
+        account.set("verified", state(nonce));
+        return account;
+    }
+
+    private ObjectNode state(int nonce) {
+        final ObjectNode state = objectMapper.createObjectNode();
+        state.put("nonce", nonce);
+        state.put("pubKeyHash", PUB_KEY_HASH);
+        state.putObject("balances").put("ETH", BALANCE);
+        state.putObject("nfts");
+        state.putObject("mintedNfts");
+        return state;
+    }
+
+    private ObjectNode tokens() {
+        final ObjectNode tokens = objectMapper.createObjectNode();
+        final ObjectNode eth = tokens.putObject("ETH");
+        eth.put("id", 0);
+        eth.put("address", ETH_ADDRESS);
+        eth.put("symbol", "ETH");
+        eth.put("decimals", 18);
+        return tokens;
+    }
+
+    private ObjectNode fee() {
+        final ObjectNode fee = objectMapper.createObjectNode();
+        fee.put("gasTxAmount", "1000");
+        fee.put("gasPriceWei", "1000000000");
+        fee.put("gasFee", "1000000000000");
+        fee.put("zkpFee", "1000000000000");
+        fee.put("totalFee", "2000000000000");
+        return fee;
+    }
+
+    private String submit(JsonNode tx) {
+        final String from = tx.path("from").asText(tx.path("account").asText());
+        nonces.computeIfAbsent(from.toLowerCase(), key -> new AtomicInteger()).incrementAndGet();
+        return String.format("sync-tx:%064x", transactions.incrementAndGet());
+    }
+
+    private ObjectNode executed() {
+        final ObjectNode details = objectMapper.createObjectNode();
+        details.put("executed", true);
+        details.put("success", true);
+        final ObjectNode block = details.putObject("block");
+        block.put("blockNumber", 1);
+        block.put("committed", true);
+        block.put("verified", true);
+        return details;
+    }
+
+    private static ObjectNode error(ObjectNode response, int code, String message) {
+        final ObjectNode error = response.putObject("error");
+        error.put("code", code);
+        error.put("message", message);
+        return response;
+    }
+
+    /**
+     * Minimal WebSocket server (RFC 6455) which is just enough for JSON-RPC text messages
+     */
+    private class WebSocketEndpoint implements Closeable {
+
+        private static final String ACCEPT_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+        private static final int OPCODE_TEXT = 0x1;
+
+        private static final int OPCODE_CLOSE = 0x8;
+
+        private static final int OPCODE_PING = 0x9;
+
+        private static final int OPCODE_PONG = 0xA;
+
+        private final ServerSocket serverSocket;
+
+        private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+
+        private final AtomicInteger connections = new AtomicInteger();
+
+        WebSocketEndpoint() throws IOException {
+            this.serverSocket = new ServerSocket(0, 0, InetAddress.getByName("localhost"));
+            executor.execute(this::accept);
+        }
+
+        void closeAll() {
+            for (Socket socket : sockets) {
+                try {
+                    // Going away
+                    write(socket, OPCODE_CLOSE, new byte[] { 0x03, (byte) 0xE9 });
+                } catch (IOException e) {
+                    // Connection is already gone
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                serverSocket.close();
+            } catch (IOException e) {
+                // Nothing left to release
+            }
+            for (Socket socket : sockets) {
+                closeQuietly(socket);
+            }
+        }
+
+        private void accept() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    final Socket socket = serverSocket.accept();
+                    executor.execute(() -> serve(socket));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void serve(Socket socket) {
+            sockets.add(socket);
+            try {
+                final DataInputStream input = new DataInputStream(socket.getInputStream());
+                handshake(socket, input);
+                connections.incrementAndGet();
+                for (;;) {
+                    final int head = input.readUnsignedByte();
+                    final int opcode = head & 0x0F;
+                    final byte[] payload = readPayload(input);
+                    if (opcode == OPCODE_TEXT) {
+                        final String text = new String(payload, StandardCharsets.UTF_8);
+                        executor.execute(() -> answer(socket, text));
+                    } else if (opcode == OPCODE_PING) {
+                        write(socket, OPCODE_PONG, payload);
+                    } else if (opcode == OPCODE_CLOSE) {
+                        write(socket, OPCODE_CLOSE, payload);
+                        return;
+                    }
+                }
+            } catch (IOException e) {
+                // Client went away
+            } finally {
+                sockets.remove(socket);
+                closeQuietly(socket);
+            }
+        }
+
+        private void handshake(Socket socket, DataInputStream input) throws IOException {
+            String key = null;
+            for (String line = readLine(input); !line.isEmpty(); line = readLine(input)) {
+                if (line.toLowerCase().startsWith("sec-websocket-key:")) {
+                    key = line.substring(line.indexOf(':') + 1).trim();
+                }
+            }
+            if (key == null) {
+                throw new IOException("Not a WebSocket handshake");
+            }
+
+            final String accept;
+            try {
+                accept = Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-1")
+                        .digest((key + ACCEPT_GUID).getBytes(StandardCharsets.ISO_8859_1)));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IOException(e);
+            }
+            final String response = "HTTP/1.1 101 Switching Protocols\r\n"
+                    + "Upgrade: websocket\r\n"
+                    + "Connection: Upgrade\r\n"
+                    + "Sec-WebSocket-Accept: " + accept + "\r\n\r\n";
+            synchronized (socket) {
+                socket.getOutputStream().write(response.getBytes(StandardCharsets.ISO_8859_1));
+                socket.getOutputStream().flush();
+            }
+        }
+
+        /**
+         * Read one header line byte by byte, so that frames after the handshake stay in the stream
+         */
+        private String readLine(DataInputStream input) throws IOException {
+            final StringBuilder line = new StringBuilder();
+            for (int next = input.readUnsignedByte(); next != '\n'; next = input.readUnsignedByte()) {
+                if (next != '\r') {
+                    line.append((char) next);
+                }
+            }
+            return line.toString();
+        }
+
+        private byte[] readPayload(DataInputStream input) throws IOException {
+            final int second = input.readUnsignedByte();
+            long length = second & 0x7F;
+            if (length == 126) {
+                length = input.readUnsignedShort();
+            } else if (length == 127) {
+                length = input.readLong();
+            }
+            final byte[] mask = new byte[4];
+            if ((second & 0x80) != 0) {
+                input.readFully(mask);
+            }
+            final byte[] payload = new byte[(int) length];
+            input.readFully(payload);
+            for (int i = 0; i < payload.length; i++) {
+                payload[i] ^= mask[i % 4];
+            }
+            return payload;
+        }
+
+        private void answer(Socket socket, String text) {
+            try {
+                if (!latency.isZero()) {
+                    TimeUnit.NANOSECONDS.sleep(latency.toNanos());
+                }
+                final JsonNode request = objectMapper.readTree(text);
+                final JsonNode response = respondAll(request, true);
+                if (response != null) {
+                    byte[] bytes = objectMapper.writeValueAsBytes(response);
+                    if (garbled.contains(request.path("method").asText())) {
+                        bytes = Arrays.copyOf(bytes, bytes.length - 1);
+                    }
+                    write(socket, OPCODE_TEXT, bytes);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                closeQuietly(socket);
+            }
+        }
+
+        private void write(Socket socket, int opcode, byte[] payload) throws IOException {
+            final ByteArrayOutputStream frame = new ByteArrayOutputStream(payload.length + 10);
+            frame.write(0x80 | opcode);
+            if (payload.length < 126) {
+                frame.write(payload.length);
+            } else if (payload.length <= 0xFFFF) {
+                frame.write(126);
+                frame.write(payload.length >>> 8);
+                frame.write(payload.length & 0xFF);
+            } else {
+                frame.write(127);
+                for (int shift = 56; shift >= 0; shift -= 8) {
+                    frame.write((int) ((long) payload.length >>> shift) & 0xFF);
+                }
+            }
+            frame.write(payload);
+            synchronized (socket) {
+                socket.getOutputStream().write(frame.toByteArray());
+                socket.getOutputStream().flush();
+            }
+        }
+
+        private void closeQuietly(Socket socket) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Nothing left to release
+            }
+        }
+    }
+
+    public static class Builder {
+
+        private Duration latency = Duration.ZERO;
+
+        private double errorRate;
+
+        private int errorCode = -32000;
+
+        private boolean webSocket;
+
+        private final Set<String> unanswered = new HashSet<>();
+
+        private final Set<String> garbled = new HashSet<>();
+
+        Builder() {
+        }
+
+        /**
+         * Serve the API over WebSocket as well, see `getWebSocketUrl`
+         */
+        public Builder webSocket() {
+            this.webSocket = true;
+            return this;
+        }
+
+        /**
+         * @param method - Method whose requests are never answered over WebSocket, e.g. to provoke timeouts
+         */
+        public Builder unanswered(String method) {
+            this.unanswered.add(method);
+            return this;
+        }
+
+        /**
+         * @param method - Method whose responses over WebSocket are cut short and are not valid JSON
+         */
+        public Builder garbled(String method) {
+            this.garbled.add(method);
+            return this;
+        }
+
+        /**
+         * @param latency - Delay of every HTTP response
+         */
+        public Builder latency(Duration latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        /**
+         * @param errorRate - Share of requests answered with an error, between 0 and 1
+         * @param errorCode - JSON-RPC error code of injected errors
+         */
+        public Builder errors(double errorRate, int errorCode) {
+            this.errorRate = errorRate;
+            this.errorCode = errorCode;
+            return this;
+        }
+
+        public ZkSyncStubServer start() throws IOException {
+            return new ZkSyncStubServer(this);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package io.zksync.transport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.junit.Test;
+
+import io.zksync.exception.ZkSyncException;
+import io.zksync.exception.ZkSyncRateLimitException;
+import io.zksync.transport.response.ZksSentTransaction;
+
+public class ConcurrencyLimitingTransportTest {
+
+    @Test
+    public void testQueuesRequestsOverLimit() {
+        ZkSyncTransport delegate = mock(ZkSyncTransport.class);
+        List<CompletableFuture<String>> responses = new ArrayList<>();
+        doAnswer(invocation -> {
+            CompletableFuture<String> response = new CompletableFuture<>();
+            responses.add(response);
+            return response;
+        }).when(delegate).sendAsync(anyString(), anyList(), any());
+        ConcurrencyLimitingTransport transport = ConcurrencyLimitingTransport.builder(delegate)
+                .limits(2, 1, 10)
+                .queue(1, Duration.ofSeconds(5))
+                .build();
+
+        CompletableFuture<String> first = transport.sendAsync("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class);
+        transport.sendAsync("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class);
+        CompletableFuture<String> third = transport.sendAsync("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class);
+        CompletableFuture<String> rejected = transport.sendAsync("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class);
+
+        assertEquals(2, responses.size());
+        assertEquals(1, transport.getQueued());
+        CompletionException error = assertThrows(CompletionException.class, rejected::join);
+        assertTrue(error.getCause() instanceof ZkSyncRateLimitException);
+
+        responses.get(0).complete("hash");
+        assertEquals("hash", first.join());
+        assertEquals(3, responses.size());
+        assertFalse(third.isDone());
+    }
+
+    @Test
+    public void testShrinksWhenThrottled() {
+        ZkSyncTransport delegate = mock(ZkSyncTransport.class);
+        CompletableFuture<String> throttled = new CompletableFuture<>();
+        throttled.completeExceptionally(new ZkSyncException(new ZkSyncError(HttpTransport.HTTP_TOO_MANY_REQUESTS, "Too many requests")));
+        doReturn(throttled).when(delegate).sendAsync(anyString(), anyList(), any());
+        ConcurrencyLimitingTransport transport = ConcurrencyLimitingTransport.builder(delegate)
+                .limits(20, 2, 100)
+                .build();
+
+        for (int i = 0; i < 50; i++) {
+            CompletableFuture<String> result = transport.sendAsync("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class);
+            assertThrows(CompletionException.class, result::join);
+        }
+
+        assertEquals(2, transport.getLimit());
+        assertEquals(0, transport.getInFlight());
+    }
+}
@@ -0,0 +1,79 @@
+package io.zksync.transport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import io.zksync.transport.response.ZksSentTransaction;
+
+public class HedgingTransportTest {
+
+    private static final HedgingPolicy POLICY = HedgingPolicy.builder()
+            .initialDelay(Duration.ofMillis(20))
+            .build();
+
+    @Test
+    public void testSlowReadIsHedged() {
+        ZkSyncTransport delegate = mock(ZkSyncTransport.class);
+        CompletableFuture<String> slow = new CompletableFuture<>();
+        doReturn(slow, CompletableFuture.completedFuture("hash")).when(delegate).sendAsync(anyString(), anyList(), any());
+        HedgingTransport transport = new HedgingTransport(delegate, POLICY);
+
+        String result = transport.<String, ZksSentTransaction>sendAsync("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class).join();
+
+        assertEquals("hash", result);
+        assertTrue(slow.isCancelled());
+        verify(delegate, times(2)).sendAsync(anyString(), anyList(), any());
+    }
+
+    @Test
+    public void testDelayDoesNotShrinkWhenHedgesWin() {
+        ZkSyncTransport delegate = mock(ZkSyncTransport.class);
+        doAnswer(new Answer<CompletableFuture<String>>() {
+            private int calls;
+
+            @Override
+            public CompletableFuture<String> answer(InvocationOnMock invocation) {
+                // Primaries never answer, every hedge answers at once
+                return calls++ % 2 == 0 ? new CompletableFuture<>() : CompletableFuture.completedFuture("hash");
+            }
+        }).when(delegate).sendAsync(anyString(), anyList(), any());
+        HedgingTransport transport = new HedgingTransport(delegate, HedgingPolicy.builder()
+                .initialDelay(Duration.ofMillis(20))
+                .minDelay(Duration.ofMillis(1))
+                .build());
+
+        for (int i = 0; i < 16; i++) {
+            transport.sendAsync("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class).join();
+        }
+
+        assertTrue(transport.hedgeDelayNanos("tx_info") >= Duration.ofMillis(20).toNanos());
+    }
+
+    @Test
+    public void testSubmitIsNeverHedged() throws Exception {
+        ZkSyncTransport delegate = mock(ZkSyncTransport.class);
+        CompletableFuture<String> slow = new CompletableFuture<>();
+        doReturn(slow).when(delegate).sendAsync(anyString(), anyList(), any());
+        HedgingTransport transport = new HedgingTransport(delegate, POLICY);
+
+        CompletableFuture<String> result = transport.sendAsync("tx_submit", Collections.emptyList(), ZksSentTransaction.class);
+        Thread.sleep(100);
+
+        assertFalse(result.isDone());
+        verify(delegate, times(1)).sendAsync(anyString(), anyList(), any());
+    }
+
+    @Test
+    public void testWriteMethodsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new HedgingTransport(mock(ZkSyncTransport.class),
+                HedgingPolicy.builder().methods(Collections.singleton("submit_txs_batch")).build()));
+    }
+}
@@ -0,0 +1,311 @@
+package io.zksync.transport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpServer;
+
+import io.zksync.domain.transaction.TransactionDetails;
+import io.zksync.exception.ZkSyncDeadlineExceededException;
+import io.zksync.testing.ZkSyncStubServer;
+import io.zksync.transport.metrics.TransportMetrics;
+import io.zksync.transport.response.ZksSentTransaction;
+import io.zksync.transport.response.ZksTokens;
+import io.zksync.transport.response.ZksTransactionDetails;
+import okhttp3.OkHttpClient;
+
+public class HttpTransportTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AtomicInteger httpCalls = new AtomicInteger();
+
+    private HttpServer server;
+
+    private String url;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            httpCalls.incrementAndGet();
+            final JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            final JsonNode response;
+            if (request.isArray()) {
+                final List<JsonNode> items = new ArrayList<>();
+                request.forEach(item -> items.add(echo(item)));
+                // Batch responses may come in any order
+                Collections.reverse(items);
+                response = objectMapper.createArrayNode().addAll(items);
+            } else {
+                response = echo(request);
+            }
+            final byte[] body = objectMapper.writeValueAsBytes(response);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testSendAsync() {
+        HttpTransport transport = new HttpTransport(url);
+
+        String result = transport.<String, ZksSentTransaction>sendAsync("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class).join();
+
+        assertEquals("hash", result);
+        assertEquals(1, httpCalls.get());
+    }
+
+    @Test
+    public void testBuilderWithExternalClient() {
+        OkHttpClient client = new OkHttpClient();
+        HttpTransport transport = HttpTransport.builder()
+                .url(url)
+                .httpClient(client)
+                .callTimeout(Duration.ofSeconds(1))
+                .preferHttp2(false)
+                .build();
+
+        String result = transport.send("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class);
+
+        assertEquals("hash", result);
+        assertEquals(1, client.connectionPool().connectionCount());
+    }
+
+    @Test
+    public void testAfterburner() {
+        HttpTransport transport = HttpTransport.builder().url(url).afterburner(true).build();
+
+        assertEquals("hash", transport.send("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class));
+        assertEquals("hash", transport.<String, ZksSentTransaction>sendAsync("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class).join());
+    }
+
+    @Test
+    public void testSendAsyncError() {
+        HttpTransport transport = new HttpTransport(url);
+
+        CompletableFuture<String> result = transport.sendAsync("tx_info", Collections.singletonList("error"), ZksSentTransaction.class);
+
+        assertThrows(Exception.class, result::join);
+    }
+
+    @Test
+    public void testCoalescedSendAsync() {
+        HttpTransport transport = new HttpTransport(url, Duration.ofSeconds(1), 3);
+
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (String hash : Arrays.asList("hash1", "hash2", "hash3")) {
+            results.add(transport.sendAsync("tx_info", Collections.singletonList(hash), ZksSentTransaction.class));
+        }
+
+        assertEquals("hash1", results.get(0).join());
+        assertEquals("hash2", results.get(1).join());
+        assertEquals("hash3", results.get(2).join());
+        assertEquals(1, httpCalls.get());
+    }
+
+    @Test
+    public void testCoalescingWindowFlush() {
+        HttpTransport transport = new HttpTransport(url, Duration.ofMillis(10), 100);
+
+        CompletableFuture<String> first = transport.sendAsync("tx_info", Collections.singletonList("hash1"), ZksSentTransaction.class);
+        CompletableFuture<String> second = transport.sendAsync("tx_info", Collections.singletonList("hash2"), ZksSentTransaction.class);
+
+        assertEquals("hash1", first.join());
+        assertEquals("hash2", second.join());
+        assertEquals(1, httpCalls.get());
+    }
+
+    @Test
+    public void testSendBatch() {
+        HttpTransport transport = new HttpTransport(url);
+        List<ZkSyncRequest> requests = Arrays.asList(
+                ZkSyncRequest.builder().method("tx_info").params(Collections.singletonList("hash1")).build(),
+                ZkSyncRequest.builder().method("tx_info").params(Collections.singletonList("error")).build(),
+                ZkSyncRequest.builder().method("tx_info").params(Collections.singletonList("hash3")).build());
+
+        List<CompletableFuture<String>> results = transport.sendBatch(requests, ZksSentTransaction.class);
+
+        assertEquals("hash1", results.get(0).join());
+        assertThrows(Exception.class, results.get(1)::join);
+        assertEquals("hash3", results.get(2).join());
+        assertEquals(1, httpCalls.get());
+    }
+
+    @Test
+    public void testListenerMetrics() {
+        TransportMetrics metrics = new TransportMetrics();
+        HttpTransport transport = HttpTransport.builder().url(url).listener(metrics).build();
+
+        transport.send("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class);
+        assertThrows(Exception.class, transport.sendAsync("tx_info", Collections.singletonList("error"), ZksSentTransaction.class)::join);
+
+        TransportMetrics.MethodMetrics txInfo = metrics.getMethod("tx_info");
+        assertEquals(2, txInfo.getTotal().getCount());
+        assertEquals(2, txInfo.getRequests().sum());
+        assertEquals(1, txInfo.getServerErrors().sum());
+        assertEquals(0, txInfo.getFailures().sum());
+        assertTrue(txInfo.getRequestBytes().sum() > 0);
+        assertTrue(txInfo.getResponseBytes().sum() > 0);
+    }
+
+    @Test
+    public void testSendAsyncDeadline() throws IOException {
+        try (ZkSyncStubServer slowServer = ZkSyncStubServer.builder().latency(Duration.ofSeconds(2)).start()) {
+            HttpTransport transport = new HttpTransport(slowServer.getUrl());
+            Deadline deadline = Deadline.after(Duration.ofMillis(100));
+
+            long start = System.nanoTime();
+            CompletableFuture<String> result = transport.sendAsync("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class, deadline);
+
+            CompletionException error = assertThrows(CompletionException.class, result::join);
+            assertTrue(error.getCause() instanceof ZkSyncDeadlineExceededException);
+            assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos());
+
+            CompletableFuture<String> late = transport.sendAsync("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class, deadline);
+            assertTrue(late.isCompletedExceptionally());
+        }
+    }
+
+    @Test
+    public void testCompletionExecutor() {
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "zksync-completion"));
+        try {
+            HttpTransport transport = HttpTransport.builder().url(url)
+                    .completionExecutor(executor)
+                    .build();
+
+            String thread = transport.<String, ZksSentTransaction>sendAsync("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class)
+                    .thenApply(result -> Thread.currentThread().getName())
+                    .join();
+            assertEquals("zksync-completion", thread);
+
+            CompletableFuture<String> error = transport.sendAsync("tx_info", Collections.singletonList("error"), ZksSentTransaction.class);
+            assertThrows(CompletionException.class, error::join);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testWarmUp() throws IOException {
+        try (ZkSyncStubServer stubServer = ZkSyncStubServer.builder().start()) {
+            HttpTransport transport = HttpTransport.builder()
+                    .url(stubServer.getUrl())
+                    .warmUpConnections(3)
+                    .build();
+
+            WarmUpReport report = transport.warmUp().join();
+
+            assertEquals(3, report.getConnections());
+            assertEquals(3, stubServer.getRequests());
+            assertNotNull(report.getStage(WarmUpReport.CONNECT));
+        }
+    }
+
+    @Test
+    public void testPriorityLanes() throws IOException {
+        try (ZkSyncStubServer slowServer = ZkSyncStubServer.builder().latency(Duration.ofMillis(200)).start();
+                HttpTransport transport = HttpTransport.builder()
+                        .url(slowServer.getUrl())
+                        .lane(Collections.singleton("tx_info"), 1)
+                        .build()) {
+
+            List<CompletableFuture<TransactionDetails>> polls = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                polls.add(transport.sendAsync("tx_info", Collections.singletonList("hash" + i), ZksTransactionDetails.class));
+            }
+
+            long start = System.nanoTime();
+            transport.sendAsync("tokens", Collections.emptyList(), ZksTokens.class).join();
+
+            // Polls are served one at a time by their lane, other methods do not wait for them
+            assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos());
+            assertFalse(polls.get(polls.size() - 1).isDone());
+            polls.forEach(CompletableFuture::join);
+        }
+    }
+
+    @Test
+    public void testBatchIsSplitByLane() throws IOException {
+        try (ZkSyncStubServer slowServer = ZkSyncStubServer.builder().latency(Duration.ofMillis(200)).start();
+                HttpTransport transport = HttpTransport.builder()
+                        .url(slowServer.getUrl())
+                        .lane(Collections.singleton("tx_info"), 1)
+                        .build()) {
+            for (int i = 0; i < 3; i++) {
+                transport.sendAsync("tx_info", Collections.singletonList("hash" + i), ZksTransactionDetails.class);
+            }
+
+            List<CompletableFuture<TransactionDetails>> results = transport.sendBatch(Arrays.asList(
+                    ZkSyncRequest.builder().method("ethop_info").params(Collections.singletonList(1)).build(),
+                    ZkSyncRequest.builder().method("tx_info").params(Collections.singletonList("hash")).build()),
+                    ZksTransactionDetails.class);
+            results.get(0).join();
+
+            // Poll in the batch waits for its lane, the rest of the batch does not
+            assertFalse(results.get(1).isDone());
+            results.get(1).join();
+        }
+    }
+
+    @Test
+    public void testCloseReleasesLanesOnly() throws IOException {
+        try (ZkSyncStubServer stubServer = ZkSyncStubServer.builder().start()) {
+            HttpTransport transport = HttpTransport.builder()
+                    .url(stubServer.getUrl())
+                    .lane(Collections.singleton("tx_info"), 1)
+                    .build();
+            transport.close();
+
+            assertThrows(CompletionException.class,
+                    () -> transport.sendAsync("tx_info", Collections.singletonList("hash"), ZksTransactionDetails.class).join());
+            // Shared client of the default lane stays usable by other transports
+            assertNotNull(transport.sendAsync("tokens", Collections.emptyList(), ZksTokens.class).join());
+        }
+    }
+
+    private ObjectNode echo(JsonNode request) {
+        final ObjectNode response = objectMapper.createObjectNode();
+        response.set("id", request.get("id"));
+        response.put("jsonrpc", "2.0");
+        final JsonNode param = ((ArrayNode) request.get("params")).get(0);
+        if ("error".equals(param.asText())) {
+            response.putObject("error").put("code", 101).put("message", "Test error");
+        } else {
+            response.set("result", param);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,95 @@
+package io.zksync.transport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+import io.zksync.exception.ZkSyncException;
+import io.zksync.transport.response.ZksSentTransaction;
+
+public class LoadBalancingTransportTest {
+
+    @Test
+    public void testFailingEndpointIsEjected() {
+        ZkSyncTransport failing = mock(ZkSyncTransport.class);
+        ZkSyncTransport working = mock(ZkSyncTransport.class);
+        CompletableFuture<String> failure = new CompletableFuture<>();
+        failure.completeExceptionally(new IOException("Connection refused"));
+        doReturn(failure).when(failing).sendAsync(anyString(), anyList(), any());
+        doReturn(CompletableFuture.completedFuture("hash")).when(working).sendAsync(anyString(), anyList(), any());
+
+        try (LoadBalancingTransport transport = new LoadBalancingTransport(Arrays.asList(failing, working), Duration.ofHours(1), 0.5, 0.4)) {
+            for (int i = 0; i < 10; i++) {
+                transport.sendAsync("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class)
+                        .exceptionally(error -> null)
+                        .join();
+            }
+
+            assertFalse(transport.getStats().get(0).isHealthy());
+            assertTrue(transport.getStats().get(1).isHealthy());
+            verify(failing, times(1)).sendAsync(anyString(), anyList(), any());
+        }
+    }
+
+    @Test
+    public void testServerErrorDoesNotEjectEndpoint() {
+        ZkSyncTransport endpoint = mock(ZkSyncTransport.class);
+        CompletableFuture<String> failure = new CompletableFuture<>();
+        failure.completeExceptionally(new ZkSyncException(new ZkSyncError(101, "Invalid params")));
+        doReturn(failure).when(endpoint).sendAsync(anyString(), anyList(), any());
+
+        try (LoadBalancingTransport transport = new LoadBalancingTransport(Collections.singletonList(endpoint), Duration.ofHours(1), 0.5, 0.4)) {
+            for (int i = 0; i < 3; i++) {
+                transport.sendAsync("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class)
+                        .exceptionally(error -> null)
+                        .join();
+            }
+
+            assertTrue(transport.getStats().get(0).isHealthy());
+            assertEquals(0.0, transport.getStats().get(0).getErrorRate());
+        }
+    }
+
+    @Test
+    public void testUnmeasuredEndpointDoesNotTakeAllTraffic() {
+        ZkSyncTransport hanging = mock(ZkSyncTransport.class);
+        ZkSyncTransport working = mock(ZkSyncTransport.class);
+        doReturn(new CompletableFuture<>()).when(hanging).sendAsync(anyString(), anyList(), any());
+        doReturn(CompletableFuture.completedFuture("hash")).when(working).sendAsync(anyString(), anyList(), any());
+
+        try (LoadBalancingTransport transport = new LoadBalancingTransport(Arrays.asList(hanging, working), Duration.ofHours(1), 0.5, 0.4)) {
+            for (int i = 0; i < 10; i++) {
+                transport.sendAsync("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class);
+            }
+
+            verify(hanging, times(1)).sendAsync(anyString(), anyList(), any());
+            verify(working, times(9)).sendAsync(anyString(), anyList(), any());
+        }
+    }
+
+    @Test
+    public void testCancelledCallLeavesEndpoint() {
+        ZkSyncTransport endpoint = mock(ZkSyncTransport.class);
+        CompletableFuture<String> call = new CompletableFuture<>();
+        doReturn(call).when(endpoint).sendAsync(anyString(), anyList(), any());
+
+        try (LoadBalancingTransport transport = new LoadBalancingTransport(Collections.singletonList(endpoint), Duration.ofHours(1), 0.5, 0.4)) {
+            CompletableFuture<String> result = transport.sendAsync("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class);
+            assertEquals(1, transport.getStats().get(0).getInFlight());
+
+            result.cancel(false);
+
+            assertTrue(call.isCancelled());
+            assertEquals(0, transport.getStats().get(0).getInFlight());
+            assertTrue(transport.getStats().get(0).isHealthy());
+            assertEquals(0.0, transport.getStats().get(0).getErrorRate());
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package io.zksync.transport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.junit.Test;
+
+import io.zksync.exception.ZkSyncException;
+import io.zksync.exception.ZkSyncRateLimitException;
+import io.zksync.transport.response.ZksSentTransaction;
+
+public class RateLimitingTransportTest {
+
+    @Test
+    public void testRejectsWhenQueueIsFull() {
+        ZkSyncTransport delegate = mock(ZkSyncTransport.class);
+        doReturn(CompletableFuture.completedFuture("hash")).when(delegate).sendAsync(anyString(), anyList(), any());
+        RateLimitingTransport transport = RateLimitingTransport.builder(delegate)
+                .limit("tx_info", 0.001, 1)
+                .queue(0, Duration.ofSeconds(1))
+                .build();
+
+        CompletableFuture<String> first = transport.sendAsync("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class);
+        CompletableFuture<String> second = transport.sendAsync("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class);
+        CompletableFuture<String> other = transport.sendAsync("tx_submit", Collections.emptyList(), ZksSentTransaction.class);
+
+        assertEquals("hash", first.join());
+        CompletionException error = assertThrows(CompletionException.class, second::join);
+        assertTrue(error.getCause() instanceof ZkSyncRateLimitException);
+        assertEquals("hash", other.join());
+    }
+
+    @Test
+    public void testQueuedRequestIsSentLater() {
+        ZkSyncTransport delegate = mock(ZkSyncTransport.class);
+        doReturn(CompletableFuture.completedFuture("hash")).when(delegate).sendAsync(anyString(), anyList(), any());
+        RateLimitingTransport transport = RateLimitingTransport.builder(delegate)
+                .globalLimit(50, 1)
+                .build();
+
+        CompletableFuture<String> first = transport.sendAsync("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class);
+        CompletableFuture<String> second = transport.sendAsync("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class);
+
+        assertEquals("hash", first.join());
+        assertEquals("hash", second.join());
+        verify(delegate, times(2)).sendAsync(anyString(), anyList(), any());
+    }
+
+    @Test
+    public void testCancelledRequestLeavesQueue() {
+        ZkSyncTransport delegate = mock(ZkSyncTransport.class);
+        doReturn(CompletableFuture.completedFuture("hash")).when(delegate).sendAsync(anyString(), anyList(), any());
+        RateLimitingTransport transport = RateLimitingTransport.builder(delegate)
+                .limit("tx_info", 20, 1)
+                .queue(1, Duration.ofSeconds(1))
+                .build();
+
+        transport.sendAsync("tx_info", Collections.singletonList("first"), ZksSentTransaction.class).join();
+        CompletableFuture<String> cancelled = transport.sendAsync("tx_info", Collections.singletonList("cancelled"), ZksSentTransaction.class);
+        cancelled.cancel(false);
+
+        // Slot of the cancelled request is free again and its permit goes to the next one
+        assertEquals("hash", transport.sendAsync("tx_info", Collections.singletonList("next"), ZksSentTransaction.class).join());
+        verify(delegate, never()).sendAsync(anyString(), eq(Collections.singletonList("cancelled")), any());
+        verify(delegate, times(2)).sendAsync(anyString(), anyList(), any());
+    }
+
+    @Test
+    public void testBatchTakesOneQueueSlotPerMethod() {
+        ZkSyncTransport delegate = mock(ZkSyncTransport.class);
+        doAnswer(invocation -> {
+            List<ZkSyncRequest> batch = invocation.getArgument(0);
+            List<CompletableFuture<String>> responses = new ArrayList<>();
+            batch.forEach(request -> responses.add(CompletableFuture.completedFuture((String) request.getParams().get(0))));
+            return responses;
+        }).when(delegate).sendBatch(anyList(), any());
+        RateLimitingTransport transport = RateLimitingTransport.builder(delegate)
+                .limit("tx_info", 20, 1)
+                .queue(1, Duration.ofSeconds(1))
+                .build();
+
+        List<ZkSyncRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            requests.add(ZkSyncRequest.builder().method("tx_info").params(Collections.singletonList("hash" + i)).build());
+        }
+        requests.add(ZkSyncRequest.builder().method("tx_submit").params(Collections.singletonList("tx")).build());
+        List<CompletableFuture<String>> results = transport.sendBatch(requests, ZksSentTransaction.class);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("hash" + i, results.get(i).join());
+        }
+        assertEquals("tx", results.get(5).join());
+        // Every method goes out as a batch of its own
+        verify(delegate, times(2)).sendBatch(anyList(), any());
+    }
+
+    @Test
+    public void testSlowsDownWhenThrottled() {
+        ZkSyncTransport delegate = mock(ZkSyncTransport.class);
+        CompletableFuture<String> throttled = new CompletableFuture<>();
+        throttled.completeExceptionally(new ZkSyncException(new ZkSyncError(HttpTransport.HTTP_TOO_MANY_REQUESTS, "Too many requests")));
+        doReturn(throttled).when(delegate).sendAsync(anyString(), anyList(), any());
+        RateLimitingTransport transport = RateLimitingTransport.builder(delegate).build();
+
+        transport.sendAsync("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class)
+                .exceptionally(error -> null)
+                .join();
+
+        assertEquals(0.5, transport.getRateFactor());
+    }
+
+    @Test
+    public void testPollingFloodDoesNotBlockSubmits() {
+        ZkSyncTransport delegate = mock(ZkSyncTransport.class);
+        List<String> sent = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            sent.add(invocation.getArgument(0));
+            return CompletableFuture.completedFuture("hash");
+        }).when(delegate).sendAsync(anyString(), anyList(), any());
+        RateLimitingTransport transport = RateLimitingTransport.builder(delegate)
+                .globalLimit(20, 1)
+                .queue(2, Duration.ofSeconds(5))
+                .build();
+
+        List<CompletableFuture<String>> polls = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            polls.add(transport.sendAsync("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class));
+        }
+        CompletableFuture<String> submit = transport.sendAsync("tx_submit", Collections.emptyList(), ZksSentTransaction.class);
+
+        // Queue of tx_info is full, the submit still gets its own place and goes first
+        CompletionException error = assertThrows(CompletionException.class, polls.get(3)::join);
+        assertTrue(error.getCause() instanceof ZkSyncRateLimitException);
+        assertEquals("hash", submit.join());
+        polls.get(2).join();
+        assertEquals(Arrays.asList("tx_info", "tx_submit", "tx_info", "tx_info"), sent);
+    }
+}
@@ -0,0 +1,64 @@
+package io.zksync.transport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+import io.zksync.domain.fee.TransactionFeeDetails;
+import io.zksync.domain.state.AccountState;
+import io.zksync.domain.state.DepositingBalance;
+import io.zksync.domain.state.DepositingState;
+import io.zksync.domain.state.State;
+import io.zksync.domain.token.NFT;
+import io.zksync.exception.ZkSyncException;
+import io.zksync.transport.response.ZksAccountState;
+import io.zksync.transport.response.ZksSentTransaction;
+import io.zksync.transport.response.ZksTransactionFeeDetails;
+
+public class ReplayTransportTest {
+
+    @Test
+    public void testRecordAndReplay() throws IOException {
+        Path file = Files.createTempFile("zksync-recording", ".jsonl.gz");
+        ZkSyncTransport delegate = mock(ZkSyncTransport.class);
+        State committed = new State(3, "sync:18e8", Collections.singletonMap("ETH", "1000"),
+                Collections.singletonMap("65536", new NFT(65536, "NFT-65536", 1, "0x00", "0xabc", 0, "0xdef")), Collections.emptyMap());
+        AccountState state = new AccountState("0xabc", 42,
+                new DepositingState(Collections.singletonMap("ETH", new DepositingBalance("10", BigInteger.valueOf(5)))),
+                committed, new State(2, "sync:0000", Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap()));
+        TransactionFeeDetails fee = new TransactionFeeDetails("1000", "100", "10", "5", "15");
+        doReturn(CompletableFuture.completedFuture(state))
+                .when(delegate).sendAsync(eq("account_info"), anyList(), any());
+        doReturn(fee).when(delegate).send(eq("get_tx_fee"), anyList(), any());
+        doThrow(new ZkSyncException(new ZkSyncError(101, "Unknown transaction")))
+                .when(delegate).send(eq("tx_info"), anyList(), any());
+
+        try (RecordingTransport recording = new RecordingTransport(delegate, file)) {
+            recording.sendAsync("account_info", Collections.singletonList("0xabc"), ZksAccountState.class).join();
+            recording.send("get_tx_fee", Arrays.asList("Transfer", "0xabc", "ETH"), ZksTransactionFeeDetails.class);
+            assertThrows(ZkSyncException.class, () -> recording.send("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class));
+        }
+
+        ReplayTransport replay = new ReplayTransport(file, 0);
+        AccountState replayed = replay.<AccountState, ZksAccountState>sendAsync("account_info", Collections.singletonList("0xabc"), ZksAccountState.class).join();
+        assertEquals(state, replayed);
+        // Unknown params fall back to the responses of the method
+        assertEquals(state, replay.send("account_info", Collections.singletonList("0xdef"), ZksAccountState.class));
+        assertEquals(fee, replay.send("get_tx_fee", Arrays.asList("Transfer", "0xabc", "ETH"), ZksTransactionFeeDetails.class));
+
+        ZkSyncException error = assertThrows(ZkSyncException.class, () -> replay.send("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class));
+        assertEquals(101, error.getError().getCode());
+        assertThrows(ZkSyncException.class, () -> replay.send("tokens", Collections.emptyList(), ZksSentTransaction.class));
+
+        Files.delete(file);
+    }
+}
@@ -0,0 +1,142 @@
+package io.zksync.transport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+import io.zksync.domain.block.BlockInfo;
+import io.zksync.domain.transaction.TransactionDetails;
+import io.zksync.domain.transaction.Transfer;
+import io.zksync.exception.ZkSyncException;
+import io.zksync.transport.response.ZksSentTransaction;
+import io.zksync.transport.response.ZksTransactionDetails;
+
+public class RetryingTransportTest {
+
+    private static final RetryPolicy FAST_RETRY = RetryPolicy.builder()
+            .initialBackoff(Duration.ofMillis(1))
+            .build();
+
+    @Test
+    public void testReadIsRetried() {
+        ZkSyncTransport delegate = mock(ZkSyncTransport.class);
+        doReturn(failed(new IOException("Connection reset")), CompletableFuture.completedFuture("hash"))
+                .when(delegate).sendAsync(anyString(), anyList(), any());
+        RetryingTransport transport = RetryingTransport.builder(delegate).defaultPolicy(FAST_RETRY).build();
+
+        String result = transport.<String, ZksSentTransaction>sendAsync("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class).join();
+
+        assertEquals("hash", result);
+        verify(delegate, times(2)).sendAsync(anyString(), anyList(), any());
+    }
+
+    @Test
+    public void testFatalErrorIsNotRetried() {
+        ZkSyncTransport delegate = mock(ZkSyncTransport.class);
+        doReturn(failed(new ZkSyncException(new ZkSyncError(101, "Invalid params"))))
+                .when(delegate).sendAsync(anyString(), anyList(), any());
+        RetryingTransport transport = RetryingTransport.builder(delegate).defaultPolicy(FAST_RETRY).build();
+
+        CompletableFuture<String> result = transport.sendAsync("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class);
+
+        assertThrows(Exception.class, result::join);
+        verify(delegate, times(1)).sendAsync(anyString(), anyList(), any());
+    }
+
+    @Test
+    public void testSubmitIsNotRetriedWithoutHash() {
+        ZkSyncTransport delegate = mock(ZkSyncTransport.class);
+        doReturn(failed(new IOException("Connection reset"))).when(delegate).sendAsync(anyString(), anyList(), any());
+        RetryingTransport transport = RetryingTransport.builder(delegate).defaultPolicy(FAST_RETRY).build();
+
+        CompletableFuture<String> result = transport.sendAsync("tx_submit", Arrays.asList(Transfer.builder().build(), null, false), ZksSentTransaction.class);
+
+        assertThrows(Exception.class, result::join);
+        verify(delegate, times(1)).sendAsync(anyString(), anyList(), any());
+    }
+
+    @Test
+    public void testSubmitAcceptedBeforeRetry() {
+        ZkSyncTransport delegate = mock(ZkSyncTransport.class);
+        doReturn(failed(new IOException("Read timed out")))
+                .when(delegate).sendAsync(eq("tx_submit"), anyList(), any());
+        doReturn(CompletableFuture.completedFuture(TransactionDetails.builder().executed(true).build()))
+                .when(delegate).sendAsync(eq("tx_info"), anyList(), eq(ZksTransactionDetails.class));
+        RetryingTransport transport = RetryingTransport.builder(delegate)
+                .retrySubmit(tx -> "sync-tx:hash", FAST_RETRY)
+                .build();
+
+        String result = transport.<String, ZksSentTransaction>sendAsync("tx_submit", Arrays.asList(Transfer.builder().build(), null, false), ZksSentTransaction.class).join();
+
+        assertEquals("sync-tx:hash", result);
+        verify(delegate, times(1)).sendAsync(eq("tx_submit"), anyList(), any());
+    }
+
+    @Test
+    public void testSubmitPendingInBlockIsNotResent() {
+        ZkSyncTransport delegate = mock(ZkSyncTransport.class);
+        doReturn(failed(new IOException("Read timed out")))
+                .when(delegate).sendAsync(eq("tx_submit"), anyList(), any());
+        TransactionDetails pending = TransactionDetails.builder()
+                .executed(false)
+                .block(new BlockInfo(1, false, false))
+                .build();
+        doReturn(CompletableFuture.completedFuture(pending))
+                .when(delegate).sendAsync(eq("tx_info"), anyList(), eq(ZksTransactionDetails.class));
+        RetryingTransport transport = RetryingTransport.builder(delegate)
+                .retrySubmit(tx -> "sync-tx:hash", FAST_RETRY)
+                .build();
+
+        String result = transport.<String, ZksSentTransaction>sendAsync("tx_submit", Arrays.asList(Transfer.builder().build(), null, false), ZksSentTransaction.class).join();
+
+        assertEquals("sync-tx:hash", result);
+        verify(delegate, times(1)).sendAsync(eq("tx_submit"), anyList(), any());
+    }
+
+    @Test
+    public void testWritePolicyIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> RetryingTransport.builder(mock(ZkSyncTransport.class)).policy("submit_txs_batch", FAST_RETRY));
+    }
+
+    @Test
+    public void testSubmitStatus() {
+        assertEquals(RetryingTransport.SubmitStatus.UNKNOWN,
+                RetryingTransport.submitStatus(TransactionDetails.builder().executed(false).build()));
+        assertEquals(RetryingTransport.SubmitStatus.AMBIGUOUS,
+                RetryingTransport.submitStatus(TransactionDetails.builder().executed(false).failReason("Nonce mismatch").build()));
+        assertEquals(RetryingTransport.SubmitStatus.AMBIGUOUS, RetryingTransport.submitStatus(new TransactionDetails()));
+    }
+
+    @Test
+    public void testCircuitBreakerFailsFast() {
+        ZkSyncTransport delegate = mock(ZkSyncTransport.class);
+        doReturn(failed(new IOException("Connection refused"))).when(delegate).sendAsync(anyString(), anyList(), any());
+        RetryingTransport transport = RetryingTransport.builder(delegate)
+                .defaultPolicy(RetryPolicy.noRetry())
+                .circuitBreaker(2, Duration.ofHours(1))
+                .build();
+
+        for (int i = 0; i < 5; i++) {
+            transport.sendAsync("tx_info", Collections.singletonList("hash"), ZksSentTransaction.class)
+                    .exceptionally(error -> null)
+                    .join();
+        }
+
+        assertTrue(transport.isCircuitOpen());
+        verify(delegate, times(2)).sendAsync(anyString(), anyList(), any());
+    }
+
+    private static <T> CompletableFuture<T> failed(Throwable error) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(error);
+        return future;
+    }
+}
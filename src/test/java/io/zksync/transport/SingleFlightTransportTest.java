@@ -0,0 +1,52 @@
+package io.zksync.transport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+import io.zksync.domain.state.AccountState;
+import io.zksync.transport.response.ZksAccountState;
+
+public class SingleFlightTransportTest {
+
+    @Test
+    public void testIdenticalReadsShareOneCall() {
+        ZkSyncTransport delegate = mock(ZkSyncTransport.class);
+        CompletableFuture<AccountState> response = new CompletableFuture<>();
+        doReturn(response).when(delegate).sendAsync(eq("account_info"), eq(Collections.singletonList("0xabc")), any());
+        doReturn(new CompletableFuture<>()).when(delegate).sendAsync(eq("account_info"), eq(Collections.singletonList("0xdef")), any());
+        SingleFlightTransport transport = new SingleFlightTransport(delegate);
+
+        CompletableFuture<AccountState> first = transport.sendAsync("account_info", Collections.singletonList("0xabc"), ZksAccountState.class);
+        CompletableFuture<AccountState> second = transport.sendAsync("account_info", Collections.singletonList("0xabc"), ZksAccountState.class);
+        transport.sendAsync("account_info", Collections.singletonList("0xdef"), ZksAccountState.class);
+
+        AccountState state = new AccountState();
+        state.setAddress("0xabc");
+        response.complete(state);
+
+        assertSame(state, first.join());
+        // Caller which shares the call gets its own copy
+        assertNotSame(state, second.join());
+        assertEquals("0xabc", second.join().getAddress());
+        assertEquals(1, transport.getSharedCount());
+        verify(delegate, times(1)).sendAsync(eq("account_info"), eq(Collections.singletonList("0xabc")), any());
+
+        // Completed call is not reused
+        transport.sendAsync("account_info", Collections.singletonList("0xabc"), ZksAccountState.class);
+        verify(delegate, times(2)).sendAsync(eq("account_info"), eq(Collections.singletonList("0xabc")), any());
+    }
+
+    @Test
+    public void testWriteMethodsAreRejected() {
+        ZkSyncTransport delegate = mock(ZkSyncTransport.class);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new SingleFlightTransport(delegate, Collections.singleton("tx_submit")));
+        assertDoesNotThrow(() -> new SingleFlightTransport(delegate, Collections.singleton("tokens")));
+    }
+}
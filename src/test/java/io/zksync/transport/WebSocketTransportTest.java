@@ -0,0 +1,107 @@
+package io.zksync.transport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.junit.Test;
+
+import io.zksync.domain.state.AccountState;
+import io.zksync.domain.transaction.TransactionDetails;
+import io.zksync.exception.ZkSyncException;
+import io.zksync.testing.ZkSyncStubServer;
+import io.zksync.transport.response.ZksAccountState;
+import io.zksync.transport.response.ZksTransactionDetails;
+import okhttp3.OkHttpClient;
+
+public class WebSocketTransportTest {
+
+    private static final OkHttpClient CLIENT = new OkHttpClient();
+
+    @Test
+    public void testConcurrentRequestsMatchedById() throws IOException {
+        try (ZkSyncStubServer stubServer = ZkSyncStubServer.builder().webSocket().latency(Duration.ofMillis(20)).start();
+                WebSocketTransport transport = new WebSocketTransport(stubServer.getWebSocketUrl())) {
+            List<CompletableFuture<AccountState>> states = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                states.add(transport.sendAsync("account_info", Collections.singletonList(address(i)), ZksAccountState.class));
+            }
+
+            for (int i = 0; i < 20; i++) {
+                assertEquals(address(i), states.get(i).join().getAddress());
+            }
+            assertEquals(1, stubServer.getWebSocketConnections());
+        }
+    }
+
+    @Test
+    public void testBatch() throws IOException {
+        try (ZkSyncStubServer stubServer = ZkSyncStubServer.builder().webSocket().start();
+                WebSocketTransport transport = new WebSocketTransport(stubServer.getWebSocketUrl())) {
+            List<ZkSyncRequest> requests = Arrays.asList(
+                    ZkSyncRequest.builder().method("account_info").params(Collections.singletonList(address(1))).build(),
+                    ZkSyncRequest.builder().method("account_info").params(Collections.singletonList(address(2))).build());
+
+            List<CompletableFuture<AccountState>> states = transport.sendBatch(requests, ZksAccountState.class);
+
+            assertEquals(address(1), states.get(0).join().getAddress());
+            assertEquals(address(2), states.get(1).join().getAddress());
+            assertEquals(2, stubServer.getRequests());
+        }
+    }
+
+    @Test
+    public void testTimeout() throws IOException {
+        try (ZkSyncStubServer stubServer = ZkSyncStubServer.builder().webSocket().unanswered("tx_info").start();
+                WebSocketTransport transport = new WebSocketTransport(stubServer.getWebSocketUrl(), CLIENT,
+                        Duration.ofMillis(100), Duration.ofMillis(50))) {
+            CompletableFuture<TransactionDetails> details = transport.sendAsync("tx_info", Collections.singletonList("sync-tx:00"), ZksTransactionDetails.class);
+
+            CompletionException error = assertThrows(CompletionException.class, details::join);
+            assertTrue(error.getCause() instanceof ZkSyncException);
+            assertTrue(error.getCause().getMessage().contains("timed out"));
+            // Connection survives a timed out request
+            assertEquals(address(1), transport.<AccountState, ZksAccountState>send("account_info", Collections.singletonList(address(1)), ZksAccountState.class).getAddress());
+            assertEquals(1, stubServer.getWebSocketConnections());
+        }
+    }
+
+    @Test
+    public void testReconnectAfterServerClose() throws IOException {
+        try (ZkSyncStubServer stubServer = ZkSyncStubServer.builder().webSocket().unanswered("tx_info").start();
+                WebSocketTransport transport = new WebSocketTransport(stubServer.getWebSocketUrl(), CLIENT,
+                        Duration.ofSeconds(5), Duration.ofMillis(50))) {
+            transport.send("account_info", Collections.singletonList(address(1)), ZksAccountState.class);
+            CompletableFuture<TransactionDetails> pending = transport.sendAsync("tx_info", Collections.singletonList("sync-tx:00"), ZksTransactionDetails.class);
+
+            stubServer.closeWebSocketConnections();
+
+            CompletionException error = assertThrows(CompletionException.class, pending::join);
+            assertTrue(error.getCause().getMessage().contains("lost"));
+            assertEquals(address(2), transport.<AccountState, ZksAccountState>send("account_info", Collections.singletonList(address(2)), ZksAccountState.class).getAddress());
+            assertEquals(2, stubServer.getWebSocketConnections());
+        }
+    }
+
+    @Test
+    public void testUnreadableResponseFailsRequest() throws IOException {
+        try (ZkSyncStubServer stubServer = ZkSyncStubServer.builder().webSocket().garbled("tx_info").start();
+                WebSocketTransport transport = new WebSocketTransport(stubServer.getWebSocketUrl())) {
+            CompletableFuture<TransactionDetails> details = transport.sendAsync("tx_info", Collections.singletonList("sync-tx:00"), ZksTransactionDetails.class);
+
+            CompletionException error = assertThrows(CompletionException.class, details::join);
+            assertTrue(error.getCause().getMessage().contains("Unreadable"));
+        }
+    }
+
+    private static String address(int index) {
+        return String.format("0x%040x", index);
+    }
+}
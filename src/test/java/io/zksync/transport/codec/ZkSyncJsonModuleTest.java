@@ -0,0 +1,80 @@
+package io.zksync.transport.codec;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+import org.junit.Test;
+import org.web3j.tuples.generated.Tuple2;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.zksync.domain.Signature;
+import io.zksync.domain.TimeRange;
+import io.zksync.domain.auth.ChangePubKeyECDSA;
+import io.zksync.domain.fee.TransactionFeeDetails;
+import io.zksync.domain.state.AccountState;
+import io.zksync.domain.swap.Order;
+import io.zksync.domain.transaction.ChangePubKey;
+import io.zksync.domain.transaction.ForcedExit;
+import io.zksync.domain.transaction.TransactionDetails;
+import io.zksync.domain.transaction.Transfer;
+
+public class ZkSyncJsonModuleTest {
+
+    private final ObjectMapper binding = new ObjectMapper();
+
+    private final ObjectMapper streaming = new ObjectMapper().registerModule(new ZkSyncJsonModule());
+
+    @Test
+    public void testTransactionsMatchDataBinding() throws IOException {
+        Signature signature = Signature.builder().pubKey("0x01").signature("0x02").build();
+        assertSameJson(Transfer.builder()
+                .accountId(44).from("0xede3").to("0x19aa").token(0).amount(BigInteger.valueOf(1000000000000L))
+                .fee("1000000").nonce(12).signature(signature).timeRange(new TimeRange(0, 4294967295L))
+                .build());
+        assertSameJson(Transfer.builder().amount(BigInteger.ONE).build());
+        assertSameJson(ForcedExit.builder()
+                .initiatorAccountId(44).target("0x19aa").token(0).fee("1000").nonce(1).signature(signature)
+                .timeRange(new TimeRange())
+                .build());
+        assertSameJson(ChangePubKey.<ChangePubKeyECDSA>builder()
+                .accountId(55).account("0xede3").newPkHash("sync:18e8").feeToken(0).fee("1000").nonce(0)
+                .ethAuthData(new ChangePubKeyECDSA("0xabcd", "0x0000"))
+                .timeRange(new TimeRange())
+                .build());
+        assertSameJson(Order.builder()
+                .accountId(6).recipientAddress("0x19aa").nonce(18).tokenBuy(0).tokenSell(1)
+                .ratio(new Tuple2<>(BigInteger.ONE, BigInteger.TEN)).amount(BigInteger.valueOf(1000))
+                .timeRange(new TimeRange())
+                .build());
+    }
+
+    @Test
+    public void testResponsesMatchDataBinding() throws IOException {
+        assertSameValue(AccountState.class, "{\"address\":\"0xede3\",\"id\":44,\"extra\":[1,{\"a\":2}],"
+                + "\"depositing\":{\"balances\":{\"ETH\":{\"amount\":\"10\",\"expectedBlockNumber\":5}}},"
+                + "\"committed\":{\"nonce\":3,\"pubKeyHash\":\"sync:18e8\",\"balances\":{\"ETH\":\"1000\",\"DAI\":\"5\"},"
+                + "\"nfts\":{\"65536\":{\"id\":65536,\"symbol\":\"NFT-65536\",\"creatorId\":1,\"contentHash\":\"0x00\","
+                + "\"creatorAddress\":\"0xede3\",\"serialId\":0,\"address\":\"0x19aa\"}},\"mintedNfts\":{}},"
+                + "\"verified\":{\"nonce\":2,\"pubKeyHash\":\"sync:0000\",\"balances\":{}}}");
+        assertSameValue(AccountState.class, "{\"address\":\"0xede3\",\"id\":null,\"depositing\":null,\"committed\":null,\"verified\":null}");
+        assertSameValue(TransactionDetails.class, "{\"executed\":true,\"success\":false,\"failReason\":\"Nonce mismatch\","
+                + "\"block\":{\"blockNumber\":42,\"committed\":true,\"verified\":false}}");
+        assertSameValue(TransactionDetails.class, "{\"executed\":false,\"success\":null,\"failReason\":null,\"block\":null}");
+        assertSameValue(TransactionFeeDetails.class, "{\"gasTxAmount\":\"1000\",\"gasPriceWei\":\"100\",\"gasFee\":\"10\","
+                + "\"zkpFee\":\"5\",\"totalFee\":\"15\"}");
+    }
+
+    private void assertSameJson(Object value) throws IOException {
+        assertEquals(binding.readTree(binding.writeValueAsString(value)), streaming.readTree(streaming.writeValueAsString(value)));
+    }
+
+    private <T> void assertSameValue(Class<T> type, String json) throws IOException {
+        assertEquals(new ObjectMapper().readerFor(type)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .readValue(json), streaming.readValue(json, type));
+    }
+}